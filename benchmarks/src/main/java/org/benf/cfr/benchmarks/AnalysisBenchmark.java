@@ -0,0 +1,80 @@
+package org.benf.cfr.benchmarks;
+
+import org.benf.cfr.reader.entities.ClassFile;
+import org.benf.cfr.reader.entities.Method;
+import org.benf.cfr.reader.state.DCCommonState;
+import org.benf.cfr.reader.state.TypeUsageCollectingDumper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Analysis of already parsed classes.
+ *
+ * methods runs CodeAnalyser.getAnalysis (Op01 to structured Op04) on every method in isolation, classes adds
+ * the whole class passes that the driver runs before dumping.
+ *
+ * Every invocation needs freshly parsed classes; that's done in per invocation setup, which isn't timed.  It's
+ * cheap compared to the analysis, so the usual caveats about Level.Invocation don't bite here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisBenchmark {
+    private Corpus corpus;
+    private DCCommonState state;
+    private List<ClassFile> classes;
+
+    @Setup
+    public void setup() throws IOException {
+        corpus = new Corpus();
+    }
+
+    @TearDown
+    public void tearDown() {
+        corpus.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void parse() {
+        state = corpus.newState();
+        classes = corpus.parseAll(state);
+    }
+
+    @Benchmark
+    public void methods(Blackhole bh) {
+        for (ClassFile c : classes) {
+            for (Method m : c.getMethods()) {
+                if (m.hasCodeAttribute()) {
+                    bh.consume(m.getAnalysis());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void classes(Blackhole bh) {
+        for (ClassFile c : classes) {
+            TypeUsageCollectingDumper collectingDumper = new TypeUsageCollectingDumper(state, c);
+            c.analyseTop(state, collectingDumper);
+            bh.consume(collectingDumper.getRealTypeUsageInformation());
+        }
+    }
+}
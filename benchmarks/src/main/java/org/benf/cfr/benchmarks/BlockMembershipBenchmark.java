@@ -0,0 +1,93 @@
+package org.benf.cfr.benchmarks;
+
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierFactory;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * The block membership operations the Op03 rewriters lean on (containment, intersection, difference, copying)
+ * between neighbouring statements' block sets - as HashSets, as they used to be, and as BlockIdentifierSets.
+ * (BlockIdentifierSet's helpers fall back to SetUtil's generic versions for the HashSets).
+ *
+ * Each statement is in a random nest of up to 20 of the method's blocks, and neighbours mostly share their blocks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockMembershipBenchmark {
+    private static final int STATEMENTS = 2000;
+
+    @Param({"50", "500"})
+    public int blocks;
+
+    private final List<Set<BlockIdentifier>> hashSets = new ArrayList<Set<BlockIdentifier>>();
+    private final List<Set<BlockIdentifier>> bitSets = new ArrayList<Set<BlockIdentifier>>();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        BlockIdentifierFactory factory = new BlockIdentifierFactory();
+        List<BlockIdentifier> identifiers = new ArrayList<BlockIdentifier>();
+        for (int x = 0; x < blocks; ++x) {
+            identifiers.add(factory.getNextBlockIdentifier(BlockType.values()[random.nextInt(BlockType.values().length)]));
+        }
+        Set<BlockIdentifier> current = new HashSet<BlockIdentifier>();
+        for (int x = 0; x < STATEMENTS; ++x) {
+            if (random.nextInt(4) == 0) {
+                if (current.size() < 20 && random.nextBoolean()) {
+                    current.add(identifiers.get(random.nextInt(blocks)));
+                } else if (!current.isEmpty()) {
+                    current.remove(current.iterator().next());
+                }
+            }
+            hashSets.add(new HashSet<BlockIdentifier>(current));
+            bitSets.add(new BlockIdentifierSet(current));
+        }
+    }
+
+    private static int walk(List<Set<BlockIdentifier>> sets) {
+        int res = 0;
+        for (int x = 1, len = sets.size(); x < len; ++x) {
+            Set<BlockIdentifier> prev = sets.get(x - 1);
+            Set<BlockIdentifier> next = sets.get(x);
+            if (prev.containsAll(next)) res++;
+            if (BlockIdentifierSet.hasIntersection(prev, next)) res++;
+            res += BlockIdentifierSet.differenceAtakeBtoList(prev, next).size();
+            Set<BlockIdentifier> intersection = BlockIdentifierSet.intersectionOrNull(prev, next);
+            if (intersection != null) res += intersection.size();
+        }
+        return res;
+    }
+
+    @Benchmark
+    public int hashSet() {
+        return walk(hashSets);
+    }
+
+    @Benchmark
+    public int blockIdentifierSet() {
+        return walk(bitSets);
+    }
+}
@@ -0,0 +1,105 @@
+package org.benf.cfr.benchmarks;
+
+import org.benf.cfr.benchmarks.corpus.Exceptions;
+import org.benf.cfr.benchmarks.corpus.InnerClasses;
+import org.benf.cfr.benchmarks.corpus.Lambdas;
+import org.benf.cfr.benchmarks.corpus.Loops;
+import org.benf.cfr.benchmarks.corpus.Switches;
+import org.benf.cfr.reader.entities.ClassFile;
+import org.benf.cfr.reader.state.ClassFileSourceImpl;
+import org.benf.cfr.reader.state.DCCommonState;
+import org.benf.cfr.reader.state.TypeUsageCollectingDumper;
+import org.benf.cfr.reader.util.bytestream.BaseByteData;
+import org.benf.cfr.reader.util.getopt.Options;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/*
+ * The classes every benchmark works over.  They're compiled as part of this module, so the bytecode is fixed
+ * for a given compiler - add to CLASSES rather than changing an existing class, or results won't be comparable.
+ */
+final class Corpus {
+    static final Class<?>[] CLASSES = {
+            Loops.class,
+            Switches.class,
+            Exceptions.class,
+            Lambdas.class,
+            InnerClasses.class,
+    };
+
+    final Options options;
+    final List<String> paths = new ArrayList<String>();
+    final List<byte[]> bytes = new ArrayList<byte[]>();
+    // Scanning the classpath is expensive, and the source caches nothing that analysis changes, so share it.
+    private final ClassFileSourceImpl classFileSource;
+
+    Corpus() throws IOException {
+        options = new OptionsImpl(new HashMap<String, String>());
+        classFileSource = new ClassFileSourceImpl(options);
+        for (Class<?> c : CLASSES) {
+            String path = c.getName().replace('.', '/') + ".class";
+            paths.add(path);
+            bytes.add(read(path));
+        }
+    }
+
+    DCCommonState newState() {
+        return new DCCommonState(options, classFileSource);
+    }
+
+    ClassFile parse(DCCommonState state, int idx) {
+        return new ClassFile(new BaseByteData(bytes.get(idx)), paths.get(idx), state);
+    }
+
+    /*
+     * Parsed, but not analysed.  Analysis results are cached on the ClassFile (and the state), so anything which
+     * analyses needs to parse into a fresh state each time.
+     */
+    List<ClassFile> parseAll(DCCommonState state) {
+        List<ClassFile> res = new ArrayList<ClassFile>();
+        for (int x = 0; x < bytes.size(); ++x) {
+            ClassFile c = parse(state, x);
+            c.loadInnerClasses(state);
+            res.add(c);
+        }
+        return res;
+    }
+
+    /*
+     * As the driver does it, ready to dump.
+     */
+    List<ClassFile> analyseAll() {
+        DCCommonState state = newState();
+        List<ClassFile> res = parseAll(state);
+        for (ClassFile c : res) {
+            c.analyseTop(state, new TypeUsageCollectingDumper(state, c));
+        }
+        return res;
+    }
+
+    void close() {
+        classFileSource.close();
+    }
+
+    private static byte[] read(String path) throws IOException {
+        InputStream is = Corpus.class.getClassLoader().getResourceAsStream(path);
+        if (is == null) throw new IOException("Missing corpus class " + path);
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int len;
+            while ((len = is.read(buf)) != -1) {
+                bos.write(buf, 0, len);
+            }
+            return bos.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.benf.cfr.benchmarks;
+
+import org.benf.cfr.reader.api.CfrDriver;
+import org.benf.cfr.reader.api.OutputSinkFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * The whole pipeline, through the public API - this includes loading (and scanning the classpath for) the
+ * corpus on every invocation, as a real caller would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriverBenchmark {
+    private List<String> classNames;
+
+    @Setup
+    public void setup() {
+        classNames = new ArrayList<String>();
+        for (Class<?> c : Corpus.CLASSES) {
+            classNames.add(c.getName());
+        }
+    }
+
+    @Benchmark
+    public void decompile(final Blackhole bh) {
+        OutputSinkFactory sinkFactory = new OutputSinkFactory() {
+            @Override
+            public List<SinkClass> getSupportedSinks(SinkType sinkType, Collection<SinkClass> available) {
+                return Collections.singletonList(SinkClass.STRING);
+            }
+
+            @Override
+            public <T> Sink<T> getSink(SinkType sinkType, SinkClass sinkClass) {
+                return new Sink<T>() {
+                    @Override
+                    public void write(T sinkable) {
+                        bh.consume(sinkable);
+                    }
+                };
+            }
+        };
+        CfrDriver driver = new CfrDriver.Builder().withOutputSink(sinkFactory).build();
+        driver.analyse(classNames);
+    }
+}
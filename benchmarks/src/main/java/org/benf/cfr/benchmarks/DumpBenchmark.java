@@ -0,0 +1,52 @@
+package org.benf.cfr.benchmarks;
+
+import org.benf.cfr.reader.entities.ClassFile;
+import org.benf.cfr.reader.util.output.ToStringDumper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Dumping fully analysed classes to text.  Dumping doesn't change the analysis, so that's done once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DumpBenchmark {
+    private Corpus corpus;
+    private List<ClassFile> classes;
+
+    @Setup
+    public void setup() throws IOException {
+        corpus = new Corpus();
+        classes = corpus.analyseAll();
+    }
+
+    @TearDown
+    public void tearDown() {
+        corpus.close();
+    }
+
+    @Benchmark
+    public void dump(Blackhole bh) {
+        for (ClassFile c : classes) {
+            bh.consume(ToStringDumper.toString(c));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.benf.cfr.benchmarks;
+
+import org.benf.cfr.benchmarks.corpus.Exceptions;
+import org.benf.cfr.reader.bytecode.analysis.opgraph.Op01WithProcessedDataAndByteJumps;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierFactory;
+import org.benf.cfr.reader.bytecode.opcode.JVMInstr;
+import org.benf.cfr.reader.entities.constantpool.ConstantPool;
+import org.benf.cfr.reader.entities.constantpool.ConstantPoolEntryClass;
+import org.benf.cfr.reader.entities.exceptions.ExceptionAggregator;
+import org.benf.cfr.reader.entities.exceptions.ExceptionTableEntry;
+import org.benf.cfr.reader.util.DecompilerComments;
+import org.benf.cfr.reader.util.bytestream.BaseByteData;
+import org.benf.cfr.reader.util.bytestream.ByteData;
+import org.benf.cfr.reader.util.functors.UnaryFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Building ExceptionAggregator over a synthetic exception table, of the size obfuscators and coroutine heavy
+ * Kotlin produce.  The corpus classes have only a handful of entries each, which doesn't say much about how this
+ * scales.
+ *
+ * Ranges are nested or disjoint (as compilers emit them), each with up to three handlers of assorted catch types,
+ * over straight line code.  The table is the same for every run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionTableBenchmark {
+    private static final int BLOCK_LENGTH = 40;
+    private static final int ENTRIES_PER_BLOCK = 12;
+
+    @Param({"1000", "10000"})
+    public int entries;
+
+    private Corpus corpus;
+    private ConstantPool cp;
+    private final List<ExceptionTableEntry> table = new ArrayList<ExceptionTableEntry>();
+    private final List<Op01WithProcessedDataAndByteJumps> instrs = new ArrayList<Op01WithProcessedDataAndByteJumps>();
+    private final Map<Integer, Integer> lutByOffset = new TreeMap<Integer, Integer>();
+
+    @Setup
+    public void setup() throws IOException {
+        corpus = new Corpus();
+        cp = corpus.parse(corpus.newState(), Arrays.asList(Corpus.CLASSES).indexOf(Exceptions.class)).getConstantPool();
+        // 0 is 'any'.
+        List<Integer> catchTypes = new ArrayList<Integer>();
+        catchTypes.add(0);
+        for (int idx = 1; catchTypes.size() < 4; ++idx) {
+            if (cp.getEntry(idx) instanceof ConstantPoolEntryClass) catchTypes.add(idx);
+        }
+
+        int codeLength = entries * 5;
+        // Handlers are a single instruction each, after the code they cover.
+        for (int offset = 0; offset < codeLength + entries; ++offset) {
+            JVMInstr instr = offset % 3 == 0 ? JVMInstr.ATHROW : JVMInstr.NOP;
+            lutByOffset.put(offset, instrs.size());
+            instrs.add(new Op01WithProcessedDataAndByteJumps(instr, new byte[0], null, offset));
+        }
+        Random random = new Random(0);
+        UnaryFunction<ByteData, ExceptionTableEntry> builder = ExceptionTableEntry.getBuilder();
+        for (int from = 0; from + BLOCK_LENGTH <= codeLength && table.size() < entries; from += BLOCK_LENGTH) {
+            nest(builder, random, catchTypes, from, from + BLOCK_LENGTH - 1, Math.min(ENTRIES_PER_BLOCK, entries - table.size()), codeLength);
+        }
+    }
+
+    private void nest(UnaryFunction<ByteData, ExceptionTableEntry> builder, Random random, List<Integer> catchTypes,
+                      int from, int to, int budget, int codeLength) {
+        if (budget <= 0 || to - from < 2) return;
+        int handlers = Math.min(budget, 1 + random.nextInt(3));
+        for (int x = 0; x < handlers; ++x) {
+            int catchType = catchTypes.get(random.nextInt(catchTypes.size()));
+            table.add(builder.invoke(new BaseByteData(new byte[]{
+                    (byte) (from >> 8), (byte) from,
+                    (byte) (to >> 8), (byte) to,
+                    (byte) ((codeLength + table.size()) >> 8), (byte) (codeLength + table.size()),
+                    (byte) (catchType >> 8), (byte) catchType
+            })));
+        }
+        budget -= handlers;
+        int children = 1 + random.nextInt(4);
+        int width = (to - from) / children;
+        for (int x = 0; x < children && width >= 2; ++x) {
+            nest(builder, random, catchTypes, from + x * width + 1, from + (x + 1) * width, budget / children, codeLength);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        corpus.close();
+    }
+
+    @Benchmark
+    public ExceptionAggregator aggregate() {
+        ExceptionAggregator aggregator = new ExceptionAggregator(table, new BlockIdentifierFactory(), lutByOffset, instrs,
+                corpus.options, cp, new DecompilerComments());
+        aggregator.aggressiveRethrowPruning();
+        aggregator.aggressiveImpossiblePruning();
+        return aggregator;
+    }
+}
@@ -0,0 +1,101 @@
+package org.benf.cfr.benchmarks;
+
+import org.benf.cfr.reader.util.functors.BinaryProcedure;
+import org.benf.cfr.reader.util.graph.GraphVisitor;
+import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
+import org.benf.cfr.reader.util.graph.GraphWalkerDFS;
+import org.benf.cfr.reader.util.graph.IndexedNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A reachability walk (as Cleaner.removeUnreachableCode does) over a synthetic statement graph, with
+ * GraphVisitorDFS and with GraphWalkerDFS.  Both visit the same nodes in the same order.
+ *
+ * The graph is mostly fall through, with a forward branch every few nodes and a back jump every so often, as
+ * loops and conditionals give.  The walker is built over the node list once per walk, as callers do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphTraversalBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int nodes;
+
+    private final List<Node> graph = new ArrayList<Node>();
+
+    private static class Node implements IndexedNode {
+        private final List<Node> targets = new ArrayList<Node>();
+        private int graphIndex = -1;
+
+        @Override
+        public int getGraphIndex() {
+            return graphIndex;
+        }
+
+        @Override
+        public void setGraphIndex(int graphIndex) {
+            this.graphIndex = graphIndex;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        for (int x = 0; x < nodes; ++x) {
+            graph.add(new Node());
+        }
+        for (int x = 0; x < nodes - 1; ++x) {
+            Node node = graph.get(x);
+            node.targets.add(graph.get(x + 1));
+            if (random.nextInt(4) == 0) {
+                node.targets.add(graph.get(Math.min(nodes - 1, x + 2 + random.nextInt(8))));
+            } else if (random.nextInt(16) == 0) {
+                node.targets.add(graph.get(Math.max(0, x - 1 - random.nextInt(32))));
+            }
+        }
+    }
+
+    @Benchmark
+    public int visitor() {
+        final int[] count = new int[1];
+        GraphVisitor<Node> gv = new GraphVisitorDFS<Node>(graph.get(0), new BinaryProcedure<Node, GraphVisitor<Node>>() {
+            @Override
+            public void call(Node arg1, GraphVisitor<Node> arg2) {
+                count[0]++;
+                arg2.enqueue(arg1.targets);
+            }
+        });
+        gv.process();
+        return count[0];
+    }
+
+    @Benchmark
+    public int walker() {
+        int count = 0;
+        GraphWalkerDFS<Node> walker = new GraphWalkerDFS<Node>(graph);
+        walker.start(graph.get(0));
+        for (Node node = walker.next(); node != null; node = walker.next()) {
+            count++;
+            walker.enqueue(node.targets);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,50 @@
+package org.benf.cfr.benchmarks;
+
+import org.benf.cfr.reader.state.DCCommonState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Class file parsing only - new ClassFile(ByteData, ...).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+    private Corpus corpus;
+    private DCCommonState state;
+
+    @Setup
+    public void setup() throws IOException {
+        corpus = new Corpus();
+        state = corpus.newState();
+    }
+
+    @TearDown
+    public void tearDown() {
+        corpus.close();
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (int x = 0, len = corpus.bytes.size(); x < len; ++x) {
+            bh.consume(corpus.parse(state, x));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.benf.cfr.benchmarks;
+
+import org.benf.cfr.reader.api.OutputSinkFactory;
+import org.benf.cfr.reader.api.SinkReturns;
+import org.benf.cfr.reader.entities.ClassFile;
+import org.benf.cfr.reader.state.DCCommonState;
+import org.benf.cfr.reader.state.TypeUsageCollectingDumper;
+import org.benf.cfr.reader.state.TypeUsageInformation;
+import org.benf.cfr.reader.util.output.Dumper;
+import org.benf.cfr.reader.util.output.IllegalIdentifierDump;
+import org.benf.cfr.reader.util.output.NopSummaryDumper;
+import org.benf.cfr.reader.util.output.SinkDumperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Dumping fully analysed classes as a TOKEN_STREAM, as an IDE would consume them.  Run with -prof gc to see
+ * allocation per invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenStreamBenchmark {
+    private Corpus corpus;
+    private final List<ClassFile> classes = new ArrayList<ClassFile>();
+    private final List<TypeUsageInformation> typeUsages = new ArrayList<TypeUsageInformation>();
+    private Blackhole blackhole;
+
+    private final OutputSinkFactory sinkFactory = new OutputSinkFactory() {
+        @Override
+        public List<SinkClass> getSupportedSinks(SinkType sinkType, Collection<SinkClass> available) {
+            if (sinkType == SinkType.JAVA) return Collections.singletonList(SinkClass.TOKEN_STREAM);
+            return Collections.singletonList(SinkClass.STRING);
+        }
+
+        @Override
+        public <T> Sink<T> getSink(SinkType sinkType, SinkClass sinkClass) {
+            return new Sink<T>() {
+                @Override
+                public void write(T sinkable) {
+                    if (blackhole != null) {
+                        SinkReturns.Token token = (SinkReturns.Token) sinkable;
+                        blackhole.consume(token.getTokenType());
+                        blackhole.consume(token.getText());
+                    }
+                }
+            };
+        }
+    };
+
+    @Setup
+    public void setup() throws IOException {
+        corpus = new Corpus();
+        DCCommonState state = corpus.newState();
+        for (ClassFile c : corpus.parseAll(state)) {
+            TypeUsageCollectingDumper collectingDumper = new TypeUsageCollectingDumper(state, c);
+            c.analyseTop(state, collectingDumper);
+            classes.add(c);
+            typeUsages.add(collectingDumper.getRealTypeUsageInformation());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        corpus.close();
+    }
+
+    private void dumpAll() {
+        SinkDumperFactory dumperFactory = new SinkDumperFactory(sinkFactory, corpus.options);
+        for (int x = 0; x < classes.size(); ++x) {
+            ClassFile c = classes.get(x);
+            Dumper d = dumperFactory.getNewTopLevelDumper(c.getClassType(), new NopSummaryDumper(), typeUsages.get(x), new IllegalIdentifierDump.Nop());
+            c.dump(d);
+            d.close();
+        }
+    }
+
+    @Benchmark
+    public void tokens(Blackhole bh) {
+        blackhole = bh;
+        dumpAll();
+    }
+}
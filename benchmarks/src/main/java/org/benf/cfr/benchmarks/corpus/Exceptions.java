@@ -0,0 +1,47 @@
+package org.benf.cfr.benchmarks.corpus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+public class Exceptions {
+    private final Object lock = new Object();
+    private int count;
+
+    public int countLines(Reader reader) {
+        int lines = 0;
+        try (BufferedReader br = new BufferedReader(reader)) {
+            while (br.readLine() != null) {
+                lines++;
+            }
+        } catch (IOException e) {
+            return -1;
+        } finally {
+            synchronized (lock) {
+                count += lines;
+            }
+        }
+        return lines;
+    }
+
+    public static int parse(String s, int dflt) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException | NullPointerException e) {
+            return dflt;
+        }
+    }
+
+    public static void retry(Runnable r, int times) {
+        for (int x = 0; ; ++x) {
+            try {
+                r.run();
+                return;
+            } catch (RuntimeException e) {
+                if (x >= times) throw e;
+            } finally {
+                Thread.yield();
+            }
+        }
+    }
+}
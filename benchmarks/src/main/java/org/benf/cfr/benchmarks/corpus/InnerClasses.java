@@ -0,0 +1,73 @@
+package org.benf.cfr.benchmarks.corpus;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class InnerClasses<T> implements Iterable<T> {
+    private final Object[] items;
+    private int size;
+
+    public InnerClasses(int capacity) {
+        items = new Object[capacity];
+    }
+
+    public void add(T item) {
+        if (size == items.length) throw new IllegalStateException("Full");
+        items[size++] = item;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    public Iterator<T> reversed() {
+        return new Iterator<T>() {
+            private int idx = size;
+
+            @Override
+            public boolean hasNext() {
+                return idx > 0;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public T next() {
+                if (idx == 0) throw new NoSuchElementException();
+                return (T) items[--idx];
+            }
+        };
+    }
+
+    private class Itr implements Iterator<T> {
+        private int idx;
+
+        @Override
+        public boolean hasNext() {
+            return idx < size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            if (idx >= size) throw new NoSuchElementException();
+            return (T) items[idx++];
+        }
+    }
+
+    public static class Node {
+        final int value;
+        Node next;
+
+        Node(int value, Node next) {
+            this.value = value;
+            this.next = next;
+        }
+
+        int length() {
+            int res = 0;
+            for (Node n = this; n != null; n = n.next) res++;
+            return res;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.benf.cfr.benchmarks.corpus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class Lambdas {
+    public static <T, K extends Comparable<K>> Map<K, List<T>> group(List<T> items, Function<T, K> key) {
+        Map<K, List<T>> res = new TreeMap<>();
+        for (T item : items) {
+            res.computeIfAbsent(key.apply(item), k -> new ArrayList<>()).add(item);
+        }
+        return res;
+    }
+
+    public static List<String> longWords(List<String> words, int min) {
+        return words.stream()
+                .filter(w -> w.length() >= min)
+                .sorted(Comparator.comparing(String::length).thenComparing(Comparator.reverseOrder()))
+                .map(String::toUpperCase)
+                .collect(Collectors.toList());
+    }
+
+    public static Runnable counter(final int[] box) {
+        return () -> {
+            for (int x = 0; x < 10; ++x) {
+                box[0] += x;
+            }
+        };
+    }
+}
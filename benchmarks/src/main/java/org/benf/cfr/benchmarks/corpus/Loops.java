@@ -0,0 +1,50 @@
+package org.benf.cfr.benchmarks.corpus;
+
+import java.util.Iterator;
+import java.util.List;
+
+public class Loops {
+    public static int nested(int[][] grid) {
+        int total = 0;
+        outer:
+        for (int i = 0; i < grid.length; ++i) {
+            for (int j = 0; j < grid[i].length; ++j) {
+                if (grid[i][j] < 0) continue outer;
+                if (grid[i][j] > 1000) break outer;
+                total += grid[i][j];
+            }
+        }
+        return total;
+    }
+
+    public static int whileDo(int x) {
+        int steps = 0;
+        while (x != 1) {
+            x = (x % 2 == 0) ? x / 2 : 3 * x + 1;
+            steps++;
+        }
+        do {
+            steps--;
+        } while (steps > 100);
+        return steps;
+    }
+
+    public static String join(List<String> parts, String sep) {
+        StringBuilder sb = new StringBuilder();
+        for (Iterator<String> it = parts.iterator(); it.hasNext(); ) {
+            String s = it.next();
+            if (s == null) continue;
+            sb.append(s);
+            if (it.hasNext()) sb.append(sep);
+        }
+        return sb.toString();
+    }
+
+    public static long sum(Iterable<Long> values) {
+        long res = 0;
+        for (Long l : values) {
+            res += l;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,60 @@
+package org.benf.cfr.benchmarks.corpus;
+
+public class Switches {
+    public enum Colour {
+        RED, GREEN, BLUE
+    }
+
+    public static int dense(int x) {
+        switch (x) {
+            case 0:
+                return 10;
+            case 1:
+            case 2:
+                x += 3;
+            case 3:
+                return x * 2;
+            case 4:
+                break;
+            default:
+                return -1;
+        }
+        return x;
+    }
+
+    public static int sparse(int x) {
+        switch (x) {
+            case 1:
+                return 1;
+            case 1000:
+                return 2;
+            case 100000:
+                return 3;
+        }
+        return 0;
+    }
+
+    public static String strings(String s) {
+        switch (s) {
+            case "alpha":
+                return "a";
+            case "beta":
+                return "b";
+            case "gamma":
+                return "g";
+            default:
+                return s;
+        }
+    }
+
+    public static boolean warm(Colour c) {
+        switch (c) {
+            case RED:
+                return true;
+            case GREEN:
+            case BLUE:
+                return false;
+        }
+        throw new IllegalStateException();
+    }
+}
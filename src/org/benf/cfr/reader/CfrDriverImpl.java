@@ -24,23 +24,28 @@ public class CfrDriverImpl implements CfrDriver {
     private final Options options;
     private final ClassFileSource2 classFileSource;
     private final OutputSinkFactory outputSinkFactory;
+    // If we created a source, it holds jars open until we're done.
+    private final ClassFileSourceImpl defaultSource;
 
     public CfrDriverImpl(ClassFileSource source, OutputSinkFactory outputSinkFactory, Options options, boolean fallbackToDefaultSource) {
         if (options == null) {
             options = new OptionsImpl(new HashMap<String, String>());
         }
         ClassFileSource2 tmpSource;
+        ClassFileSourceImpl tmpDefaultSource = null;
         if (source == null) {
-            tmpSource = new ClassFileSourceImpl(options);
+            tmpSource = tmpDefaultSource = new ClassFileSourceImpl(options);
         } else {
             tmpSource = source instanceof ClassFileSource2 ? (ClassFileSource2)source : new ClassFileSourceWrapper(source);
             if (fallbackToDefaultSource) {
-                tmpSource = new ClassFileSourceChained(Arrays.asList(tmpSource, new ClassFileSourceImpl(options)));
+                tmpDefaultSource = new ClassFileSourceImpl(options);
+                tmpSource = new ClassFileSourceChained(Arrays.asList(tmpSource, tmpDefaultSource));
             }
         }
         this.outputSinkFactory = outputSinkFactory;
         this.options = options;
         this.classFileSource = tmpSource;
+        this.defaultSource = tmpDefaultSource;
     }
 
     @Override
@@ -54,15 +59,35 @@ public class CfrDriverImpl implements CfrDriver {
         boolean skipInnerClass = toAnalyse.size() > 1 && options.getOption(OptionsImpl.SKIP_BATCH_INNER_CLASSES);
 
         Collections.sort(toAnalyse);
+        // Nothing is analysed with this directly - it holds what's shared by the whole run.
+        DCCommonState runState = new DCCommonState(options, classFileSource);
+        try {
+            analyseAll(runState, toAnalyse, skipInnerClass);
+        } finally {
+            runState.close();
+            if (defaultSource != null) defaultSource.close();
+        }
+    }
+
+    private void analyseAll(DCCommonState runState, List<String> toAnalyse, boolean skipInnerClass) {
+        DCCommonState previousState = runState;
+        InternalDumperFactoryImpl previousFactory = null;
         for (String path : toAnalyse) {
             // TODO : We shouldn't have to discard state here.  But we do, because
             // it causes test fails.  (used class name table retains useful symbols).
             classFileSource.informAnalysisRelativePathDetail(null, null);
-            // Note - both of these need to be reset, as they have caches.
-            DCCommonState dcCommonState = new DCCommonState(options, classFileSource);
-            DumperFactory dumperFactory = outputSinkFactory != null ?
-                    new SinkDumperFactory(outputSinkFactory, options) :
-                    new InternalDumperFactoryImpl(options);
+            // Note - both of these need to be reset, as they have caches.  (But their naming carries on.)
+            DCCommonState dcCommonState = new DCCommonState(previousState);
+            previousState = dcCommonState;
+            DumperFactory dumperFactory;
+            if (outputSinkFactory != null) {
+                dumperFactory = new SinkDumperFactory(outputSinkFactory, options);
+            } else {
+                previousFactory = previousFactory == null ?
+                        new InternalDumperFactoryImpl(options) :
+                        new InternalDumperFactoryImpl(previousFactory);
+                dumperFactory = previousFactory;
+            }
 
             AnalysisType type = options.getOption(OptionsImpl.ANALYSE_AS);
             if (type == null || type == AnalysisType.DETECT) {
@@ -7,9 +7,12 @@ import org.benf.cfr.reader.entities.Method;
 import org.benf.cfr.reader.mapping.MappingFactory;
 import org.benf.cfr.reader.mapping.ObfuscationMapping;
 import org.benf.cfr.reader.relationship.MemberNameResolver;
+import org.benf.cfr.reader.state.AnalysisTimings;
 import org.benf.cfr.reader.state.DCCommonState;
+import org.benf.cfr.reader.state.DecompilationCache;
 import org.benf.cfr.reader.state.TypeUsageCollectingDumper;
 import org.benf.cfr.reader.state.TypeUsageInformation;
+import org.benf.cfr.reader.state.TypeUsageInformationEmpty;
 import org.benf.cfr.reader.util.AnalysisType;
 import org.benf.cfr.reader.util.CannotLoadClassException;
 import org.benf.cfr.reader.util.CfrVersionInfo;
@@ -32,6 +35,7 @@ import org.benf.cfr.reader.util.output.SummaryDumper;
 import org.benf.cfr.reader.util.output.ToStringDumper;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -54,7 +58,7 @@ class Driver {
         ObfuscationMapping mapping = MappingFactory.get(options, dcCommonState);
         dcCommonState = new DCCommonState(dcCommonState, mapping);
 
-        IllegalIdentifierDump illegalIdentifierDump = IllegalIdentifierDump.Factory.get(options);
+        IllegalIdentifierDump illegalIdentifierDump = dcCommonState.getIllegalIdentifierDump();
         Dumper d = new ToStringDumper(); // sentinel dumper.
         ExceptionDumper ed = dumperFactory.getExceptionDumper();
         try {
@@ -80,7 +84,7 @@ class Driver {
                 MemberNameResolver.resolveNames(dcCommonState, ListFactory.newList(dcCommonState.getClassCache().getLoadedTypes()));
             }
 
-            TypeUsageCollectingDumper collectingDumper = new TypeUsageCollectingDumper(options, c);
+            TypeUsageCollectingDumper collectingDumper = new TypeUsageCollectingDumper(dcCommonState, c);
             c.analyseTop(dcCommonState, collectingDumper);
 
             TypeUsageInformation typeUsageInformation = collectingDumper.getRealTypeUsageInformation();
@@ -108,12 +112,13 @@ class Driver {
             ed.noteException(path, null, e);
         } finally {
             if (d != null) d.close();
+            reportTimings(dcCommonState, dumperFactory, path);
         }
     }
 
     static void doJar(DCCommonState dcCommonState, String path, AnalysisType analysisType, DumperFactory dumperFactory) {
         Options options = dcCommonState.getOptions();
-        IllegalIdentifierDump illegalIdentifierDump = IllegalIdentifierDump.Factory.get(options);
+        IllegalIdentifierDump illegalIdentifierDump = dcCommonState.getIllegalIdentifierDump();
         ObfuscationMapping mapping = MappingFactory.get(options, dcCommonState);
         dcCommonState = new DCCommonState(dcCommonState, mapping);
 
@@ -124,6 +129,8 @@ class Driver {
             summaryDumper.notify("Summary for " + path);
             summaryDumper.notify(MiscConstants.CFR_HEADER_BRA + " " + CfrVersionInfo.VERSION_INFO);
             progressDumper.analysingPath(path);
+            DecompilationCache decompilationCache = dcCommonState.getDecompilationCache();
+            if (decompilationCache != null) decompilationCache.startInput();
             Map<Integer, List<JavaTypeInstance>> clstypes = dcCommonState.explicitlyLoadJar(path, analysisType);
             Set<JavaTypeInstance> versionCollisions = getVersionCollisions(clstypes);
             dcCommonState.setCollisions(versionCollisions);
@@ -145,6 +152,16 @@ class Driver {
             if (summaryDumper != null) {
                 summaryDumper.close();
             }
+            reportTimings(dcCommonState, dumperFactory, path);
+        }
+    }
+
+    private static void reportTimings(DCCommonState dcCommonState, DumperFactory dumperFactory, String path) {
+        AnalysisTimings analysisTimings = dcCommonState.getAnalysisTimings();
+        if (analysisTimings == null) return;
+        String report = analysisTimings.reportAndReset(path);
+        if (report != null) {
+            dumperFactory.getTimingDumper().timings(report);
         }
     }
 
@@ -173,6 +190,53 @@ class Driver {
         }
     }
 
+    /*
+     * Whole class analysis of a type can rewrite its nested classes, and a later type which refers to them sees
+     * that.  If we've skipped analysing some earlier types because they were cached, analyse the ones c refers
+     * to (transitively) now, so c sees the same as it would have without the cache.
+     */
+    private static void analyseReferenced(ClassFile c, List<ClassFile> notAnalysed, DCCommonState dcCommonState) {
+        if (notAnalysed.isEmpty()) return;
+        Set<String> referenced = SetFactory.newSet();
+        addReferencedOuterNames(c, dcCommonState, referenced);
+        Set<ClassFile> required = SetFactory.newIdentitySet();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (ClassFile skipped : notAnalysed) {
+                if (required.contains(skipped) || !referenced.contains(skipped.getClassType().getRawName())) continue;
+                required.add(skipped);
+                addReferencedOuterNames(skipped, dcCommonState, referenced);
+                changed = true;
+            }
+        }
+        if (required.isEmpty()) return;
+        Options options = dcCommonState.getOptions();
+        Iterator<ClassFile> iterator = notAnalysed.iterator();
+        while (iterator.hasNext()) {
+            ClassFile skipped = iterator.next();
+            if (!required.contains(skipped)) continue;
+            iterator.remove();
+            try {
+                skipped.analyseTop(dcCommonState, new TypeUsageCollectingDumper(dcCommonState, skipped));
+            } catch (RuntimeException ignore) {
+            }
+        }
+    }
+
+    private static void addReferencedOuterNames(ClassFile c, DCCommonState dcCommonState, Set<String> into) {
+        List<JavaTypeInstance> referenced = ListFactory.newList();
+        c.collectReferencedInnerClassTypes(dcCommonState, referenced);
+        for (JavaTypeInstance type : referenced) {
+            InnerClassInfo ici = type.getInnerClassHereInfo();
+            while (ici.isInnerClass()) {
+                type = ici.getOuterClass();
+                ici = type.getInnerClassHereInfo();
+            }
+            into.add(type.getRawName());
+        }
+    }
+
     private static Set<JavaTypeInstance> getVersionCollisions(Map<Integer, List<JavaTypeInstance>> clstypes) {
         if (clstypes.size() <= 1) return Collections.emptySet();
         Set<JavaTypeInstance> collisions = SetFactory.newOrderedSet();
@@ -193,11 +257,12 @@ class Driver {
 
         // If we're dumping a class which is SPECIFIC to a version, i.e. other than 0, we override the common state
         // so that it will look up in all version going back from that.
+        BinaryFunction<String, DCCommonState, ClassFile> cacheAccess = null;
         if (forVersion > 0) {
             dumperFactory = dumperFactory.getFactoryWithPrefix("/" + MiscConstants.MULTI_RELEASE_PREFIX + forVersion + "/", forVersion);
             Collections.reverse(versionsSeen);
             // We create a new classfile source, which will preferentially hit X, then X-1 down to X.
-            dcCommonState = new DCCommonState(dcCommonState, new BinaryFunction<String, DCCommonState, ClassFile>() {
+            cacheAccess = new BinaryFunction<String, DCCommonState, ClassFile>() {
                 @Override
                 public ClassFile invoke(String arg, DCCommonState arg2) {
                     // First we try to load forVersion, then forVersion-1, etc.
@@ -214,7 +279,8 @@ class Driver {
                     }
                     throw new CannotLoadClassException(arg, lastException);
                 }
-            });
+            };
+            dcCommonState = new DCCommonState(dcCommonState, cacheAccess);
         }
 
         types = Functional.filter(types, new Predicate<JavaTypeInstance>() {
@@ -223,6 +289,11 @@ class Driver {
                 return matcher.test(in.getRawName());
             }
         });
+        int threads = options.getOption(OptionsImpl.THREADS);
+        if (ParallelDriver.canRunParallel(options, threads, types)) {
+            new ParallelDriver(threads, forVersion, dcCommonState, cacheAccess, dumperFactory, illegalIdentifierDump, summaryDumper, progressDumper, types).run();
+            return;
+        }
         /*
          * If resolving names, we need a first pass...... otherwise foreign referents will
          * not see the renaming, depending on order of class files....
@@ -231,6 +302,9 @@ class Driver {
                 options.getOption(OptionsImpl.RENAME_ENUM_MEMBERS)) {
             MemberNameResolver.resolveNames(dcCommonState, types);
         }
+        DecompilationCache decompilationCache = DecompilationCache.getFor(dcCommonState, dumperFactory);
+        // Types we've dumped from the cache, without analysing them.
+        List<ClassFile> notAnalysed = ListFactory.newList();
         /*
          * If we're working on a case insensitive file system (OH COME ON!) then make sure that
          * we don't have any collisions.
@@ -253,7 +327,21 @@ class Driver {
                     c.loadInnerClasses(dcCommonState);
                 }
 
-                TypeUsageCollectingDumper collectingDumper = new TypeUsageCollectingDumper(options, c);
+                String cacheKey = null;
+                if (decompilationCache != null) {
+                    cacheKey = decompilationCache.getKey(c, forVersion, dcCommonState);
+                    DecompilationCache.Entry cached = cacheKey == null ? null : decompilationCache.get(cacheKey);
+                    if (cached != null) {
+                        JavaTypeInstance classType = dcCommonState.getObfuscationMapping().get(c.getClassType());
+                        d = dumperFactory.getNewTopLevelDumper(classType, summaryDumper, TypeUsageInformationEmpty.INSTANCE, illegalIdentifierDump);
+                        DecompilationCache.replay(cached, c, d, dcCommonState);
+                        notAnalysed.add(c);
+                        continue;
+                    }
+                    analyseReferenced(c, notAnalysed, dcCommonState);
+                }
+
+                TypeUsageCollectingDumper collectingDumper = new TypeUsageCollectingDumper(dcCommonState, c);
                 c.analyseTop(dcCommonState, collectingDumper);
 
                 JavaTypeInstance classType = c.getClassType();
@@ -265,6 +353,9 @@ class Driver {
                 c.dump(d);
                 d.newln();
                 d.newln();
+                if (cacheKey != null && !c.isAnalysisBudgetExceeded()) {
+                    decompilationCache.put(cacheKey, DecompilationCache.capture(c, typeUsageInformation, options, illegalIdentifierDump, dcCommonState.getObfuscationMapping()));
+                }
                 if (lomem) {
                     c.releaseCode();
                 }
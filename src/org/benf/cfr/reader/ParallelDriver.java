@@ -0,0 +1,372 @@
+package org.benf.cfr.reader;
+
+import org.benf.cfr.reader.bytecode.analysis.types.InnerClassInfo;
+import org.benf.cfr.reader.bytecode.analysis.types.JavaTypeInstance;
+import org.benf.cfr.reader.entities.ClassFile;
+import org.benf.cfr.reader.mapping.ObfuscationMapping;
+import org.benf.cfr.reader.relationship.MemberNameResolver;
+import org.benf.cfr.reader.state.DCCommonState;
+import org.benf.cfr.reader.state.DecompilationCache;
+import org.benf.cfr.reader.state.TypeUsageCollectingDumper;
+import org.benf.cfr.reader.state.TypeUsageInformation;
+import org.benf.cfr.reader.state.TypeUsageInformationEmpty;
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
+import org.benf.cfr.reader.util.collections.SetFactory;
+import org.benf.cfr.reader.util.functors.BinaryFunction;
+import org.benf.cfr.reader.util.getopt.Options;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
+import org.benf.cfr.reader.util.output.Dumper;
+import org.benf.cfr.reader.util.output.DumperFactory;
+import org.benf.cfr.reader.util.output.IllegalIdentifierDump;
+import org.benf.cfr.reader.util.output.ProgressDumper;
+import org.benf.cfr.reader.util.output.SummaryDumper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Decompiles the top level types of a jar on a pool of worker threads.
+ *
+ * Each worker has its own DCCommonState (and so its own ClassFile cache and ClassCache) - a ClassFile is only ever
+ * analysed and dumped by the thread that loaded it.  Types are handed out in order, analysed concurrently, and
+ * then dumped strictly in the order of the type list, so dumpers see exactly the same sequence of calls as the
+ * single threaded driver would make.
+ *
+ * The single threaded driver shares one state between all types, and whole class analysis of a type rewrites its
+ * nested classes (eg hiding synthetic outer this constructor arguments) - a later type which refers to those
+ * nested classes sees that.  To reproduce this, before a worker analyses a type, it first analyses (in list order)
+ * every earlier type whose nested classes are referred to, transitively.  If its state has already analysed
+ * something which one of those should NOT have seen yet, the worker starts again with a fresh state.
+ */
+class ParallelDriver {
+    private final int threads;
+    private final DCCommonState dcCommonState;
+    private final BinaryFunction<String, DCCommonState, ClassFile> cacheAccess;
+    private final DumperFactory dumperFactory;
+    private final IllegalIdentifierDump illegalIdentifierDump;
+    private final SummaryDumper summaryDumper;
+    private final ProgressDumper progressDumper;
+    private final List<JavaTypeInstance> types;
+    private final Map<String, Integer> typeIndex = MapFactory.newMap();
+    private final Options options;
+    private final int forVersion;
+    private final DecompilationCache decompilationCache;
+
+    private final AtomicInteger nextToAnalyse = new AtomicInteger();
+    private final Object dumpLock = new Object();
+    private int nextToDump = 0;
+    private Throwable failure;
+
+    ParallelDriver(int threads, int forVersion, DCCommonState dcCommonState, BinaryFunction<String, DCCommonState, ClassFile> cacheAccess, DumperFactory dumperFactory, IllegalIdentifierDump illegalIdentifierDump, SummaryDumper summaryDumper, ProgressDumper progressDumper, List<JavaTypeInstance> types) {
+        this.threads = Math.min(threads, types.size());
+        this.dcCommonState = dcCommonState;
+        this.cacheAccess = cacheAccess != null ? cacheAccess : new BinaryFunction<String, DCCommonState, ClassFile>() {
+            @Override
+            public ClassFile invoke(String arg, DCCommonState arg2) {
+                return arg2.loadClassFileAtPath(arg);
+            }
+        };
+        this.dumperFactory = dumperFactory;
+        this.illegalIdentifierDump = illegalIdentifierDump;
+        this.summaryDumper = summaryDumper;
+        this.progressDumper = progressDumper;
+        this.types = types;
+        this.options = dcCommonState.getOptions();
+        this.forVersion = forVersion;
+        this.decompilationCache = DecompilationCache.getFor(dcCommonState, dumperFactory);
+        for (int x = 0, len = types.size(); x < len; ++x) {
+            String name = types.get(x).getRawName();
+            if (!typeIndex.containsKey(name)) typeIndex.put(name, x);
+        }
+    }
+
+    /*
+     * Illegal identifier replacement and long string hiding allocate names from a process wide table in the
+     * order they are encountered, which would make output depend on scheduling.
+     */
+    static boolean canRunParallel(Options options, int threads, List<JavaTypeInstance> types) {
+        if (threads <= 1 || types.size() <= 1) return false;
+        if (options.getOption(OptionsImpl.RENAME_ILLEGAL_IDENTS)) return false;
+        if (options.getOption(OptionsImpl.HIDE_LONGSTRINGS)) return false;
+        return true;
+    }
+
+    void run() {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = ListFactory.newList();
+            for (int x = 0; x < threads; ++x) {
+                futures.add(executor.submit(new Worker()));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    fail(e.getCause());
+                } catch (InterruptedException e) {
+                    fail(e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Throwable t = failure;
+        if (t == null) return;
+        if (t instanceof RuntimeException) throw (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        throw new IllegalStateException(t);
+    }
+
+    private void fail(Throwable t) {
+        synchronized (dumpLock) {
+            if (failure == null) failure = t;
+            dumpLock.notifyAll();
+        }
+    }
+
+    private boolean awaitTurn(int idx) throws InterruptedException {
+        synchronized (dumpLock) {
+            while (nextToDump != idx && failure == null) {
+                dumpLock.wait();
+            }
+            return failure == null;
+        }
+    }
+
+    private void passTurn() {
+        synchronized (dumpLock) {
+            nextToDump++;
+            dumpLock.notifyAll();
+        }
+    }
+
+    private class Worker implements Callable<Void> {
+        @Override
+        public Void call() throws Exception {
+            try {
+                WorkerState workerState = null;
+                int idx;
+                while ((idx = nextToAnalyse.getAndIncrement()) < types.size()) {
+                    if (workerState == null) workerState = new WorkerState();
+                    Analysed analysed = workerState.fromCache(idx);
+                    if (analysed == null) {
+                        if (!workerState.prepare(idx)) {
+                            workerState = new WorkerState();
+                            workerState.prepare(idx);
+                        }
+                        analysed = workerState.analyse(idx);
+                    }
+                    if (!awaitTurn(idx)) return null;
+                    try {
+                        dump(types.get(idx), analysed);
+                    } finally {
+                        passTurn();
+                    }
+                }
+            } catch (Throwable t) {
+                fail(t);
+            }
+            return null;
+        }
+    }
+
+    private class WorkerState {
+        private final DCCommonState state;
+        private final Set<Integer> analysed = SetFactory.newSet();
+        private final Set<Integer> innerClassesLoaded = SetFactory.newSet();
+        private final Map<Integer, Set<Integer>> references = MapFactory.newMap();
+        private final Map<Integer, String> cacheKeys = MapFactory.newMap();
+
+        private WorkerState() {
+            state = new DCCommonState(dcCommonState, cacheAccess);
+            // Renaming is recorded on the ClassFiles, so every state needs to see it for its own copies.
+            if (options.getOption(OptionsImpl.RENAME_DUP_MEMBERS) ||
+                    options.getOption(OptionsImpl.RENAME_ENUM_MEMBERS)) {
+                MemberNameResolver.resolveNames(state, types);
+            }
+        }
+
+        /*
+         * Analyse the types which would have been analysed before idx, and which idx can see the results of.
+         * Returns false if this state has already seen something out of order.
+         */
+        private boolean prepare(int idx) {
+            TreeSet<Integer> required = new TreeSet<Integer>();
+            List<Integer> pending = ListFactory.newList();
+            pending.add(idx);
+            while (!pending.isEmpty()) {
+                int next = pending.remove(pending.size() - 1);
+                for (int ref : getReferences(next)) {
+                    if (ref < next && required.add(ref)) pending.add(ref);
+                }
+            }
+            required.add(idx);
+            for (int dep : required) {
+                if (analysed.contains(dep)) continue;
+                for (int ref : getReferences(dep)) {
+                    if (ref > dep && analysed.contains(ref)) return false;
+                }
+                if (dep == idx) break;
+                Analysed res = analyse(dep);
+                if (res.classFile != null && options.getOption(OptionsImpl.LOMEM)) {
+                    res.classFile.releaseCode();
+                }
+            }
+            return true;
+        }
+
+        /*
+         * Indices of the types whose nested classes the type at idx (or its own nested classes) refer to.
+         */
+        private Set<Integer> getReferences(int idx) {
+            Set<Integer> res = references.get(idx);
+            if (res != null) return res;
+            res = SetFactory.newSet();
+            ClassFile c = load(idx);
+            if (c != null) {
+                List<JavaTypeInstance> referenced = ListFactory.newList();
+                c.collectReferencedInnerClassTypes(state, referenced);
+                for (JavaTypeInstance type : referenced) {
+                    InnerClassInfo ici = type.getInnerClassHereInfo();
+                    while (ici.isInnerClass()) {
+                        type = ici.getOuterClass();
+                        ici = type.getInnerClassHereInfo();
+                    }
+                    Integer ref = typeIndex.get(type.getRawName());
+                    if (ref != null && ref != idx) res.add(ref);
+                }
+            }
+            references.put(idx, res);
+            return res;
+        }
+
+        /*
+         * Returns the (top level) class at idx, with its inner classes loaded if required.
+         */
+        private ClassFile load(int idx) {
+            ClassFile c;
+            try {
+                c = state.getClassFile(types.get(idx));
+                // Don't explicitly dump inner classes.  But make sure we ask the CLASS if it's
+                // an inner class, rather than using the name, as scala tends to abuse '$'.
+                if (c.isInnerClass()) return null;
+            } catch (RuntimeException e) {
+                return null;
+            }
+            if (innerClassesLoaded.add(idx) && options.getOption(OptionsImpl.DECOMPILE_INNER_CLASSES)) {
+                try {
+                    c.loadInnerClasses(state);
+                } catch (RuntimeException e) {
+                    return null;
+                }
+            }
+            return c;
+        }
+
+        /*
+         * Types found in the cache aren't analysed here - but will be by prepare, if a later type needs them.
+         */
+        private Analysed fromCache(int idx) {
+            if (decompilationCache == null) return null;
+            ClassFile c = load(idx);
+            if (c == null) return null;
+            String key = decompilationCache.getKey(c, forVersion, state);
+            if (key == null) return null;
+            DecompilationCache.Entry cached = decompilationCache.get(key);
+            if (cached == null) {
+                cacheKeys.put(idx, key);
+                return null;
+            }
+            return new Analysed(c, state, cached);
+        }
+
+        /*
+         * As with the single threaded driver, failure to analyse isn't reported - only failure to dump.
+         */
+        private Analysed analyse(int idx) {
+            analysed.add(idx);
+            ClassFile c = load(idx);
+            if (c == null) return SKIP;
+            try {
+                TypeUsageCollectingDumper collectingDumper = new TypeUsageCollectingDumper(dcCommonState, c);
+                c.analyseTop(state, collectingDumper);
+                return new Analysed(c, collectingDumper.getRealTypeUsageInformation(), cacheKeys.remove(idx));
+            } catch (RuntimeException e) {
+                return FAILED;
+            }
+        }
+    }
+
+    private static class Analysed {
+        private final ClassFile classFile;
+        private final TypeUsageInformation typeUsageInformation;
+        private final String cacheKey;
+        private final DCCommonState state;
+        private final DecompilationCache.Entry cached;
+
+        private Analysed(ClassFile classFile, TypeUsageInformation typeUsageInformation, String cacheKey) {
+            this.classFile = classFile;
+            this.typeUsageInformation = typeUsageInformation;
+            this.cacheKey = cacheKey;
+            this.state = null;
+            this.cached = null;
+        }
+
+        private Analysed(ClassFile classFile, DCCommonState state, DecompilationCache.Entry cached) {
+            this.classFile = classFile;
+            this.typeUsageInformation = TypeUsageInformationEmpty.INSTANCE;
+            this.cacheKey = null;
+            this.state = state;
+            this.cached = cached;
+        }
+    }
+
+    private static final Analysed SKIP = new Analysed(null, null, (String) null);
+    private static final Analysed FAILED = new Analysed(null, null, (String) null);
+
+    private void dump(JavaTypeInstance type, Analysed analysed) {
+        if (analysed == SKIP) return;
+        ObfuscationMapping mapping = dcCommonState.getObfuscationMapping();
+        if (!options.getOption(OptionsImpl.SILENT)) {
+            progressDumper.analysingType(mapping.get(type));
+        }
+        if (analysed == FAILED) return;
+
+        ClassFile c = analysed.classFile;
+        Dumper d = null;
+        try {
+            JavaTypeInstance classType = mapping.get(c.getClassType());
+            d = dumperFactory.getNewTopLevelDumper(classType, summaryDumper, analysed.typeUsageInformation, illegalIdentifierDump);
+            if (analysed.cached != null) {
+                DecompilationCache.replay(analysed.cached, c, d, analysed.state);
+                return;
+            }
+            d = mapping.wrap(d);
+
+            c.dump(d);
+            d.newln();
+            d.newln();
+            if (analysed.cacheKey != null && !c.isAnalysisBudgetExceeded()) {
+                decompilationCache.put(analysed.cacheKey, DecompilationCache.capture(c, analysed.typeUsageInformation, options, illegalIdentifierDump, mapping));
+            }
+            if (options.getOption(OptionsImpl.LOMEM)) {
+                c.releaseCode();
+            }
+        } catch (Dumper.CannotCreate e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (d != null) d.print(e.toString()).newln().newln().newln();
+        } finally {
+            if (d != null) d.close();
+        }
+    }
+}
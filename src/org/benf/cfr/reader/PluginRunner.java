@@ -24,6 +24,8 @@ import java.util.Map;
 @Deprecated
 public class PluginRunner {
     private final DCCommonState dcCommonState;
+    // If we created a source, it holds jars open until we're closed.
+    private final ClassFileSourceImpl defaultSource;
 
     public PluginRunner() {
         this(MapFactory.<String, String>newMap(), null);
@@ -34,7 +36,24 @@ public class PluginRunner {
     }
 
     public PluginRunner(Map<String, String> options, ClassFileSource classFileSource) {
-        this.dcCommonState = initDCState(options, classFileSource);
+        OptionsImpl optionsImpl = new OptionsImpl(options);
+        ClassFileSource2 source;
+        if (classFileSource == null) {
+            source = this.defaultSource = new ClassFileSourceImpl(optionsImpl);
+        } else {
+            source = new ClassFileSourceWrapper(classFileSource);
+            this.defaultSource = null;
+        }
+        this.dcCommonState = new DCCommonState(optionsImpl, source);
+    }
+
+    /*
+     * Releases what the runner holds on to between calls (open jars, --methodthreads helpers).  Don't use it
+     * afterwards.
+     */
+    public void close() {
+        dcCommonState.close();
+        if (defaultSource != null) defaultSource.close();
     }
 
     public Options getOptions() {
@@ -83,6 +102,11 @@ public class PluginRunner {
             return dumper;
         }
 
+        @Override
+        public boolean isPlainText() {
+            return true;
+        }
+
         /*
          * A summary dumper will receive errors.  Generally, it's only of value when dumping jars to file.
          */
@@ -102,6 +126,11 @@ public class PluginRunner {
             return new StdErrExceptionDumper();
         }
 
+        @Override
+        public TimingDumper getTimingDumper() {
+            return TimingDumperNop.INSTANCE;
+        }
+
         @Override
         public DumperFactory getFactoryWithPrefix(String prefix, int version) {
             return this;
@@ -119,12 +148,4 @@ public class PluginRunner {
         }
     }
 
-    private static DCCommonState initDCState(Map<String, String> optionsMap, ClassFileSource classFileSource) {
-        OptionsImpl options = new OptionsImpl(optionsMap);
-        ClassFileSource2 source = classFileSource == null ?
-                new ClassFileSourceImpl(options) :
-                new ClassFileSourceWrapper(classFileSource);
-        return new DCCommonState(options, source);
-    }
-
 }
@@ -66,7 +66,9 @@ public interface OutputSinkFactory {
         /** This sink will receive any exceptions that occur */
         EXCEPTION,
         /** This sink will receive line number information */
-        LINENUMBER
+        LINENUMBER,
+        /** This sink will receive per pass analysis timings, if requested with analysistimings */
+        TIMING
     }
 
     /**
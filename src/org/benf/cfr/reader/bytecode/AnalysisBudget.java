@@ -0,0 +1,93 @@
+package org.benf.cfr.reader.bytecode;
+
+import org.benf.cfr.reader.util.getopt.Options;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
+
+/*
+ * Limits on how long (and how large) the analysis of a single method may get, if requested with --methodtimebudget,
+ * --passtimebudget or --passnodebudget.
+ *
+ * These are checked cooperatively, whenever a PassTimer is told a pass has completed - so a single pass can overrun,
+ * but a pathological method can't take forever over many of them.  When a budget is exceeded, the attempt fails
+ * as if it had thrown, and the method is emitted as having failed to decompile.
+ */
+class AnalysisBudget {
+    private final long methodLimitNanos;
+    private final long passLimitNanos;
+    private final int nodeLimit;
+    private final long methodStartNanos;
+    private long passStartNanos;
+    private boolean passExceeded;
+    private boolean methodExceeded;
+    private boolean anyExceeded;
+
+    private AnalysisBudget(int methodLimitMillis, int passLimitMillis, int nodeLimit) {
+        this.methodLimitNanos = methodLimitMillis * 1000000L;
+        this.passLimitNanos = passLimitMillis * 1000000L;
+        this.nodeLimit = nodeLimit;
+        this.methodStartNanos = this.passStartNanos = System.nanoTime();
+    }
+
+    /*
+     * null if there are no limits.
+     */
+    static AnalysisBudget create(Options options) {
+        int methodLimit = options.getOption(OptionsImpl.METHOD_TIME_BUDGET);
+        int passLimit = options.getOption(OptionsImpl.PASS_TIME_BUDGET);
+        int nodeLimit = options.getOption(OptionsImpl.PASS_NODE_BUDGET);
+        if (methodLimit <= 0 && passLimit <= 0 && nodeLimit <= 0) return null;
+        return new AnalysisBudget(methodLimit, passLimit, nodeLimit);
+    }
+
+    void startPass() {
+        passStartNanos = System.nanoTime();
+        passExceeded = false;
+    }
+
+    /*
+     * Did the most recent pass fail because of a budget?  (If so, it shouldn't be taken as evidence that a later
+     * pass would fail in the same way).
+     */
+    boolean isPassExceeded() {
+        return passExceeded;
+    }
+
+    /*
+     * Once the method budget is exceeded, there's no point trying any more passes.
+     */
+    boolean isMethodExceeded() {
+        return methodExceeded;
+    }
+
+    /*
+     * Was any pass at all stopped by a budget?  Time budgets depend on how busy we are, so a result from such a
+     * method (even if a later pass succeeded) might not be what we'd get next time.
+     */
+    boolean isAnyExceeded() {
+        return anyExceeded;
+    }
+
+    /*
+     * nodes is -1 if not known.
+     */
+    void check(String pass, int nodes) {
+        if (nodeLimit > 0 && nodes > nodeLimit) {
+            exceeded(false, "Statement count of " + nodes + " after " + pass + " exceeded --" + OptionsImpl.PASS_NODE_BUDGET.getName() + " of " + nodeLimit);
+        }
+        if (methodLimitNanos <= 0 && passLimitNanos <= 0) return;
+        long now = System.nanoTime();
+        if (methodLimitNanos > 0 && now - methodStartNanos > methodLimitNanos) {
+            exceeded(true, "Analysis exceeded --" + OptionsImpl.METHOD_TIME_BUDGET.getName() + " of " + (methodLimitNanos / 1000000L) + "ms at " + pass);
+        }
+        if (passLimitNanos > 0 && now - passStartNanos > passLimitNanos) {
+            exceeded(false, "Analysis pass exceeded --" + OptionsImpl.PASS_TIME_BUDGET.getName() + " of " + (passLimitNanos / 1000000L) + "ms at " + pass);
+        }
+    }
+
+    private void exceeded(boolean wholeMethod, String message) {
+        passExceeded = true;
+        anyExceeded = true;
+        if (wholeMethod) methodExceeded = true;
+        throw new AnalysisBudgetExceededException(message);
+    }
+}
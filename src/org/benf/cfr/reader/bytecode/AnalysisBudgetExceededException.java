@@ -0,0 +1,16 @@
+package org.benf.cfr.reader.bytecode;
+
+/*
+ * Thrown (from a pass boundary) when an AnalysisBudget is exceeded.  Where it was thrown from isn't interesting, so
+ * there's no stack trace to fill in - or to print in the failed method.
+ */
+public class AnalysisBudgetExceededException extends RuntimeException {
+    AnalysisBudgetExceededException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -10,6 +10,7 @@ import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.PermittedOptionProvider;
 
+import java.util.BitSet;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -32,7 +33,10 @@ public class BytecodeMeta {
 
     private final Set<Integer> livenessClashes = SetFactory.newSet();
     private final Map<Integer, JavaTypeInstance> iteratedTypeHints = MapFactory.newMap();
+    private final Map<Integer, BitSet> deadSlots = MapFactory.newMap();
     private final Options options;
+    // Bumped whenever what we know changes after construction - analysis reads this, not just its options.
+    private int changeCount;
 
     public BytecodeMeta(List<Op01WithProcessedDataAndByteJumps> op1s, AttributeCode code, Options options) {
         this.options = options;
@@ -61,11 +65,23 @@ public class BytecodeMeta {
         return flags.contains(flag);
     }
 
-    public void set(CodeInfoFlag flag) { flags.add(flag); }
+    public void set(CodeInfoFlag flag) {
+        if (flags.add(flag)) changeCount++;
+    }
 
     public void informLivenessClashes(Set<Integer> slots) {
-        flags.add(CodeInfoFlag.LIVENESS_CLASH);
-        livenessClashes.addAll(slots);
+        if (flags.add(CodeInfoFlag.LIVENESS_CLASH)) changeCount++;
+        if (livenessClashes.addAll(slots)) changeCount++;
+    }
+
+    /*
+     * Local slots which the verifier frames show can't be read at a bytecode offset, without being stored first.
+     */
+    public void informDeadSlots(Map<Integer, BitSet> slots) {
+        // Every attempt tells us this again - it's only a change the first time.
+        for (Map.Entry<Integer, BitSet> entry : slots.entrySet()) {
+            if (!entry.getValue().equals(deadSlots.put(entry.getKey(), entry.getValue()))) changeCount++;
+        }
     }
 
     public void takeIteratedTypeHint(InferredJavaType inferredJavaType, JavaTypeInstance itertype) {
@@ -77,13 +93,22 @@ public class BytecodeMeta {
             if (already == null) return;
             if (!itertype.equals(already)) {
                 iteratedTypeHints.put(key, null);
+                changeCount++;
             }
         } else {
             flags.add(CodeInfoFlag.ITERATED_TYPE_HINTS);
             iteratedTypeHints.put(key, itertype);
+            changeCount++;
         }
     }
 
+    /*
+     * If this hasn't changed between two analysis attempts, neither have the flags, clashes or hints they see.
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
     public Map<Integer, JavaTypeInstance> getIteratedTypeHints() {
            return iteratedTypeHints;
     }
@@ -92,6 +117,10 @@ public class BytecodeMeta {
         return livenessClashes;
     }
 
+    public Map<Integer, BitSet> getDeadSlots() {
+        return deadSlots;
+    }
+
     private static class FlagTest implements UnaryFunction<BytecodeMeta, Boolean> {
         private final CodeInfoFlag[] flags;
 
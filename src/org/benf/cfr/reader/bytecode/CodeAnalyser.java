@@ -13,6 +13,7 @@ import org.benf.cfr.reader.bytecode.analysis.opgraph.op2rewriters.GetClassTestIn
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op2rewriters.GetClassTestLambda;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op2rewriters.Op02GetClassRewriter;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op2rewriters.Op02RedundantStoreRewriter;
+import org.benf.cfr.reader.bytecode.analysis.opgraph.op2rewriters.StackMapHints;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op2rewriters.TypeHintRecovery;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op2rewriters.TypeHintRecoveryImpl;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op2rewriters.TypeHintRecoveryNone;
@@ -43,6 +44,7 @@ import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.SwitchStringRe
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.checker.IllegalReturnChecker;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.checker.LooseCatchChecker;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.checker.VoidVariableChecker;
+import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.util.LinearisedStatements;
 import org.benf.cfr.reader.bytecode.analysis.parse.rewriters.ExplicitTypeCallRewriter;
 import org.benf.cfr.reader.bytecode.analysis.parse.rewriters.StringBuilderRewriter;
 import org.benf.cfr.reader.bytecode.analysis.parse.rewriters.XorRewriter;
@@ -56,6 +58,7 @@ import org.benf.cfr.reader.entities.attributes.AttributeCode;
 import org.benf.cfr.reader.entities.constantpool.ConstantPool;
 import org.benf.cfr.reader.entities.exceptions.ExceptionAggregator;
 import org.benf.cfr.reader.entities.exceptions.ExceptionTableEntry;
+import org.benf.cfr.reader.state.AnalysisTimings;
 import org.benf.cfr.reader.state.DCCommonState;
 import org.benf.cfr.reader.util.ClassFileVersion;
 import org.benf.cfr.reader.util.ConfusedCFRException;
@@ -66,14 +69,19 @@ import org.benf.cfr.reader.util.UnverifiableJumpException;
 import org.benf.cfr.reader.util.bytestream.ByteData;
 import org.benf.cfr.reader.util.bytestream.OffsettingByteData;
 import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
+import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
+import org.benf.cfr.reader.util.getopt.RecordingOptions;
 import org.benf.cfr.reader.util.output.Dumper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -86,6 +94,16 @@ public class CodeAnalyser {
     private Op04StructuredStatement analysed;
     private static final Op04StructuredStatement POISON = new Op04StructuredStatement(new StructuredComment("Analysis utterly failed (Recursive inlining?)"));
 
+    /*
+     * With --methodthreads, one method's analysis may need another's (eg to inline a lambda body) while a different
+     * thread is analysing it.  We wait for that thread, unless it is (transitively) waiting for us - which would be
+     * recursive inlining if it all happened on one thread.
+     *
+     * analysingThread is guarded by this, waitingFor by itself.
+     */
+    private volatile Thread analysingThread;
+    private static final Map<Thread, CodeAnalyser> waitingFor = MapFactory.newIdentityMap();
+
     public CodeAnalyser(AttributeCode attributeCode) {
         this.originalCodeAttribute = attributeCode;
         this.cp = attributeCode.getConstantPool();
@@ -154,21 +172,71 @@ public class CodeAnalyser {
      * This method should not throw.  If it does, something serious has gone wrong.
      */
     public Op04StructuredStatement getAnalysis(DCCommonState dcCommonState) {
-        if (analysed == POISON) {
-            /*
-             * We shouldn't get here, unless a method needs to inline a copy of itself.
-             * (which can't end well!)
-             *
-             * Seen when decompiling scala - a lambda which (to java) looks like an
-             * intermediate.
-             */
-            throw new ConfusedCFRException("Recursive analysis");
+        synchronized (this) {
+            if (analysed == POISON) {
+                awaitAnalysis();
+            }
+            if (analysed != null) {
+                return analysed;
+            }
+            analysed = POISON;
+            analysingThread = Thread.currentThread();
         }
-        if (analysed != null) {
-            return analysed;
+        boolean completed = false;
+        Op04StructuredStatement res = null;
+        try {
+            res = analyse(dcCommonState);
+            completed = true;
+        } finally {
+            synchronized (this) {
+                // If analysis threw, leave the poison in place - it's not going to work next time either.
+                if (completed) analysed = res;
+                analysingThread = null;
+                notifyAll();
+            }
         }
-        analysed = POISON;
+        return res;
+    }
 
+    /*
+     * Must hold this.
+     */
+    private void awaitAnalysis() {
+        Thread self = Thread.currentThread();
+        while (analysed == POISON) {
+            Thread owner = analysingThread;
+            if (owner == null || owner == self) {
+                /*
+                 * We shouldn't get here, unless a method needs to inline a copy of itself.
+                 * (which can't end well!)
+                 *
+                 * Seen when decompiling scala - a lambda which (to java) looks like an
+                 * intermediate.
+                 */
+                throw new ConfusedCFRException("Recursive analysis");
+            }
+            synchronized (waitingFor) {
+                Thread next = owner;
+                for (int x = waitingFor.size(); x >= 0 && next != null; --x) {
+                    if (next == self) throw new ConfusedCFRException("Recursive analysis");
+                    CodeAnalyser awaited = waitingFor.get(next);
+                    next = awaited == null ? null : awaited.analysingThread;
+                }
+                waitingFor.put(self, this);
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                throw new ConfusedCFRException("Interrupted waiting for analysis");
+            } finally {
+                synchronized (waitingFor) {
+                    waitingFor.remove(self);
+                }
+            }
+        }
+    }
+
+    private Op04StructuredStatement analyse(DCCommonState dcCommonState) {
         Options options = dcCommonState.getOptions();
         List<Op01WithProcessedDataAndByteJumps> instrs = getInstrs();
 
@@ -179,30 +247,61 @@ public class CodeAnalyser {
          */
         BytecodeMeta bytecodeMeta = new BytecodeMeta(instrs, originalCodeAttribute, options);
 
+        AnalysisTimings analysisTimings = dcCommonState.getAnalysisTimings();
+        AnalysisTimings.MethodTimings timings = analysisTimings == null ? null : new AnalysisTimings.MethodTimings(method);
+        AnalysisBudget budget = AnalysisBudget.create(options);
+        int usedPass;
+
         if (options.optionIsSet(OptionsImpl.FORCE_PASS)) {
             int pass = options.getOption(OptionsImpl.FORCE_PASS);
             if (pass < 0 || pass >= recoveryOptionsArr.length) {
                 throw new IllegalArgumentException("Illegal recovery pass idx");
             }
             RecoveryOptions.Applied applied = recoveryOptionsArr[pass].apply(dcCommonState, options, bytecodeMeta);
-            res = getAnalysisOrWrapFail(pass, instrs, dcCommonState, applied.options, applied.comments, bytecodeMeta);
+            res = getAnalysisOrWrapFail(pass, instrs, dcCommonState, applied.options, applied.comments, bytecodeMeta, timings, budget);
+            usedPass = pass;
         } else {
 
-            res = getAnalysisOrWrapFail(0, instrs, dcCommonState, options, null, bytecodeMeta);
+            RecordingOptions recordingOptions = new RecordingOptions(options);
+            int metaState = bytecodeMeta.getChangeCount();
+            res = getAnalysisOrWrapFail(0, instrs, dcCommonState, recordingOptions, null, bytecodeMeta, timings, budget);
+            usedPass = 0;
 
             if (res.isFailed() && options.getOption(OptionsImpl.RECOVER)) {
+                List<ThrownAttempt> thrownAttempts = ListFactory.newList();
+                if (res.isThrown() && !isBudgetFailure(budget)) {
+                    thrownAttempts.add(new ThrownAttempt(Collections.<String, String>emptyMap(), recordingOptions.getConsulted(), metaState));
+                }
                 int passIdx = 1;
                 for (RecoveryOptions recoveryOptions : recoveryOptionsArr) {
+                    if (budget != null && budget.isMethodExceeded()) break;
                     RecoveryOptions.Applied applied = recoveryOptions.apply(dcCommonState, options, bytecodeMeta);
                     if (!applied.valid) continue;
-                    AnalysisResult nextRes = getAnalysisOrWrapFail(passIdx++, instrs, dcCommonState, applied.options, applied.comments, bytecodeMeta);
+                    int thisPass = passIdx++;
+                    /*
+                     * If an earlier attempt threw before looking at anything this pass changes, and started from
+                     * the same bytecodeMeta, this pass would throw in exactly the same place - don't bother.
+                     * (Replacing one thrown result with an identical one wouldn't change anything).
+                     */
+                    Map<String, String> overrides = applied.options.getOverrides();
+                    metaState = bytecodeMeta.getChangeCount();
+                    if (repeatsThrownAttempt(thrownAttempts, overrides, metaState)) continue;
+                    recordingOptions = new RecordingOptions(applied.options);
+                    AnalysisResult nextRes = getAnalysisOrWrapFail(thisPass, instrs, dcCommonState, recordingOptions, applied.comments, bytecodeMeta, timings, budget);
+                    if (nextRes != null && nextRes.isThrown() && !isBudgetFailure(budget)) {
+                        thrownAttempts.add(new ThrownAttempt(overrides, recordingOptions.getConsulted(), metaState));
+                    }
                     if (nextRes != null) {
                         if (res.isFailed() && nextRes.isFailed()) {
                             // If they both failed, only replace if the later failure is not an exception.
                             // (or if the earlier one is).
-                            if (res.isThrown() || !nextRes.isThrown()) res = nextRes;
+                            if (res.isThrown() || !nextRes.isThrown()) {
+                                res = nextRes;
+                                usedPass = thisPass;
+                            }
                         } else {
                             res = nextRes;
+                            usedPass = thisPass;
                         }
                     }
                     if (res.isFailed()) continue;
@@ -214,14 +313,66 @@ public class CodeAnalyser {
         if (res.getComments() != null) {
             method.setComments(res.getComments());
         }
+        if (budget != null && budget.isAnyExceeded()) {
+            method.setAnalysisBudgetExceeded();
+        }
 
         /*
          * Take the anonymous usages from the selected result.
          */
         res.getAnonymousClassUsage().useNotes();
 
-        analysed = res.getCode();
-        return analysed;
+        if (timings != null) {
+            timings.setUsedPass(usedPass);
+            analysisTimings.add(timings);
+        }
+
+        return res.getCode();
+    }
+
+    /*
+     * An attempt which ran out of budget didn't fail because of anything it consulted.
+     */
+    private static boolean isBudgetFailure(AnalysisBudget budget) {
+        return budget != null && budget.isPassExceeded();
+    }
+
+    /*
+     * Options which a recovery pass sets to ask for something which isn't done by reading them - so the fact that
+     * nothing consulted them doesn't mean they make no difference.
+     *
+     * RECOVER_TYPECLASHES stands for using the liveness clashes an earlier pass left in bytecodeMeta.
+     */
+    private static final Set<String> unreadRecoveryOptions = SetFactory.newSet(
+            OptionsImpl.RECOVER_TYPECLASHES.getName()
+    );
+
+    private static class ThrownAttempt {
+        private final Map<String, String> overrides;
+        private final Set<String> consulted;
+        private final int metaState;
+
+        private ThrownAttempt(Map<String, String> overrides, Set<String> consulted, int metaState) {
+            this.overrides = overrides;
+            this.consulted = consulted;
+            this.metaState = metaState;
+        }
+    }
+
+    private static boolean repeatsThrownAttempt(List<ThrownAttempt> thrownAttempts, Map<String, String> overrides, int metaState) {
+        for (String name : overrides.keySet()) {
+            if (unreadRecoveryOptions.contains(name)) return false;
+        }
+        attempts : for (ThrownAttempt attempt : thrownAttempts) {
+            if (attempt.metaState != metaState) continue;
+            for (String name : attempt.consulted) {
+                String prev = attempt.overrides.get(name);
+                String next = overrides.get(name);
+                if (prev == null ? next != null : !prev.equals(next)) continue attempts;
+            }
+            return true;
+        }
+        return false;
     }
 
     /*
@@ -259,13 +410,16 @@ public class CodeAnalyser {
         return instrs;
     }
 
-    private AnalysisResult getAnalysisOrWrapFail(int passIdx, List<Op01WithProcessedDataAndByteJumps> instrs, DCCommonState commonState, Options options, List<DecompilerComment> extraComments, BytecodeMeta bytecodeMeta) {
+    private AnalysisResult getAnalysisOrWrapFail(int passIdx, List<Op01WithProcessedDataAndByteJumps> instrs, DCCommonState commonState, Options options, List<DecompilerComment> extraComments, BytecodeMeta bytecodeMeta, AnalysisTimings.MethodTimings timings, AnalysisBudget budget) {
+        PassTimer timer = PassTimer.create(timings, budget, instrs.size());
         try {
-            AnalysisResult res = getAnalysisInner(instrs, commonState, options, bytecodeMeta, passIdx);
+            AnalysisResult res = getAnalysisInner(instrs, commonState, options, bytecodeMeta, passIdx, timer);
             if (extraComments != null) res.getComments().addComments(extraComments);
             return res;
         } catch (RuntimeException e) {
             return new AnalysisResultFromException(e);
+        } finally {
+            timer.done();
         }
     }
 
@@ -273,10 +427,13 @@ public class CodeAnalyser {
      * Note that the options passed in here only apply to this function - don't pass around.
      *
      * passIdx is only useful for breakpointing.
+     *
+     * timer should be told about each pass as it completes.
      */
-    private AnalysisResult getAnalysisInner(List<Op01WithProcessedDataAndByteJumps> instrs, DCCommonState dcCommonState, Options options, BytecodeMeta bytecodeMeta, int passIdx) {
+    private AnalysisResult getAnalysisInner(List<Op01WithProcessedDataAndByteJumps> instrs, DCCommonState dcCommonState, Options options, BytecodeMeta bytecodeMeta, int passIdx, PassTimer timer) {
 
         boolean willSort = options.getOption(OptionsImpl.FORCE_TOPSORT) == Troolean.TRUE;
+        boolean checkGraph = options.getOption(OptionsImpl.CHECK_GRAPH);
 
         ClassFile classFile = method.getClassFile();
         ClassFileVersion classFileVersion = classFile.getClassFileVersion();
@@ -311,6 +468,7 @@ public class CodeAnalyser {
             Op02WithProcessedDataAndRefs op2 = op1.createOp2(cp, x, locFactory, method);
             op2list.add(op2);
         }
+        timer.lap("createOp2", op2list);
 
         // If there are any op01 which refer to instructions that are illegal intra-instructions
         // (https://anthony.som.codes/blog/2019-12-30-jvm-hackery-noverify/), and we're allowing that,
@@ -341,6 +499,7 @@ public class CodeAnalyser {
                 }
             }
         }
+        timer.lap("getAbsoluteIndexJumps", op2list);
 
 
         BlockIdentifierFactory blockIdentifierFactory = new BlockIdentifierFactory();
@@ -352,6 +511,7 @@ public class CodeAnalyser {
         }
 
         ExceptionAggregator exceptions = new ExceptionAggregator(exceptionTableEntries, blockIdentifierFactory, lutByOffset, instrs, options, cp, comments);
+        timer.lap("ExceptionAggregator", op2list);
         if (exceptions.RemovedLoopingExceptions()) {
             comments.addComment(DecompilerComment.LOOPING_EXCEPTIONS);
         }
@@ -366,17 +526,20 @@ public class CodeAnalyser {
              * is a pointless construct.  It also leads to some very badly structured code.
              */
             exceptions.aggressiveRethrowPruning();
+            timer.lap("ExceptionAggregator.aggressiveRethrowPruning", op2list);
 
             /*
              * We need to be more paranoid here - this will mess up some finally detection if we over-apply it.
              */
             if (options.getOption(OptionsImpl.ANTI_OBF)) {
                 exceptions.aggressiveImpossiblePruning();
+                timer.lap("ExceptionAggregator.aggressiveImpossiblePruning", op2list);
             }
             /*
              * This one's less safe, but...
              */
             exceptions.removeSynchronisedHandlers(lutByIdx);
+            timer.lap("ExceptionAggregator.removeSynchronisedHandlers", op2list);
         }
 
         /*
@@ -388,16 +551,21 @@ public class CodeAnalyser {
         if (options.getOption(OptionsImpl.REWRITE_LAMBDAS, classFileVersion) &&
                 bytecodeMeta.has(BytecodeMeta.CodeInfoFlag.USES_INVOKEDYNAMIC)) {
             Op02GetClassRewriter.removeInvokeGetClass(classFile, op2list, GetClassTestLambda.INSTANCE);
+            timer.lap("Op02GetClassRewriter.removeInvokeGetClass", op2list);
         }
         Op02GetClassRewriter.removeInvokeGetClass(classFile, op2list, GetClassTestInnerConstructor.INSTANCE);
+        timer.lap("Op02GetClassRewriter.removeInvokeGetClass", op2list);
 
         long codeLength = originalCodeAttribute.getCodeLength();
         if (options.getOption(OptionsImpl.CONTROL_FLOW_OBF)) {
             Op02Obf.removeControlFlowExceptions(method, exceptions, op2list, lutByOffset);
+            timer.lap("Op02Obf.removeControlFlowExceptions", op2list);
             // Bundled under control flow obfuscation because it can make loops less pleasant.
             Op02Obf.removeNumericObf(method, op2list);
+            timer.lap("Op02Obf.removeNumericObf", op2list);
         }
         op2list = Op02WithProcessedDataAndRefs.insertExceptionBlocks(op2list, exceptions, lutByOffset, cp, codeLength, options);
+        timer.lap("Op02WithProcessedDataAndRefs.insertExceptionBlocks", op2list);
         // lutByOffset is no longer valid at this point, but we might still need it to determine variable lifetime (i.e what
         // was the instruction BEFORE this one)
 
@@ -409,6 +577,7 @@ public class CodeAnalyser {
          */
         if (aggressiveSizeReductions) {
             Op02RedundantStoreRewriter.rewrite(op2list, originalCodeAttribute.getMaxLocals());
+            timer.lap("Op02RedundantStoreRewriter.rewrite", op2list);
         }
 
 
@@ -417,6 +586,7 @@ public class CodeAnalyser {
         // This is the point at which we combine temporaries from merging
         // stacks.
         DecompilerComment o2stackComment = Op02WithProcessedDataAndRefs.populateStackInfo(op2list, method);
+        timer.lap("Op02WithProcessedDataAndRefs.populateStackInfo", op2list);
 
         /* Extra fun.  A ret can have a jump back to the instruction immediately following the JSR that called it.
          * So we have to search for RET instructions, then for each of them find any JSRs which could call it, and add
@@ -426,9 +596,12 @@ public class CodeAnalyser {
          * This applies to the targets of JSRs too. (though there's nothing stopping the target of the JSR from returning a
          * DIFFERENT stack depth).
          */
-        if (Op02WithProcessedDataAndRefs.processJSR(op2list)) {
+        boolean processedJSR = Op02WithProcessedDataAndRefs.processJSR(op2list);
+        timer.lap("Op02WithProcessedDataAndRefs.processJSR", op2list);
+        if (processedJSR) {
             // Repopulate stack info, as it will have changed, as we might have cloned instructions.
             o2stackComment = Op02WithProcessedDataAndRefs.populateStackInfo(op2list, method);
+            timer.lap("Op02WithProcessedDataAndRefs.populateStackInfo", op2list);
         }
         if (o2stackComment != null) {
             comments.addComment(o2stackComment);
@@ -440,10 +613,18 @@ public class CodeAnalyser {
         // can generate bytecode with unreachable operations, which confuses later stages which
         // expect all parents of opcodes to have been processed in a DFS.
         Op02WithProcessedDataAndRefs.unlinkUnreachable(op2list);
+        timer.lap("Op02WithProcessedDataAndRefs.unlinkUnreachable", op2list);
 
 
+        // Slots the verifier frames show are dead at a join don't need to wait for a type clash to be split.
+        if (options.getOption(OptionsImpl.USE_STACK_MAPS)) {
+            StackMapHints.apply(method, originalCodeAttribute, op2list, bytecodeMeta);
+            timer.lap("StackMapHints.apply", op2list);
+        }
+
         // Discover slot re-use, infer invisible constructor parameters, etc.
         Op02WithProcessedDataAndRefs.discoverStorageLiveness(method, comments, op2list, bytecodeMeta);
+        timer.lap("Op02WithProcessedDataAndRefs.discoverStorageLiveness", op2list);
 
         // Create a non final version...
         final VariableFactory variableFactory = new VariableFactory(method, bytecodeMeta);
@@ -452,64 +633,86 @@ public class CodeAnalyser {
                 new TypeHintRecoveryImpl(bytecodeMeta) : TypeHintRecoveryNone.INSTANCE;
 
         List<Op03SimpleStatement> op03SimpleParseNodes = Op02WithProcessedDataAndRefs.convertToOp03List(op2list, method, variableFactory, blockIdentifierFactory, dcCommonState, comments, typeHintRecovery);
+        timer.lap("Op02WithProcessedDataAndRefs.convertToOp03List", op03SimpleParseNodes);
         // Renumber, just in case JSR stage (or something) has left bad labellings.
         op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
+        timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
 
         // Expand any 'multiple' statements (eg from dups)
         Misc.flattenCompoundStatements(op03SimpleParseNodes);
+        timer.lap("Misc.flattenCompoundStatements", op03SimpleParseNodes);
 
         // Before we get complicated, see if there are any values which have been left with null/void types, but have
         // known base information which can improve it.
         Op03Rewriters.rewriteWith(op03SimpleParseNodes, new NullTypedLValueRewriter());
+        timer.lap("NullTypedLValueRewriter", op03SimpleParseNodes);
         Op03Rewriters.rewriteWith(op03SimpleParseNodes, new BadBoolAssignmentRewriter());
+        timer.lap("BadBoolAssignmentRewriter", op03SimpleParseNodes);
         // Very early, we make a pass through collecting all the method calls for a given type
         // SPECIFICALLY by type pointer, don't alias identical types.
         // We then see if we can infer information from RHS <- LHS re generics, but make sure that we
         // don't do it over aggressively (see UntypedMapTest);
         GenericInferer.inferGenericObjectInfoFromCalls(op03SimpleParseNodes);
+        timer.lap("GenericInferer.inferGenericObjectInfoFromCalls", op03SimpleParseNodes);
         
         op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
+        timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
 
         if (aggressiveSizeReductions) {
             op03SimpleParseNodes = LValuePropSimple.condenseSimpleLValues(op03SimpleParseNodes);
+            timer.lap("LValuePropSimple.condenseSimpleLValues", op03SimpleParseNodes);
         }
 
         Op03Rewriters.nopIsolatedStackValues(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.nopIsolatedStackValues", op03SimpleParseNodes);
 
         Op03SimpleStatement.assignSSAIdentifiers(method, op03SimpleParseNodes);
+        timer.lap("Op03SimpleStatement.assignSSAIdentifiers", op03SimpleParseNodes);
 
         // Fix static instance usage.
         Op03Rewriters.condenseStaticInstances(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.condenseStaticInstances", op03SimpleParseNodes);
 
         // Condense pointless assignments
         LValueProp.condenseLValues(op03SimpleParseNodes);
+        timer.lap("LValueProp.condenseLValues", op03SimpleParseNodes);
 
         if (options.getOption(OptionsImpl.REMOVE_DEAD_CONDITIONALS) == Troolean.TRUE) {
             // This removes impossible conditionals, but could hide real code, so we want
             // to avoid doing this unless necessary.
             op03SimpleParseNodes = Op03Rewriters.removeDeadConditionals(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.removeDeadConditionals", op03SimpleParseNodes);
         }
         op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
+        timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
 
         // Before we expand raw switches, try to spot a particularly nasty pattern that kotlin
         // generates for string switches.
         op03SimpleParseNodes = KotlinSwitchHandler.extractStringSwitches(op03SimpleParseNodes, bytecodeMeta);
+        timer.lap("KotlinSwitchHandler.extractStringSwitches", op03SimpleParseNodes);
         // Expand raw switch statements into more useful ones.
         SwitchReplacer.replaceRawSwitches(method, op03SimpleParseNodes, blockIdentifierFactory, options);
+        timer.lap("SwitchReplacer.replaceRawSwitches", op03SimpleParseNodes);
         op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
+        timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
 
         // Remove 2nd (+) jumps in pointless jump chains.
         Op03Rewriters.removePointlessJumps(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.removePointlessJumps", op03SimpleParseNodes);
 
         // Try to eliminate catch temporaries.
         op03SimpleParseNodes = Op03Rewriters.eliminateCatchTemporaries(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.eliminateCatchTemporaries", op03SimpleParseNodes);
 
         Op03Rewriters.identifyCatchBlocks(op03SimpleParseNodes, blockIdentifierFactory);
+        timer.lap("Op03Rewriters.identifyCatchBlocks", op03SimpleParseNodes);
 
         Op03Rewriters.combineTryCatchBlocks(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.combineTryCatchBlocks", op03SimpleParseNodes);
 
         if (options.getOption(OptionsImpl.COMMENT_MONITORS)) {
             Op03Rewriters.commentMonitors(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.commentMonitors", op03SimpleParseNodes);
         }
 
         //      Op03SimpleStatement.removePointlessExpressionStatements(op03SimpleParseNodes);
@@ -518,86 +721,122 @@ public class CodeAnalyser {
 
         // Rewrite new / constructor pairs.
         Op03Rewriters.condenseConstruction(dcCommonState, method, op03SimpleParseNodes, anonymousClassUsage);
+        timer.lap("Op03Rewriters.condenseConstruction", op03SimpleParseNodes);
         op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
+        timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
         LValueProp.condenseLValues(op03SimpleParseNodes);
+        timer.lap("LValueProp.condenseLValues", op03SimpleParseNodes);
         Op03Rewriters.condenseLValueChain1(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.condenseLValueChain1", op03SimpleParseNodes);
 
         StaticInitReturnRewriter.rewrite(options, method, op03SimpleParseNodes);
+        timer.lap("StaticInitReturnRewriter.rewrite", op03SimpleParseNodes);
 
         op03SimpleParseNodes = Op03Rewriters.removeRedundantTries(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.removeRedundantTries", op03SimpleParseNodes);
 
         FinallyRewriter.identifyFinally(options, method, op03SimpleParseNodes, blockIdentifierFactory);
+        timer.lap("FinallyRewriter.identifyFinally", op03SimpleParseNodes);
 
-        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, !willSort);
+        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, !willSort, checkGraph);
+        timer.lap("Cleaner.removeUnreachableCode", op03SimpleParseNodes);
         op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
+        timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
 
         /*
          * See if try blocks can be extended with simple returns here.  This is an extra pass, because we might have
          * missed backjumps from catches earlier.
          */
         Op03Rewriters.extendTryBlocks(dcCommonState, op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.extendTryBlocks", op03SimpleParseNodes);
         Op03Rewriters.combineTryCatchEnds(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.combineTryCatchEnds", op03SimpleParseNodes);
 
         // Remove LValues which are on their own as expressionstatements.
         Op03Rewriters.removePointlessExpressionStatements(op03SimpleParseNodes);
-        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, !willSort);
+        timer.lap("Op03Rewriters.removePointlessExpressionStatements", op03SimpleParseNodes);
+        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, !willSort, checkGraph);
+        timer.lap("Cleaner.removeUnreachableCode", op03SimpleParseNodes);
 
         // Now we've done our first stage condensation, we want to transform assignments which are
         // self updates into preChanges, if we can.  I.e. x = x | 3  ->  x |= 3,  x = x + 1 -> x+=1 (===++x).
         // (we do this here rather than taking advantage of INC opcodes as this allows us to catch the former)
         Op03Rewriters.replacePrePostChangeAssignments(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.replacePrePostChangeAssignments", op03SimpleParseNodes);
 
         // Some pre-changes can be converted into post-changes.
         Op03Rewriters.pushPreChangeBack(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.pushPreChangeBack", op03SimpleParseNodes);
 
         Op03Rewriters.condenseLValueChain2(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.condenseLValueChain2", op03SimpleParseNodes);
 
         // Condense again, now we've simplified constructors.
         // Inline assingments need to be dealt with HERE (!).
         Op03Rewriters.collapseAssignmentsIntoConditionals(op03SimpleParseNodes, options, classFileVersion);
+        timer.lap("Op03Rewriters.collapseAssignmentsIntoConditionals", op03SimpleParseNodes);
         LValueProp.condenseLValues(op03SimpleParseNodes);
+        timer.lap("LValueProp.condenseLValues", op03SimpleParseNodes);
         op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
+        timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
 
         if (options.getOption(OptionsImpl.FORCE_COND_PROPAGATE) == Troolean.TRUE) {
             op03SimpleParseNodes = RemoveDeterministicJumps.apply(method, op03SimpleParseNodes);
+            timer.lap("RemoveDeterministicJumps.apply", op03SimpleParseNodes);
         }
 
         if (options.getOption(OptionsImpl.FORCE_TOPSORT) == Troolean.TRUE) {
             if (options.getOption(OptionsImpl.FORCE_RETURNING_IFS) == Troolean.TRUE) {
                 Op03Rewriters.replaceReturningIfs(op03SimpleParseNodes, true);
+                timer.lap("Op03Rewriters.replaceReturningIfs", op03SimpleParseNodes);
             }
             if (options.getOption(OptionsImpl.FORCE_COND_PROPAGATE) == Troolean.TRUE) {
                 Op03Rewriters.propagateToReturn2(op03SimpleParseNodes);
+                timer.lap("Op03Rewriters.propagateToReturn2", op03SimpleParseNodes);
             }
             ExceptionRewriters.handleEmptyTries(op03SimpleParseNodes);
+            timer.lap("ExceptionRewriters.handleEmptyTries", op03SimpleParseNodes);
 
-            op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, false);
+            op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, false, checkGraph);
+            timer.lap("Cleaner.removeUnreachableCode", op03SimpleParseNodes);
 
             op03SimpleParseNodes = Op03Blocks.topologicalSort(op03SimpleParseNodes, comments, options);
+            timer.lap("Op03Blocks.topologicalSort", op03SimpleParseNodes);
             Op03Rewriters.removePointlessJumps(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.removePointlessJumps", op03SimpleParseNodes);
 
             /*
              * Now we've sorted, we need to rebuild switch blocks.....
              */
             SwitchReplacer.rebuildSwitches(op03SimpleParseNodes, options);
+            timer.lap("SwitchReplacer.rebuildSwitches", op03SimpleParseNodes);
             /*
              * This set of operations is /very/ aggressive.
              */
             // This is not necessarily a sensible thing to do, but we're being aggressive...
             Op03Rewriters.rejoinBlocks(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.rejoinBlocks", op03SimpleParseNodes);
             Op03Rewriters.extendTryBlocks(dcCommonState, op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.extendTryBlocks", op03SimpleParseNodes);
             op03SimpleParseNodes = Op03Blocks.combineTryBlocks(op03SimpleParseNodes);
+            timer.lap("Op03Blocks.combineTryBlocks", op03SimpleParseNodes);
             Op03Rewriters.combineTryCatchEnds(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.combineTryCatchEnds", op03SimpleParseNodes);
             Op03Rewriters.rewriteTryBackJumps(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.rewriteTryBackJumps", op03SimpleParseNodes);
             FinallyRewriter.identifyFinally(options, method, op03SimpleParseNodes, blockIdentifierFactory);
+            timer.lap("FinallyRewriter.identifyFinally", op03SimpleParseNodes);
             if (options.getOption(OptionsImpl.FORCE_RETURNING_IFS) == Troolean.TRUE) {
                 Op03Rewriters.replaceReturningIfs(op03SimpleParseNodes, true);
+                timer.lap("Op03Rewriters.replaceReturningIfs", op03SimpleParseNodes);
             }
         }
         if (options.getOption(OptionsImpl.AGGRESSIVE_DUFF) == Troolean.TRUE) {
             if (bytecodeMeta.has(BytecodeMeta.CodeInfoFlag.SWITCHES)) {
                 op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
+                timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
                 op03SimpleParseNodes = SwitchReplacer.rewriteDuff(op03SimpleParseNodes, variableFactory, comments, options);
+                timer.lap("SwitchReplacer.rewriteDuff", op03SimpleParseNodes);
             }
         }
         /*
@@ -606,37 +845,50 @@ public class CodeAnalyser {
          */
         if (options.getOption(OptionsImpl.FORCE_COND_PROPAGATE) == Troolean.TRUE) {
             RemoveDeterministicJumps.propagateToReturn(method, op03SimpleParseNodes);
+            timer.lap("RemoveDeterministicJumps.propagateToReturn", op03SimpleParseNodes);
         }
 
         boolean reloop;
         do {
             Op03Rewriters.rewriteNegativeJumps(op03SimpleParseNodes, true);
+            timer.lap("Op03Rewriters.rewriteNegativeJumps", op03SimpleParseNodes);
 
             Op03Rewriters.collapseAssignmentsIntoConditionals(op03SimpleParseNodes, options, classFileVersion);
+            timer.lap("Op03Rewriters.collapseAssignmentsIntoConditionals", op03SimpleParseNodes);
 
             // Collapse conditionals into || / &&
             reloop = Op03Rewriters.condenseConditionals(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.condenseConditionals", op03SimpleParseNodes);
             // Condense odder conditionals, which may involve inline ternaries which are
             // hard to work out later.  This isn't going to get everything, but may help!
             //
             reloop = reloop | Op03Rewriters.condenseConditionals2(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.condenseConditionals2", op03SimpleParseNodes);
             reloop = reloop | Op03Rewriters.normalizeDupAssigns(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.normalizeDupAssigns", op03SimpleParseNodes);
             if (reloop) {
                 LValueProp.condenseLValues(op03SimpleParseNodes);
+                timer.lap("LValueProp.condenseLValues", op03SimpleParseNodes);
             }
-            op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true);
+            op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true, checkGraph);
+            timer.lap("Cleaner.removeUnreachableCode", op03SimpleParseNodes);
 
         } while (reloop);
 
         AnonymousArray.resugarAnonymousArrays(op03SimpleParseNodes);
+        timer.lap("AnonymousArray.resugarAnonymousArrays", op03SimpleParseNodes);
 
         Op03Rewriters.simplifyConditionals(op03SimpleParseNodes, false, method);
+        timer.lap("Op03Rewriters.simplifyConditionals", op03SimpleParseNodes);
         op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
+        timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
 
         // Rewrite conditionals which jump into an immediate jump (see specifics)
         Op03Rewriters.rewriteNegativeJumps(op03SimpleParseNodes, false);
+        timer.lap("Op03Rewriters.rewriteNegativeJumps", op03SimpleParseNodes);
 
         Op03Rewriters.optimiseForTypes(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.optimiseForTypes", op03SimpleParseNodes);
 
         // If statements which end up jumping to the final return can really confuse loop detection, so we want
         // to remove them.
@@ -654,129 +906,170 @@ public class CodeAnalyser {
 
         if (options.getOption(OptionsImpl.ECLIPSE)) {
             Op03Rewriters.eclipseLoopPass(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.eclipseLoopPass", op03SimpleParseNodes);
         }
 
         // Identify simple while loops.
-        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true);
+        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true, checkGraph);
+        timer.lap("Cleaner.removeUnreachableCode", op03SimpleParseNodes);
         LoopIdentifier.identifyLoops1(method, op03SimpleParseNodes, blockIdentifierFactory);
+        timer.lap("LoopIdentifier.identifyLoops1", op03SimpleParseNodes);
 
         Op03Rewriters.rewriteBadCompares(variableFactory, op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.rewriteBadCompares", op03SimpleParseNodes);
 
         // After we've identified loops, try to push any instructions through a goto
         op03SimpleParseNodes = Op03Rewriters.pushThroughGoto(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.pushThroughGoto", op03SimpleParseNodes);
 
         // Replacing returning ifs early (above, aggressively) interferes with some nice output.
         // Normally we'd do it AFTER loops.
         if (options.getOption(OptionsImpl.FORCE_RETURNING_IFS) == Troolean.TRUE) {
             Op03Rewriters.replaceReturningIfs(op03SimpleParseNodes, false);
+            timer.lap("Op03Rewriters.replaceReturningIfs", op03SimpleParseNodes);
         }
 
         op03SimpleParseNodes = Cleaner.sortAndRenumber(op03SimpleParseNodes);
-        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true);
+        timer.lap("Cleaner.sortAndRenumber", op03SimpleParseNodes);
+        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true, checkGraph);
+        timer.lap("Cleaner.removeUnreachableCode", op03SimpleParseNodes);
 
         // Perform this before simple forward if detection, as it allows us to not have to consider
         // gotos which have been relabelled as continue/break.
         Op03Rewriters.rewriteBreakStatements(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.rewriteBreakStatements", op03SimpleParseNodes);
         Op03Rewriters.rewriteDoWhileTruePredAsWhile(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.rewriteDoWhileTruePredAsWhile", op03SimpleParseNodes);
         Op03Rewriters.rewriteWhilesAsFors(options, op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.rewriteWhilesAsFors", op03SimpleParseNodes);
 
         // TODO : I think this is now redundant.
         Op03Rewriters.removeSynchronizedCatchBlocks(options, op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.removeSynchronizedCatchBlocks", op03SimpleParseNodes);
 
         // identify conditionals which are of the form if (a) { xx } [ else { yy } ]
         // where xx and yy have no GOTOs in them.
         // We need another pass of this to remove jumps which are next to each other except for nops
         op03SimpleParseNodes = Op03Rewriters.removeUselessNops(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.removeUselessNops", op03SimpleParseNodes);
         Op03Rewriters.removePointlessJumps(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.removePointlessJumps", op03SimpleParseNodes);
         // BUT....
         // After we've removed pointless jumps, let's possibly re-add them, so that the structure of
         // try blocks doesn't end up with confusing jumps.  See ExceptionTest11.
         // (this removal and re-adding may seem daft, (and it often is), but we normalise code
         // and handle more cases by doing it).
         Op03Rewriters.extractExceptionJumps(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.extractExceptionJumps", op03SimpleParseNodes);
         Op03Rewriters.extractAssertionJumps(op03SimpleParseNodes);
-        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true);
+        timer.lap("Op03Rewriters.extractAssertionJumps", op03SimpleParseNodes);
+        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true, checkGraph);
+        timer.lap("Cleaner.removeUnreachableCode", op03SimpleParseNodes);
 
         // Identify simple (nested) conditionals - note that this also generates ternary expressions,
         // if the conditional is simple enough.
         ConditionalRewriter.identifyNonjumpingConditionals(op03SimpleParseNodes, blockIdentifierFactory);
+        timer.lap("ConditionalRewriter.identifyNonjumpingConditionals", op03SimpleParseNodes);
 
         // If we have a conditional JUST before a do statement which jumps in, then see if we can
         // safely move it inside, and have another go.
         // After we've done this we need another go at identifyingNonJumpingConditionals, however that happens below.
         if (options.optionIsSet(OptionsImpl.AGGRESSIVE_DO_COPY)) {
             Op03Rewriters.cloneCodeFromLoop(op03SimpleParseNodes, options, comments);
+            timer.lap("Op03Rewriters.cloneCodeFromLoop", op03SimpleParseNodes);
         }
         if (options.getOption(OptionsImpl.AGGRESSIVE_DO_EXTENSION) == Troolean.TRUE) {
             Op03Rewriters.moveJumpsIntoDo(variableFactory, op03SimpleParseNodes, options, comments);
+            timer.lap("Op03Rewriters.moveJumpsIntoDo", op03SimpleParseNodes);
         }
 
         // Condense again, now we've simplified conditionals, ternaries, etc.
         LValueProp.condenseLValues(op03SimpleParseNodes);
+        timer.lap("LValueProp.condenseLValues", op03SimpleParseNodes);
         if (options.getOption(OptionsImpl.FORCE_COND_PROPAGATE) == Troolean.TRUE) {
             Op03Rewriters.propagateToReturn2(op03SimpleParseNodes);
+            timer.lap("Op03Rewriters.propagateToReturn2", op03SimpleParseNodes);
         }
 
         op03SimpleParseNodes = Op03Rewriters.removeUselessNops(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.removeUselessNops", op03SimpleParseNodes);
 
 
         // By now, we've (re)moved several statements, so it's possible that some jumps can be rewritten to
         // breaks again.
         Op03Rewriters.removePointlessJumps(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.removePointlessJumps", op03SimpleParseNodes);
         Op03Rewriters.rewriteBreakStatements(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.rewriteBreakStatements", op03SimpleParseNodes);
 
         // See if we can classify any more gotos - i.e. the last statement in a try block
         // which jumps to immediately after the catch block.
         //
         // While it seems perverse to have another pass at this here, it seems to yield the best results.
         Op03Rewriters.classifyGotos(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.classifyGotos", op03SimpleParseNodes);
         if (options.getOption(OptionsImpl.LABELLED_BLOCKS)) {
             Op03Rewriters.classifyAnonymousBlockGotos(op03SimpleParseNodes, false);
+            timer.lap("Op03Rewriters.classifyAnonymousBlockGotos", op03SimpleParseNodes);
         }
         //
         // By this point, we've tried to classify ternaries.  We could try pushing some literals
         // very aggressively. (i.e. a=1, if (a) b=1 else b =0; return b. ) -> return 1;
         //
         ConditionalRewriter.identifyNonjumpingConditionals(op03SimpleParseNodes, blockIdentifierFactory);
+        timer.lap("ConditionalRewriter.identifyNonjumpingConditionals", op03SimpleParseNodes);
 
         /*
          * Now we've got here, there's no benefit in having spurious inline assignments.  Where possible,
          * pull them out!
          */
         InlineDeAssigner.extractAssignments(op03SimpleParseNodes);
+        timer.lap("InlineDeAssigner.extractAssignments", op03SimpleParseNodes);
 
         // Introduce java 6 style for (x : array)
         boolean checkLoopTypeClash = false;
         if (options.getOption(OptionsImpl.ARRAY_ITERATOR, classFileVersion)) {
             IterLoopRewriter.rewriteArrayForLoops(op03SimpleParseNodes);
+            timer.lap("IterLoopRewriter.rewriteArrayForLoops", op03SimpleParseNodes);
             checkLoopTypeClash = true;
         }
         // and for (x : iterable)
         if (options.getOption(OptionsImpl.COLLECTION_ITERATOR, classFileVersion)) {
             IterLoopRewriter.rewriteIteratorWhileLoops(op03SimpleParseNodes);
+            timer.lap("IterLoopRewriter.rewriteIteratorWhileLoops", op03SimpleParseNodes);
             checkLoopTypeClash = true;
         }
 
         SynchronizedBlocks.findSynchronizedBlocks(op03SimpleParseNodes);
+        timer.lap("SynchronizedBlocks.findSynchronizedBlocks", op03SimpleParseNodes);
 
         Op03SimpleStatement.removePointlessSwitchDefaults(op03SimpleParseNodes);
+        timer.lap("Op03SimpleStatement.removePointlessSwitchDefaults", op03SimpleParseNodes);
 
         op03SimpleParseNodes = Op03Rewriters.removeUselessNops(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.removeUselessNops", op03SimpleParseNodes);
 
         Op03Rewriters.rewriteWith(op03SimpleParseNodes, new StringBuilderRewriter(options, classFileVersion));
+        timer.lap("StringBuilderRewriter", op03SimpleParseNodes);
         Op03Rewriters.rewriteWith(op03SimpleParseNodes, new XorRewriter());
+        timer.lap("XorRewriter", op03SimpleParseNodes);
 
-        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true);
+        op03SimpleParseNodes = Cleaner.removeUnreachableCode(op03SimpleParseNodes, true, checkGraph);
+        timer.lap("Cleaner.removeUnreachableCode", op03SimpleParseNodes);
 
         if (options.getOption(OptionsImpl.LABELLED_BLOCKS)) {
             // Before we handle anonymous blocks - see if we can convert any non-else if statements, which
             // Jump to a Goto Out of try, to just be an anonymous break to after that try statement.
             Op03Rewriters.labelAnonymousBlocks(op03SimpleParseNodes, blockIdentifierFactory);
+            timer.lap("Op03Rewriters.labelAnonymousBlocks", op03SimpleParseNodes);
         }
 
         Op03Rewriters.simplifyConditionals(op03SimpleParseNodes, true, method);
+        timer.lap("Op03Rewriters.simplifyConditionals", op03SimpleParseNodes);
         Op03Rewriters.extractExceptionMiddle(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.extractExceptionMiddle", op03SimpleParseNodes);
         Op03Rewriters.removePointlessJumps(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.removePointlessJumps", op03SimpleParseNodes);
 
 
         /*
@@ -785,6 +1078,7 @@ public class CodeAnalyser {
          * (albeit locals which known that they don't have a valid lookup).
          */
         Op03Rewriters.replaceStackVarsWithLocals(op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.replaceStackVarsWithLocals", op03SimpleParseNodes);
 
         /*
          * We might have eliminated temporaries which caused potential type clashes.
@@ -794,9 +1088,11 @@ public class CodeAnalyser {
          * Re-scan assignments - see if we can narrow types.
          */
         Op03Rewriters.narrowAssignmentTypes(method, op03SimpleParseNodes);
+        timer.lap("Op03Rewriters.narrowAssignmentTypes", op03SimpleParseNodes);
 
         if (options.getOption(OptionsImpl.SHOW_INFERRABLE, classFileVersion)) {
             Op03Rewriters.rewriteWith(op03SimpleParseNodes, new ExplicitTypeCallRewriter());
+            timer.lap("ExplicitTypeCallRewriter", op03SimpleParseNodes);
         }
         /*
          * It's possible to have false sharing across distinct regimes in the case of loops -
@@ -807,6 +1103,7 @@ public class CodeAnalyser {
             if (LoopLivenessClash.detect(op03SimpleParseNodes, bytecodeMeta)) {
                 comments.addComment(DecompilerComment.TYPE_CLASHES);
             }
+            timer.lap("LoopLivenessClash.detect", op03SimpleParseNodes);
             if (bytecodeMeta.has(BytecodeMeta.CodeInfoFlag.ITERATED_TYPE_HINTS)) {
                 comments.addComment(DecompilerComment.ITERATED_TYPE_HINTS);
             }
@@ -818,33 +1115,51 @@ public class CodeAnalyser {
             // Before we handle anonymous blocks - see if we can convert any non-else if statements, which
             // Jump to a Goto Out of try, to just be an anonymous break to after that try statement.
             Op03Rewriters.classifyAnonymousBlockGotos(op03SimpleParseNodes, true);
+            timer.lap("Op03Rewriters.classifyAnonymousBlockGotos", op03SimpleParseNodes);
 
             Op03Rewriters.labelAnonymousBlocks(op03SimpleParseNodes, blockIdentifierFactory);
+            timer.lap("Op03Rewriters.labelAnonymousBlocks", op03SimpleParseNodes);
         }
 
         Op03Rewriters.rewriteWith(op03SimpleParseNodes, new BadNarrowingArgRewriter());
+        timer.lap("BadNarrowingArgRewriter", op03SimpleParseNodes);
         Cleaner.reindexInPlace(op03SimpleParseNodes);
+        timer.lap("Cleaner.reindexInPlace", op03SimpleParseNodes);
 
         Op03SimpleStatement.noteInterestingLifetimes(op03SimpleParseNodes);
+        timer.lap("Op03SimpleStatement.noteInterestingLifetimes", op03SimpleParseNodes);
 
         Op04StructuredStatement block = Op03SimpleStatement.createInitialStructuredBlock(op03SimpleParseNodes);
+        timer.lap("Op03SimpleStatement.createInitialStructuredBlock", block);
 
         Op04StructuredStatement.tidyEmptyCatch(block);
+        timer.lap("Op04StructuredStatement.tidyEmptyCatch", block);
         Op04StructuredStatement.tidyTryCatch(block);
+        timer.lap("Op04StructuredStatement.tidyTryCatch", block);
         Op04StructuredStatement.convertUnstructuredIf(block);
+        timer.lap("Op04StructuredStatement.convertUnstructuredIf", block);
         Op04StructuredStatement.inlinePossibles(block);
+        timer.lap("Op04StructuredStatement.inlinePossibles", block);
         Op04StructuredStatement.removeStructuredGotos(block);
+        timer.lap("Op04StructuredStatement.removeStructuredGotos", block);
         Op04StructuredStatement.removePointlessBlocks(block);
+        timer.lap("Op04StructuredStatement.removePointlessBlocks", block);
         Op04StructuredStatement.removePointlessReturn(block);
+        timer.lap("Op04StructuredStatement.removePointlessReturn", block);
         Op04StructuredStatement.removePointlessControlFlow(block);
+        timer.lap("Op04StructuredStatement.removePointlessControlFlow", block);
         Op04StructuredStatement.removePrimitiveDeconversion(options, method, block);
+        timer.lap("Op04StructuredStatement.removePrimitiveDeconversion", block);
         if (options.getOption(OptionsImpl.LABELLED_BLOCKS)) {
             Op04StructuredStatement.insertLabelledBlocks(block);
+            timer.lap("Op04StructuredStatement.insertLabelledBlocks", block);
         }
         // It seems perverse to do a second pass for removal of pointless blocks - but now everything is in place
         // the logic is much cleaner.
         Op04StructuredStatement.removeUnnecessaryLabelledBreaks(block);
+        timer.lap("Op04StructuredStatement.removeUnnecessaryLabelledBreaks", block);
         Op04StructuredStatement.flattenNonReferencedBlocks(block);
+        timer.lap("Op04StructuredStatement.flattenNonReferencedBlocks", block);
 
         /*
          * If we can't fully structure the code, we bow out here.
@@ -854,19 +1169,25 @@ public class CodeAnalyser {
             comments.addComment(DecompilerComment.UNABLE_TO_STRUCTURE);
         } else {
             Op04StructuredStatement.tidyTypedBooleans(block);
+            timer.lap("Op04StructuredStatement.tidyTypedBooleans", block);
             Op04StructuredStatement.prettifyBadLoops(block);
+            timer.lap("Op04StructuredStatement.prettifyBadLoops", block);
 
-            // Replace with a more generic interface, etc.
-
-            new SwitchStringRewriter(options, classFileVersion, bytecodeMeta).rewrite(block);
-            new SwitchEnumRewriter(dcCommonState, classFile, blockIdentifierFactory).rewrite(block);
+            // These share one linearisation of the block (unless one of them changes it).
+            LinearisedStatements linearised = new LinearisedStatements(block);
+            new SwitchStringRewriter(options, classFileVersion, bytecodeMeta).rewrite(linearised);
+            timer.lap("SwitchStringRewriter", block);
+            new SwitchEnumRewriter(dcCommonState, classFile, blockIdentifierFactory).rewrite(linearised);
+            timer.lap("SwitchEnumRewriter", block);
 
             // Just prior to variable scopes, if we've got any anonymous classes, and we're J10+,
             // then see if we are addressing non-existent content of anonymous objects.
             // If we are, this indicates that var was used.
             Op04StructuredStatement.rewriteExplicitTypeUsages(method, block, anonymousClassUsage, classFile);
+            timer.lap("Op04StructuredStatement.rewriteExplicitTypeUsages", block);
 
             Op04StructuredStatement.normalizeInstanceOf(block, options, classFileVersion);
+            timer.lap("Op04StructuredStatement.normalizeInstanceOf", block);
 
             // Now we've got everything nicely block structured, we can have an easier time
             // We *have* to discover variable scopes BEFORE we rewrite lambdas, because
@@ -878,63 +1199,83 @@ public class CodeAnalyser {
             // We therefore need a SEPARATE pass, post lambda, to ensure that local classes are
             // correctly processed.
             Op04StructuredStatement.discoverVariableScopes(method, block, variableFactory, options, classFileVersion, bytecodeMeta);
+            timer.lap("Op04StructuredStatement.discoverVariableScopes", block);
             if (bytecodeMeta.has(BytecodeMeta.CodeInfoFlag.INSTANCE_OF_MATHCES)) {
                 Op04StructuredStatement.tidyInstanceMatches(block);
+                timer.lap("Op04StructuredStatement.tidyInstanceMatches", block);
             }
             if (options.getOption(OptionsImpl.REWRITE_TRY_RESOURCES, classFileVersion)) {
                 Op04StructuredStatement.removeEndResource(method.getClassFile(), block);
+                timer.lap("Op04StructuredStatement.removeEndResource", block);
             }
 
             if (options.getOption(OptionsImpl.SWITCH_EXPRESSION, classFileVersion)) {
                 Op04StructuredStatement.switchExpression(method, block, comments);
+                timer.lap("Op04StructuredStatement.switchExpression", block);
             }
 
             Op04StructuredStatement.rewriteLambdas(dcCommonState, method, block);
+            timer.lap("Op04StructuredStatement.rewriteLambdas", block);
             // Now lambdas have been rewritten, reprocess ONLY to insert local class
             // definitions.
             // Note that local class definitions are removed at the point of lambda rewrite.
             Op04StructuredStatement.discoverLocalClassScopes(method, block, variableFactory, options);
+            timer.lap("Op04StructuredStatement.discoverLocalClassScopes", block);
                                             
             if (options.getOption(OptionsImpl.REMOVE_BOILERPLATE)) {
                 // Note - we ALSO try to do this in whole pass analysis.
                 if (this.method.isConstructor()) {
                     Op04StructuredStatement.removeConstructorBoilerplate(block);
+                    timer.lap("Op04StructuredStatement.removeConstructorBoilerplate", block);
                 }
             }
 
             // Some misc translations.
             Op04StructuredStatement.removeUnnecessaryVarargArrays(options, method, block);
+            timer.lap("Op04StructuredStatement.removeUnnecessaryVarargArrays", block);
 
             Op04StructuredStatement.removePrimitiveDeconversion(options, method, block);
+            timer.lap("Op04StructuredStatement.removePrimitiveDeconversion", block);
             // After the final boxing rewrite, go back and check for inconvertible type cast
             // chains.  (BoxingTest37b)
             Op04StructuredStatement.rewriteBadCastChains(options, method, block);
+            timer.lap("Op04StructuredStatement.rewriteBadCastChains", block);
             // Or narrowing casts which are no longer needed because boxed assignments allow them.
             Op04StructuredStatement.rewriteNarrowingAssignments(options, method, block);
+            timer.lap("Op04StructuredStatement.rewriteNarrowingAssignments", block);
 
             // Tidy variable names
             Op04StructuredStatement.tidyVariableNames(method, block, bytecodeMeta, comments, cp.getClassCache());
+            timer.lap("Op04StructuredStatement.tidyVariableNames", block);
 
             Op04StructuredStatement.tidyObfuscation(options, block);
+            timer.lap("Op04StructuredStatement.tidyObfuscation", block);
 
             Op04StructuredStatement.miscKeyholeTransforms(variableFactory, block);
+            timer.lap("Op04StructuredStatement.miscKeyholeTransforms", block);
 
 
             /*
              * Now finally run some extra checks to spot wierdness.
              */
             Op04StructuredStatement.applyChecker(new LooseCatchChecker(), block, comments);
+            timer.lap("LooseCatchChecker", block);
             Op04StructuredStatement.applyChecker(new VoidVariableChecker(), block, comments);
+            timer.lap("VoidVariableChecker", block);
             Op04StructuredStatement.applyChecker(new IllegalReturnChecker(), block, comments);
+            timer.lap("IllegalReturnChecker", block);
 
             Op04StructuredStatement.flattenNonReferencedBlocks(block);
+            timer.lap("Op04StructuredStatement.flattenNonReferencedBlocks", block);
 
             Op04StructuredStatement.reduceClashDeclarations(block, bytecodeMeta);
+            timer.lap("Op04StructuredStatement.reduceClashDeclarations", block);
 
             /*
              * And apply any type annotations we can.
              */
             Op04StructuredStatement.applyTypeAnnotations(originalCodeAttribute, block, lutByOffset, comments);
+            timer.lap("Op04StructuredStatement.applyTypeAnnotations", block);
         }
 
         // Only check for type clashes on first pass.
@@ -942,6 +1283,7 @@ public class CodeAnalyser {
             if (Op04StructuredStatement.checkTypeClashes(block, bytecodeMeta)) {
                 comments.addComment(DecompilerComment.TYPE_CLASHES);
             }
+            timer.lap("Op04StructuredStatement.checkTypeClashes", block);
         }
 
         return new AnalysisResultSuccessful(comments, block, anonymousClassUsage);
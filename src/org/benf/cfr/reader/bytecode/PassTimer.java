@@ -0,0 +1,126 @@
+package org.benf.cfr.reader.bytecode;
+
+import org.benf.cfr.reader.bytecode.analysis.opgraph.Op04StructuredStatement;
+import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.transformers.StructuredStatementTransformer;
+import org.benf.cfr.reader.bytecode.analysis.structured.StructuredScope;
+import org.benf.cfr.reader.bytecode.analysis.structured.StructuredStatement;
+import org.benf.cfr.reader.bytecode.analysis.structured.statement.placeholder.AbstractPlaceholder;
+import org.benf.cfr.reader.state.AnalysisTimings;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/*
+ * Times a single analysis attempt.  Each call to lap attributes everything since the previous lap to the named
+ * pass, along with the number of nodes (op02/op03 statements, or structured statements) before and after.
+ *
+ * Each lap is also where an AnalysisBudget (if any) is checked - and may throw.
+ *
+ * NONE does nothing, and is what's used unless timings or a budget have been asked for.
+ */
+class PassTimer {
+    static final PassTimer NONE = new PassTimer();
+
+    private final AnalysisTimings.MethodTimings into;
+    private final AnalysisBudget budget;
+    private final long threadId;
+    private final long startNanos;
+    private long lastNanos;
+    private long lastAllocated;
+    private int lastNodes;
+
+    private PassTimer() {
+        this.into = null;
+        this.budget = null;
+        this.threadId = 0;
+        this.startNanos = 0;
+    }
+
+    private PassTimer(AnalysisTimings.MethodTimings into, AnalysisBudget budget, int nodes) {
+        this.into = into;
+        this.budget = budget;
+        this.threadId = Thread.currentThread().getId();
+        this.lastAllocated = into == null ? 0 : allocated();
+        this.lastNodes = nodes;
+        this.startNanos = this.lastNanos = System.nanoTime();
+        if (budget != null) budget.startPass();
+    }
+
+    static PassTimer create(AnalysisTimings.MethodTimings into, AnalysisBudget budget, int nodes) {
+        if (into == null && budget == null) return NONE;
+        return new PassTimer(into, budget, nodes);
+    }
+
+    void lap(String pass, List<?> nodes) {
+        if (into != null) record(pass, nodes.size());
+        if (budget != null) budget.check(pass, nodes.size());
+    }
+
+    void lap(String pass, Op04StructuredStatement block) {
+        if (into != null) record(pass, count(block));
+        if (budget != null) budget.check(pass, -1);
+    }
+
+    void done() {
+        if (into == null) return;
+        into.addAttempt(System.nanoTime() - startNanos);
+    }
+
+    private void record(String pass, int nodes) {
+        long allocated = allocated();
+        long now = System.nanoTime();
+        into.getPass(pass).add(now - lastNanos, allocated - lastAllocated, lastNodes, nodes);
+        lastNodes = nodes;
+        lastAllocated = allocated;
+        // Don't charge the counting to the next pass.
+        lastNanos = System.nanoTime();
+    }
+
+    private long allocated() {
+        com.sun.management.ThreadMXBean bean = AllocationBean.INSTANCE;
+        if (bean == null) return 0;
+        return bean.getThreadAllocatedBytes(threadId);
+    }
+
+    /*
+     * Only loaded once something is actually timed (ie --analysistimings) - so a budget alone doesn't go near the
+     * management beans, or switch on allocation tracking for every thread.
+     */
+    private static class AllocationBean {
+        private static final com.sun.management.ThreadMXBean INSTANCE = get();
+
+        private static com.sun.management.ThreadMXBean get() {
+            try {
+                ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+                com.sun.management.ThreadMXBean res = (com.sun.management.ThreadMXBean) bean;
+                if (!res.isThreadAllocatedMemorySupported()) return null;
+                res.setThreadAllocatedMemoryEnabled(true);
+                return res;
+            } catch (Throwable e) {
+                // Not a hotspot JVM (or not one we can ask).
+                return null;
+            }
+        }
+    }
+
+    private static int count(Op04StructuredStatement block) {
+        final int[] count = new int[1];
+        try {
+            block.transform(new StructuredStatementTransformer() {
+                @Override
+                public StructuredStatement transform(StructuredStatement in, StructuredScope scope) {
+                    count[0]++;
+                    if (!(in instanceof AbstractPlaceholder)) {
+                        in.transformStructuredChildren(this, scope);
+                    }
+                    return in;
+                }
+            }, new StructuredScope());
+        } catch (RuntimeException ignore) {
+            // Partially structured code may not be walkable - report what we've seen.
+        }
+        return count[0];
+    }
+}
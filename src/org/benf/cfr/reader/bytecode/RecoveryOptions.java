@@ -23,11 +23,11 @@ public class RecoveryOptions {
     }
 
     public static class Applied {
-        public Options options;
+        public MutableOptions options;
         public List<DecompilerComment> comments;
         public boolean valid;
 
-        public Applied(Options options, List<DecompilerComment> comments, boolean valid) {
+        public Applied(MutableOptions options, List<DecompilerComment> comments, boolean valid) {
             this.options = options;
             this.comments = comments;
             this.valid = valid;
@@ -1,10 +1,16 @@
 package org.benf.cfr.reader.bytecode.analysis.opgraph;
 
-import java.util.LinkedList;
+import org.benf.cfr.reader.util.collections.ListFactory;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
 public class InstrIndex implements Comparable<InstrIndex> {
     private final int index;
     //    private final int subindex; // for renumbering, etc.
+    // Orders this among its temp relatives - see TempRelatives.
+    private long label;
     private TempRelatives tempList;
 
     public InstrIndex(int index) {
@@ -36,8 +42,15 @@ public class InstrIndex implements Comparable<InstrIndex> {
         if (tempList != other.tempList) {
             throw new IllegalStateException("Bad templists");
         }
-        a = idx() - other.idx();
-        return a;
+        return label < other.label ? -1 : (label == other.label ? 0 : 1);
+    }
+
+    /*
+     * Is this the plain index idx, with nothing placed relative to it?  (If so, there's no need to replace it when
+     * renumbering).
+     */
+    public boolean isPlain(int idx) {
+        return index == idx && tempList == null;
     }
 
     // NOTE DELIBERATE USE OF OBJECT HASH AND EQUALS.
@@ -92,25 +105,73 @@ public class InstrIndex implements Comparable<InstrIndex> {
     }
 
 
+    /*
+     * Indices made justBefore / justAfter one another share an index, and are ordered by label.  A new index takes
+     * a label from the gap between its neighbours, and the group is spread out again if that gap has run out - so
+     * comparison doesn't have to find both in the group, as it did when this was a linked list.
+     */
     private static class TempRelatives {
-        private final LinkedList<InstrIndex> rels = new LinkedList<InstrIndex>();
+        private static final long SPACING = 1L << 16;
+
+        // In the order they were made, not label order.
+        private final List<InstrIndex> rels = ListFactory.newList();
 
         TempRelatives(InstrIndex start) {
+            start.label = 0;
             rels.add(start);
         }
 
         public int indexOf(InstrIndex i) {
-            return rels.indexOf(i);
+            int res = 0;
+            for (InstrIndex rel : rels) {
+                if (rel.label < i.label) res++;
+            }
+            return res;
         }
 
         public void before(InstrIndex than, InstrIndex isBefore) {
-            int idx = rels.indexOf(than);
-            rels.add(idx, isBefore);
+            InstrIndex prev = neighbour(than, false);
+            if (prev != null && than.label - prev.label < 2) {
+                respace();
+            }
+            isBefore.label = prev == null ? than.label - SPACING : prev.label + (than.label - prev.label) / 2;
+            rels.add(isBefore);
+        }
+
+        public void after(InstrIndex than, InstrIndex isAfter) {
+            InstrIndex next = neighbour(than, true);
+            if (next != null && next.label - than.label < 2) {
+                respace();
+            }
+            isAfter.label = next == null ? than.label + SPACING : than.label + (next.label - than.label) / 2;
+            rels.add(isAfter);
+        }
+
+        /*
+         * The relative immediately after (or before) i, or null if there isn't one.
+         */
+        private InstrIndex neighbour(InstrIndex i, boolean after) {
+            InstrIndex res = null;
+            for (InstrIndex rel : rels) {
+                if (after ? rel.label > i.label && (res == null || rel.label < res.label)
+                          : rel.label < i.label && (res == null || rel.label > res.label)) {
+                    res = rel;
+                }
+            }
+            return res;
         }
 
-        public void after(InstrIndex than, InstrIndex isBefore) {
-            int idx = rels.indexOf(than);
-            rels.add(idx + 1, isBefore);
+        private void respace() {
+            List<InstrIndex> ordered = ListFactory.newList(rels);
+            Collections.sort(ordered, new Comparator<InstrIndex>() {
+                @Override
+                public int compare(InstrIndex a, InstrIndex b) {
+                    return a.label < b.label ? -1 : (a.label == b.label ? 0 : 1);
+                }
+            });
+            for (int x = 0, len = ordered.size(); x < len; ++x) {
+                ordered.get(x).label = x * SPACING;
+            }
         }
     }
 }
@@ -46,7 +46,9 @@ import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
 import org.benf.cfr.reader.util.graph.GraphVisitor;
 import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
-import org.benf.cfr.reader.util.graph.GraphVisitorFIFO;
+import org.benf.cfr.reader.util.graph.GraphWalkerDFS;
+import org.benf.cfr.reader.util.graph.GraphWalkerFIFO;
+import org.benf.cfr.reader.util.graph.IndexedNode;
 import org.benf.cfr.reader.util.lambda.LambdaUtils;
 import org.benf.cfr.reader.util.output.*;
 
@@ -54,10 +56,11 @@ import java.util.*;
 import java.util.logging.Logger;
 
 @SuppressWarnings("StatementWithEmptyBody")
-public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithProcessedDataAndRefs> {
+public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithProcessedDataAndRefs>, IndexedNode {
     private static final Logger logger = LoggerFactory.create(Op02WithProcessedDataAndRefs.class);
 
     private InstrIndex index;
+    private int graphIndex = -1;
 
     private JVMInstr instr;
     private final int originalRawOffset;
@@ -120,6 +123,16 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         return index;
     }
 
+    @Override
+    public int getGraphIndex() {
+        return graphIndex;
+    }
+
+    @Override
+    public void setGraphIndex(int graphIndex) {
+        this.graphIndex = graphIndex;
+    }
+
     public void setIndex(InstrIndex index) {
         this.index = index;
     }
@@ -195,12 +208,16 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         return cpEntries;
     }
 
-    private void populateStackInfo(StackSim stackSim, Method method, Set<DecompilerComment> comments, LinkedList<Pair<StackSim, Op02WithProcessedDataAndRefs>> next) {
+    /*
+     * Apply this instruction to stackSim, which is changed in place.  Returns the target to carry on with (using the
+     * same stackSim), or null if this path is finished.
+     */
+    private Op02WithProcessedDataAndRefs populateStackInfo(StackSim stackSim, Method method, Set<DecompilerComment> comments, List<StackSim> pendingStacks, List<Op02WithProcessedDataAndRefs> pendingOps) {
         StackDelta stackDelta = instr.getStackDelta(rawData, cpEntries, stackSim, method);
         if (stackDepthBeforeExecution != -1) {
             /* Catch instructions are funny, as we know we'll get here with 1 thing on the stack. */
             if (instr == JVMInstr.FAKE_CATCH) {
-                return;
+                return null;
             }
 
             if (stackSim.getDepth() != stackDepthBeforeExecution) {
@@ -209,7 +226,8 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
 
             List<StackEntryHolder> alsoConsumed = ListFactory.newList();
             List<StackEntryHolder> alsoProduced = ListFactory.newList();
-            StackSim newStackSim = stackSim.getChange(stackDelta, alsoConsumed, alsoProduced, this);
+            // Nothing follows this on this path, so we're free to change stackSim.
+            stackSim.applyChange(stackDelta, alsoConsumed, alsoProduced, this);
             if (alsoConsumed.size() != stackConsumed.size()) {
                 throw new ConfusedCFRException("Unexpected stack sizes on merge");
             }
@@ -224,12 +242,12 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
                 // Need to take the unconsumedJoinedStack, ignore the
                 long depth = unconsumedJoinedStack.getDepth() - alsoProduced.size();
                 List<StackEntryHolder> unconsumedEntriesOld = unconsumedJoinedStack.getHolders(alsoProduced.size(), depth);
-                List<StackEntryHolder> unconsumedEntriesNew = newStackSim.getHolders(alsoProduced.size(), depth);
+                List<StackEntryHolder> unconsumedEntriesNew = stackSim.getHolders(alsoProduced.size(), depth);
                 for (int i = 0; i < unconsumedEntriesOld.size(); ++i) {
                     unconsumedEntriesOld.get(i).mergeWith(unconsumedEntriesNew.get(i), comments);
                 }
             }
-
+            return null;
         } else {
 
             if (instr == JVMInstr.FAKE_CATCH) {
@@ -239,9 +257,9 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
             }
             this.stackDepthAfterExecution = stackDepthBeforeExecution + stackDelta.getChange();
 
-            StackSim newStackSim = stackSim.getChange(stackDelta, stackConsumed, stackProduced, this);
+            stackSim.applyChange(stackDelta, stackConsumed, stackProduced, this);
 
-            if (this.sources.size() > 1 && newStackSim.getDepth() > stackProduced.size()) {
+            if (this.sources.size() > 1 && stackSim.getDepth() > stackProduced.size()) {
                 // We're merging stacks here, and haven't consumed everything from the branch we came
                 // in on.
                 //
@@ -249,15 +267,19 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
                 //
                 // This will potentially contain uneccessary references to BEFORE the stacks diverged.
                 // TODO: eliminate this - I can see how an obfuscator would use that....
-                this.unconsumedJoinedStack = newStackSim;
+                this.unconsumedJoinedStack = stackSim.copy();
             }
 
             /*
-             * Behave like a DFS, but we can't afford to blow stack, so queue.
+             * Behave like a DFS, but we can't afford to blow stack, so queue.  The first target carries on with
+             * this stack, the others get a copy of it.
              */
-            for (int i = targets.size() - 1; i >= 0; --i) {
-                next.addFirst(Pair.make(newStackSim, targets.get(i)));
+            if (targets.isEmpty()) return null;
+            for (int i = targets.size() - 1; i >= 1; --i) {
+                pendingStacks.add(stackSim.copy());
+                pendingOps.add(targets.get(i));
             }
+            return targets.get(0);
         }
     }
 
@@ -1554,15 +1576,20 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
             op.resetStackInfo();
         }
 
+        // Branches still to be walked, most recent last - each with its own stack.
+        List<StackSim> pendingStacks = ListFactory.newList();
+        List<Op02WithProcessedDataAndRefs> pendingOps = ListFactory.newList();
+        StackSim stackSim = new StackSim();
+        Op02WithProcessedDataAndRefs o2 = op2list.get(0);
         // This dump block only exists because we're debugging bad stack size calcuations.
-        LinkedList<Pair<StackSim, Op02WithProcessedDataAndRefs>> toProcess = ListFactory.newLinkedList();
-        toProcess.add(Pair.make(new StackSim(), op2list.get(0)));
         try {
-            while (!toProcess.isEmpty()) {
-                Pair<StackSim, Op02WithProcessedDataAndRefs> next = toProcess.removeFirst();
-                Op02WithProcessedDataAndRefs o2 = next.getSecond();
-                StackSim stackSim = next.getFirst();
-                o2.populateStackInfo(stackSim, method, comments, toProcess);
+            while (o2 != null) {
+                o2 = o2.populateStackInfo(stackSim, method, comments, pendingStacks, pendingOps);
+                if (o2 == null && !pendingOps.isEmpty()) {
+                    int last = pendingOps.size() - 1;
+                    o2 = pendingOps.remove(last);
+                    stackSim = pendingStacks.remove(last);
+                }
             }
         } catch (ConfusedCFRException e) {
             Dumper dmp = new ToStringDumper();
@@ -1579,25 +1606,17 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
 
     public static void unlinkUnreachable(List<Op02WithProcessedDataAndRefs> op2list) {
 
-        final Set<Op02WithProcessedDataAndRefs> reached = SetFactory.newSet();
-        GraphVisitor<Op02WithProcessedDataAndRefs> reachableVisitor =
-                new GraphVisitorDFS<Op02WithProcessedDataAndRefs>(op2list.get(0),
-                        new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
-                            @Override
-                            public void call(Op02WithProcessedDataAndRefs arg1, GraphVisitor<Op02WithProcessedDataAndRefs> arg2) {
-                                reached.add(arg1);
-                                for (Op02WithProcessedDataAndRefs target : arg1.getTargets()) {
-                                    arg2.enqueue(target);
-                                }
-                            }
-                        });
-        reachableVisitor.process();
+        GraphWalkerDFS<Op02WithProcessedDataAndRefs> reached = new GraphWalkerDFS<Op02WithProcessedDataAndRefs>(op2list);
+        reached.start(op2list.get(0));
+        for (Op02WithProcessedDataAndRefs node = reached.next(); node != null; node = reached.next()) {
+            reached.enqueue(node.getTargets());
+        }
 
         /* Since we only look at nodes reachable from the start, we'll have the whole set we need to eliminate now.
          *
          */
         for (Op02WithProcessedDataAndRefs op : op2list) {
-            if (!reached.contains(op)) {
+            if (!reached.isVisited(op)) {
                 /* Unlink node - remove as source from all its targets
                  * (It doesn't have any reachable sources) */
                 for (Op02WithProcessedDataAndRefs target : op.targets) {
@@ -1721,26 +1740,35 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
             }
         };
 
-        UniqueSeenQueue<Op02WithProcessedDataAndRefs> toProcess =new UniqueSeenQueue<Op02WithProcessedDataAndRefs>(statements);
-//        LinkedList<Op02WithProcessedDataAndRefs> toProcess = new LinkedList<Op02WithProcessedDataAndRefs>(statements);
-        while (!toProcess.isEmpty()) {
-            Op02WithProcessedDataAndRefs statement = toProcess.removeFirst();
-            SSAIdentifiers<Slot> ssaIdentifiers = statement.ssaIdentifiers;
-            boolean changed = false;
+        SlotIdentMerger merger = new SlotIdentMerger(statements, idents, bytecodeMeta.getDeadSlots());
+        int[] toProcess = new int[statements.size()];
+        boolean[] queued = new boolean[statements.size()];
+        for (int x = 0; x < toProcess.length; ++x) {
+            toProcess[x] = x;
+            queued[x] = true;
+        }
+        int head = 0;
+        int queueSize = toProcess.length;
+        while (queueSize > 0) {
+            int idx = toProcess[head];
+            head = (head + 1) % toProcess.length;
+            --queueSize;
+            queued[idx] = false;
             // If this is a catch, we know for CERTAIN that we can't be sharing a lifetime with a previous incarnation
             // of the variable in the slot.
             BinaryPredicate<Slot, Slot> test = testSlot;
-            if (statement.hasCatchParent) test = always;
-            for (Op02WithProcessedDataAndRefs source : statement.getSources()) {
-                if (ssaIdentifiers.mergeWith(source.ssaIdentifiers, test)) {
-                    changed = true;
-                }
-            }
+            if (statements.get(idx).hasCatchParent) test = always;
             // If anything's changed, we need to check this statements children.
-            if (changed) {
-                toProcess.addAll(statement.getTargets());
+            if (merger.mergeSources(idx, test)) {
+                for (int target : merger.targets[idx]) {
+                    if (queued[target]) continue;
+                    queued[target] = true;
+                    toProcess[(head + queueSize) % toProcess.length] = target;
+                    ++queueSize;
+                }
             }
         }
+        merger.writeBack();
     }
 
     /*
@@ -1762,20 +1790,16 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
      */
     @SuppressWarnings("unused")
     private static void removeUnusedSSAIdentifiers(SSAIdentifierFactory<Slot, StackType> ssaIdentifierFactory, Method method, List<Op02WithProcessedDataAndRefs> op2list) {
-        final List<Op02WithProcessedDataAndRefs> endPoints = ListFactory.newList();
-        GraphVisitor<Op02WithProcessedDataAndRefs> gv = new GraphVisitorDFS<Op02WithProcessedDataAndRefs>(
-                op2list.get(0),
-                new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
-                    @Override
-                    public void call(Op02WithProcessedDataAndRefs arg1, GraphVisitor<Op02WithProcessedDataAndRefs> arg2) {
-                        if (arg1.getTargets().isEmpty()) {
-                            endPoints.add(arg1);
-                        } else {
-                            arg2.enqueue(arg1.getTargets());
-                        }
-                    }
-                });
-        gv.process();
+        List<Op02WithProcessedDataAndRefs> endPoints = ListFactory.newList();
+        GraphWalkerDFS<Op02WithProcessedDataAndRefs> gv = new GraphWalkerDFS<Op02WithProcessedDataAndRefs>(op2list);
+        gv.start(op2list.get(0));
+        for (Op02WithProcessedDataAndRefs node = gv.next(); node != null; node = gv.next()) {
+            if (node.getTargets().isEmpty()) {
+                endPoints.add(node);
+            } else {
+                gv.enqueue(node.getTargets());
+            }
+        }
         /*
          * If there's an identifier which /hasn't/ been used, remove the back propagation.
          */
@@ -2031,6 +2055,13 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         return cp;
     }
 
+    /*
+     * -1 if populateStackInfo didn't reach this.
+     */
+    public long getStackDepthBeforeExecution() {
+        return stackDepthBeforeExecution;
+    }
+
     public int getOriginalRawOffset() {
         return originalRawOffset;
     }
@@ -2039,6 +2070,190 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         return loc;
     }
 
+    /*
+     * Merging each statement's SSAIdentifiers with those of its sources, until nothing changes, used to be the
+     * bulk of the time (and garbage) for large methods.  This does exactly the same merges, in the same order -
+     * which matters, as merging identifiers of different types isn't commutative - but over arrays indexed by
+     * statement and slot, rather than a map per statement.  (Each slot index is one key, as Slot equality ignores
+     * type.)
+     *
+     * Results are written back to each statement's SSAIdentifiers once finished, in the order the keys would have
+     * arrived, keeping the Slot (and so type) that arrived first.
+     *
+     * If we have dead slots from the verifier frames (see StackMapHints), identifiers for those slots aren't merged
+     * into the statements they're dead at - whatever was there before can't be read again, so there's no reason to
+     * tie it to what's stored later.
+     */
+    private static class SlotIdentMerger {
+        private final List<Op02WithProcessedDataAndRefs> statements;
+        private final int[][] sources;
+        private final int[][] targets;
+        private final int[] slotKeys;
+        private final Slot[] fixedSlot;
+        private final int[] fixedKey;
+        private final Idents[] onEntry;
+        private final Idents[] onExit;
+        private final BitSet[] deadSlots;
+
+        SlotIdentMerger(List<Op02WithProcessedDataAndRefs> statements, Map<Slot, SSAIdent> initialIdents, Map<Integer, BitSet> deadSlotsByOffset) {
+            this.statements = statements;
+            int size = statements.size();
+            Map<Op02WithProcessedDataAndRefs, Integer> indices = MapFactory.newIdentityMap();
+            int maxSlot = -1;
+            for (Slot slot : initialIdents.keySet()) {
+                maxSlot = Math.max(maxSlot, slot.getIdx());
+            }
+            for (int x = 0; x < size; ++x) {
+                Op02WithProcessedDataAndRefs statement = statements.get(x);
+                indices.put(statement, x);
+                for (Slot slot : statement.ssaIdentifiers.getFixedHere()) {
+                    maxSlot = Math.max(maxSlot, slot.getIdx());
+                }
+            }
+            slotKeys = new int[maxSlot + 1];
+            Arrays.fill(slotKeys, -1);
+            int keyCount = 0;
+            for (Slot slot : initialIdents.keySet()) {
+                if (slotKeys[slot.getIdx()] == -1) slotKeys[slot.getIdx()] = keyCount++;
+            }
+            sources = new int[size][];
+            targets = new int[size][];
+            fixedSlot = new Slot[size];
+            fixedKey = new int[size];
+            onEntry = new Idents[size];
+            onExit = new Idents[size];
+            for (int x = 0; x < size; ++x) {
+                Op02WithProcessedDataAndRefs statement = statements.get(x);
+                sources[x] = indicesOf(statement.getSources(), indices);
+                targets[x] = indicesOf(statement.getTargets(), indices);
+                fixedKey[x] = -1;
+                for (Slot slot : statement.ssaIdentifiers.getFixedHere()) {
+                    if (slotKeys[slot.getIdx()] == -1) slotKeys[slot.getIdx()] = keyCount++;
+                    fixedSlot[x] = slot;
+                    fixedKey[x] = slotKeys[slot.getIdx()];
+                }
+            }
+            deadSlots = new BitSet[size];
+            if (!deadSlotsByOffset.isEmpty()) {
+                for (int x = 0; x < size; ++x) {
+                    // Fake instructions (try / catch) are in front of the real one the frame is for.
+                    Op02WithProcessedDataAndRefs statement = statements.get(x);
+                    for (int y = 0; y < size && statement.getOriginalRawOffset() < 0; ++y) {
+                        if (statement.getTargets().isEmpty()) break;
+                        statement = statement.getTargets().get(0);
+                    }
+                    deadSlots[x] = deadSlotsByOffset.get(statement.getOriginalRawOffset());
+                }
+            }
+            for (int x = 0; x < size; ++x) {
+                onEntry[x] = new Idents(keyCount);
+                onExit[x] = new Idents(keyCount);
+                for (Map.Entry<Slot, SSAIdent> entry : statements.get(x).ssaIdentifiers.getKnownIdentifiersOnExit().entrySet()) {
+                    onExit[x].register(slotKeys[entry.getKey().getIdx()], entry.getKey(), entry.getValue());
+                }
+            }
+            // The first statement starts with the parameters on entry, as well as on exit.
+            for (Map.Entry<Slot, SSAIdent> entry : initialIdents.entrySet()) {
+                onEntry[0].register(slotKeys[entry.getKey().getIdx()], entry.getKey(), entry.getValue());
+            }
+        }
+
+        private static int[] indicesOf(List<Op02WithProcessedDataAndRefs> statements, Map<Op02WithProcessedDataAndRefs, Integer> indices) {
+            int[] res = new int[statements.size()];
+            for (int x = 0; x < res.length; ++x) {
+                res[x] = indices.get(statements.get(x));
+            }
+            return res;
+        }
+
+        /*
+         * As SSAIdentifiers.mergeWith(source, test), for each source in turn.
+         */
+        boolean mergeSources(int idx, BinaryPredicate<Slot, Slot> test) {
+            boolean changed = false;
+            Idents entry = onEntry[idx];
+            Idents exit = onExit[idx];
+            int fixed = fixedKey[idx];
+            BitSet dead = deadSlots[idx];
+            for (int source : sources[idx]) {
+                Idents other = onExit[source];
+                for (int x = 0, len = other.count; x < len; ++x) {
+                    int key = other.order[x];
+                    Slot lValue = other.slots[key];
+                    if (dead != null && dead.get(lValue.getIdx())) continue;
+                    SSAIdent otherIdent = other.idents[key];
+                    boolean c1 = entry.register(key, lValue, otherIdent);
+                    boolean skip = false;
+                    if (key == fixed) {
+                        if (!test.test(lValue, fixedSlot[idx]) || otherIdent == SSAIdent.poison) {
+                            skip = true;
+                        }
+                    }
+                    boolean c2 = !skip && exit.register(key, lValue, otherIdent);
+                    if (c1 || c2) changed = true;
+                }
+            }
+            return changed;
+        }
+
+        void writeBack() {
+            for (int x = 0; x < statements.size(); ++x) {
+                SSAIdentifiers<Slot> ssaIdentifiers = statements.get(x).ssaIdentifiers;
+                Idents entry = onEntry[x];
+                for (int y = 0; y < entry.count; ++y) {
+                    int key = entry.order[y];
+                    ssaIdentifiers.setKnownIdentifierOnEntry(entry.slots[key], entry.idents[key]);
+                }
+                Idents exit = onExit[x];
+                for (int y = 0; y < exit.count; ++y) {
+                    int key = exit.order[y];
+                    ssaIdentifiers.setKnownIdentifierOnExit(exit.slots[key], exit.idents[key]);
+                }
+            }
+        }
+
+        /*
+         * One statement's identifiers on entry or exit, by key.
+         */
+        private static class Idents {
+            private final SSAIdent[] idents;
+            private final Slot[] slots;
+            // Keys, in the order they first arrived.
+            private final int[] order;
+            private int count;
+
+            Idents(int keyCount) {
+                idents = new SSAIdent[keyCount];
+                slots = new Slot[keyCount];
+                order = new int[keyCount];
+            }
+
+            /*
+             * As SSAIdentifiers.registerChange.
+             */
+            boolean register(int key, Slot lValue, SSAIdent otherIdent) {
+                SSAIdent oldIdent = idents[key];
+                if (oldIdent == null) {
+                    idents[key] = otherIdent;
+                    slots[key] = lValue;
+                    order[count++] = key;
+                    return true;
+                }
+                SSAIdent newIdent;
+                if (oldIdent.getComparisonType() == otherIdent.getComparisonType()) {
+                    newIdent = oldIdent.mergeWith(otherIdent);
+                } else {
+                    newIdent = SSAIdent.poison;
+                }
+                if (!newIdent.equals(oldIdent)) {
+                    idents[key] = newIdent;
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
     private static class IdentFactory {
         int nextIdx = 0;
 
@@ -2079,20 +2294,14 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         // Nop out unreachable code, so as to not have this ugliness.
         // We start at 0 as that's not controversial ;)
 
-        GraphVisitor<Op02WithProcessedDataAndRefs> o2Converter = new GraphVisitorFIFO<Op02WithProcessedDataAndRefs>(op2list.get(0),
-                new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
-                    @Override
-                    public void call(Op02WithProcessedDataAndRefs arg1, GraphVisitor<Op02WithProcessedDataAndRefs> arg2) {
-                        Op03SimpleStatement res = new Op03SimpleStatement(arg1, arg1.createStatement(method, comments, variableFactory, blockIdentifierFactory, dcCommonState, typeHintRecovery));
-                        conversionHelper.registerOriginalAndNew(arg1, res);
-                        op03SimpleParseNodesTmp.add(res);
-                        for (Op02WithProcessedDataAndRefs target : arg1.getTargets()) {
-                            arg2.enqueue(target);
-                        }
-                    }
-                }
-        );
-        o2Converter.process();
+        GraphWalkerFIFO<Op02WithProcessedDataAndRefs> o2Converter = new GraphWalkerFIFO<Op02WithProcessedDataAndRefs>(op2list);
+        o2Converter.start(op2list.get(0));
+        for (Op02WithProcessedDataAndRefs node = o2Converter.next(); node != null; node = o2Converter.next()) {
+            Op03SimpleStatement res = new Op03SimpleStatement(node, node.createStatement(method, comments, variableFactory, blockIdentifierFactory, dcCommonState, typeHintRecovery));
+            conversionHelper.registerOriginalAndNew(node, res);
+            op03SimpleParseNodesTmp.add(res);
+            o2Converter.enqueue(node.getTargets());
+        }
         conversionHelper.patchUpRelations();
 
         return op03SimpleParseNodesTmp;
@@ -8,6 +8,7 @@ import org.benf.cfr.reader.bytecode.analysis.opgraph.op3rewriters.TypeFilter;
 import org.benf.cfr.reader.bytecode.analysis.parse.Statement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.*;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierFactory;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockType;
 import org.benf.cfr.reader.bytecode.analysis.types.JavaRefTypeInstance;
@@ -161,7 +162,7 @@ public class Op03Blocks {
     }
 
     private static void removeAliases(Set<BlockIdentifier> in, Map<BlockIdentifier, BlockIdentifier> aliases) {
-        Set<BlockIdentifier> toRemove = SetFactory.newSet();
+        Set<BlockIdentifier> toRemove = new BlockIdentifierSet();
         for (BlockIdentifier i : in) {
             BlockIdentifier alias = aliases.get(i);
             if (alias != null) {
@@ -239,7 +240,7 @@ public class Op03Blocks {
                 // If the only difference is case statements, then we allow, unless it's a direct
                 // predecessor
                 if (!endIdents.equals(startIdents)) {
-                    Set<BlockIdentifier> diffs = SetUtil.difference(endIdents, startIdents);
+                    Set<BlockIdentifier> diffs = BlockIdentifierSet.difference(endIdents, startIdents);
                     // Remove aliases from consideration.
 
                     // If we've just jumped INTO a try block, consider us as being in that too.
@@ -586,7 +587,7 @@ public class Op03Blocks {
             Statement stm = from.getEnd().getStatement();
             if (stm instanceof CaseStatement) {
                 BlockIdentifier caseBlock = ((CaseStatement) stm).getCaseBlock();
-                List<BlockIdentifier> diff = SetUtil.differenceAtakeBtoList(toBlocks, fromBlocks);
+                List<BlockIdentifier> diff = BlockIdentifierSet.differenceAtakeBtoList(toBlocks, fromBlocks);
                 if (diff.size() == 1 && diff.get(0) == caseBlock) return true;
             }
         }
@@ -793,7 +794,7 @@ public class Op03Blocks {
                         Set<BlockIdentifier> midBlocks = block.getStart().getBlockIdentifiers();
                         if (srcBlocks.size() != midBlocks.size()+1) continue;
 
-                        List<BlockIdentifier> diff = SetUtil.differenceAtakeBtoList(srcBlocks, midBlocks);
+                        List<BlockIdentifier> diff = BlockIdentifierSet.differenceAtakeBtoList(srcBlocks, midBlocks);
                         if (diff.size() != 1) continue;
                         BlockIdentifier blk = diff.get(0);
                         if (blk.getBlockType() != BlockType.TRYBLOCK) continue;
@@ -1013,7 +1014,7 @@ public class Op03Blocks {
             Op03SimpleStatement ostm = block.getStart();
             Set<BlockIdentifier> idents = ostm.getBlockIdentifiers();
             if (ostm.getStatement() instanceof CatchStatement) {
-                idents = SetFactory.newSet(idents);
+                idents = new BlockIdentifierSet(idents);
                 idents.add(((CatchStatement)ostm.getStatement()).getCatchBlockIdent());
             }
             identifiersByBlock.add(idents);
@@ -1039,13 +1040,13 @@ public class Op03Blocks {
                     if (thisIdx == null) continue outer;
                     idx = Math.max(idx, thisIdx);
                 }
-                Set<BlockIdentifier> allBlockIdents = SetFactory.newSet(catchBlockIdents);
+                Set<BlockIdentifier> allBlockIdents = new BlockIdentifierSet(catchBlockIdents);
                 allBlockIdents.add(tryBlockIdent);
                 Block3 last = blocks.get(idx);
                 // Now walk until we come to last Idx
                 for (int y = x+1; y <= idx; ++y) {
                     Block3 yBlock = blocks.get(y);
-                    if (!SetUtil.hasIntersection(identifiersByBlock.get(y), allBlockIdents)) {
+                    if (!BlockIdentifierSet.hasIntersection(identifiersByBlock.get(y), allBlockIdents)) {
                         yBlock.addSource(last);
                         last.addTarget(yBlock);
                         effect = true;
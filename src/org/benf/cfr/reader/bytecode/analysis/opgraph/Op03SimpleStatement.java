@@ -17,6 +17,7 @@ import org.benf.cfr.reader.bytecode.analysis.parse.statement.Nop;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.SwitchStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.WhileStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.CreationCollector;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.JumpType;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.LValueAssignmentAndAliasCondenser;
@@ -37,6 +38,7 @@ import org.benf.cfr.reader.util.functors.BinaryProcedure;
 import org.benf.cfr.reader.util.functors.Predicate;
 import org.benf.cfr.reader.util.graph.GraphVisitor;
 import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
+import org.benf.cfr.reader.util.graph.IndexedNode;
 import org.benf.cfr.reader.util.output.Dumpable;
 import org.benf.cfr.reader.util.output.Dumper;
 
@@ -48,7 +50,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, Dumpable, StatementContainer<Statement>, IndexedStatement {
+public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, Dumpable, StatementContainer<Statement>, IndexedStatement, IndexedNode {
     private final List<Op03SimpleStatement> sources = ListFactory.newList();
     private final List<Op03SimpleStatement> targets = ListFactory.newList();
 
@@ -57,6 +59,7 @@ public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, D
 
     private boolean isNop;
     private InstrIndex index;
+    private int graphIndex = -1;
     private Statement containedStatement;
     private SSAIdentifiers<LValue> ssaIdentifiers;
     // 
@@ -70,7 +73,7 @@ public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, D
     //
     // This statement is CONTAINED in the following blocks.
     //
-    private final Set<BlockIdentifier> containedInBlocks = SetFactory.newSet();
+    private final Set<BlockIdentifier> containedInBlocks = new BlockIdentifierSet();
 
     public Op03SimpleStatement(Op02WithProcessedDataAndRefs original, Statement statement) {
         this.containedStatement = statement;
@@ -267,7 +270,7 @@ public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, D
     @Override
     public Set<BlockIdentifier> getBlocksEnded() {
         if (linearlyPrevious == null) return SetFactory.newSet();
-        Set<BlockIdentifier> in = SetFactory.newSet(linearlyPrevious.getBlockIdentifiers());
+        Set<BlockIdentifier> in = new BlockIdentifierSet(linearlyPrevious.getBlockIdentifiers());
         in.removeAll(getBlockIdentifiers());
         Iterator<BlockIdentifier> iterator = in.iterator();
         while (iterator.hasNext()) {
@@ -380,6 +383,16 @@ public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, D
         return index;
     }
 
+    @Override
+    public int getGraphIndex() {
+        return graphIndex;
+    }
+
+    @Override
+    public void setGraphIndex(int graphIndex) {
+        this.graphIndex = graphIndex;
+    }
+
     public void setIndex(InstrIndex index) {
         this.index = index;
     }
@@ -419,7 +432,7 @@ public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, D
                     }
                 }
                 if (pullOutJump) {
-                    Set<BlockIdentifier> backJumpContainedIn = SetFactory.newSet(containedInBlocks);
+                    Set<BlockIdentifier> backJumpContainedIn = new BlockIdentifierSet(containedInBlocks);
                     backJumpContainedIn.remove(blockIdentifier);
                     Op03SimpleStatement backJump = new Op03SimpleStatement(backJumpContainedIn, new GotoStatement(BytecodeLoc.NONE), blockEnd.index.justBefore());
                     whileEndTarget.replaceSource(this, backJump);
@@ -702,20 +715,37 @@ public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, D
 
         Op03SimpleStatement entry = statements.get(0);
 
+        /*
+         * Each variable's identifiers flow independently of the others.  So once a statement has merged everything
+         * from its sources, it only needs to revisit the variables which have since changed on exit from one of
+         * them.  (Re-merging every variable whenever anything changed costs a pass over all of them for every
+         * level of loop nesting).
+         */
+        Map<Op03SimpleStatement, Set<LValue>> pending = MapFactory.newIdentityMap();
+        Set<Op03SimpleStatement> mergedAll = SetFactory.newIdentitySet();
         UniqueSeenQueue<Op03SimpleStatement> toProcess = new UniqueSeenQueue<Op03SimpleStatement>(statements);
         while (!toProcess.isEmpty()) {
             Op03SimpleStatement statement = toProcess.removeFirst();
             SSAIdentifiers<LValue> ssaIdentifiers = statement.ssaIdentifiers;
-            boolean changed = false;
+            Set<LValue> keys = pending.remove(statement);
+            if (mergedAll.add(statement)) keys = null;
+            Set<LValue> changed = SetFactory.newSet();
             if (statement == entry) {
-                if (ssaIdentifiers.mergeWith(initialIdents)) changed = true;
+                ssaIdentifiers.mergeWith(initialIdents, keys, changed);
             }
             for (Op03SimpleStatement source : statement.getSources()) {
-                if (ssaIdentifiers.mergeWith(source.ssaIdentifiers)) changed = true;
+                ssaIdentifiers.mergeWith(source.ssaIdentifiers, keys, changed);
             }
             // If anything's changed, we need to check this statements children.
-            if (changed) {
-                toProcess.addAll(statement.getTargets());
+            if (changed.isEmpty()) continue;
+            for (Op03SimpleStatement target : statement.getTargets()) {
+                Set<LValue> targetKeys = pending.get(target);
+                if (targetKeys == null) {
+                    targetKeys = SetFactory.newSet();
+                    pending.put(target, targetKeys);
+                }
+                targetKeys.addAll(changed);
+                toProcess.add(target);
             }
         }
     }
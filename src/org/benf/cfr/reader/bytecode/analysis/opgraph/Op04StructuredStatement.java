@@ -198,8 +198,9 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
     }
 
     private boolean hasUnstructuredSource() {
-        for (Op04StructuredStatement source : sources) {
-            if (!source.structuredStatement.isProperlyStructured()) {
+        // Called for every statement we dump - avoid the iterator.
+        for (int x = 0, len = sources.size(); x < len; ++x) {
+            if (!sources.get(x).structuredStatement.isProperlyStructured()) {
                 return true;
             }
         }
@@ -0,0 +1,72 @@
+package org.benf.cfr.reader.bytecode.analysis.opgraph.op2rewriters;
+
+import org.benf.cfr.reader.bytecode.BytecodeMeta;
+import org.benf.cfr.reader.bytecode.analysis.opgraph.Op02WithProcessedDataAndRefs;
+import org.benf.cfr.reader.entities.Method;
+import org.benf.cfr.reader.entities.attributes.AttributeCode;
+import org.benf.cfr.reader.entities.attributes.AttributeStackMapTable;
+import org.benf.cfr.reader.util.collections.ListFactory;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * A class file from Java 7 on has to carry verifier frames at each branch target, which tell us some of what we'd
+ * otherwise only find out by failing a pass.
+ *
+ * A local slot which a frame has as top (or doesn't have at all) can't be read from there on until it's stored
+ * to again - so whatever was in it before isn't the same variable as whatever's stored later, even if we'd
+ * otherwise merge them at the join.  Slots reused for unrelated variables then don't have to wait for a type clash
+ * to be split.
+ *
+ * We don't blindly trust the frames though - unless the stack depths they give agree with our own simulation,
+ * they're ignored.
+ */
+public class StackMapHints {
+    public static void apply(Method method, AttributeCode codeAttribute, List<Op02WithProcessedDataAndRefs> op2list, BytecodeMeta bytecodeMeta) {
+        AttributeStackMapTable stackMapTable = codeAttribute.getStackMapTable();
+        if (stackMapTable == null || !stackMapTable.isValid()) return;
+        Map<Integer, BitSet> deadSlots;
+        try {
+            if (!stackDepthsAgree(stackMapTable.getStackDepths(), op2list)) return;
+            deadSlots = stackMapTable.getDeadSlots(getInitialCategories(method), codeAttribute.getMaxLocals());
+        } catch (RuntimeException e) {
+            // Nonsense frames - they're only hints, so we just do without.
+            return;
+        }
+        bytecodeMeta.informDeadSlots(deadSlots);
+    }
+
+    private static boolean stackDepthsAgree(Map<Integer, Integer> stackDepths, List<Op02WithProcessedDataAndRefs> op2list) {
+        for (Op02WithProcessedDataAndRefs op : op2list) {
+            // Fake instructions have no offset, and unreachable ones no depth.
+            int offset = op.getOriginalRawOffset();
+            if (offset < 0) continue;
+            long depth = op.getStackDepthBeforeExecution();
+            if (depth == -1) continue;
+            Integer expected = stackDepths.get(offset);
+            if (expected != null && expected != depth) return false;
+        }
+        return true;
+    }
+
+    /*
+     * From the descriptor, as that's what the verifier sees - the signature may leave out synthetic arguments.
+     */
+    private static List<Integer> getInitialCategories(Method method) {
+        List<Integer> res = ListFactory.newList();
+        if (method.getMethodPrototype().isInstanceMethod()) res.add(1);
+        String descriptor = method.getMethodPrototype().getOriginalDescriptor();
+        int idx = descriptor.indexOf('(') + 1;
+        while (descriptor.charAt(idx) != ')') {
+            char c = descriptor.charAt(idx);
+            boolean array = c == '[';
+            while (c == '[') c = descriptor.charAt(++idx);
+            if (c == 'L') idx = descriptor.indexOf(';', idx);
+            res.add(!array && (c == 'J' || c == 'D') ? 2 : 1);
+            idx++;
+        }
+        return res;
+    }
+}
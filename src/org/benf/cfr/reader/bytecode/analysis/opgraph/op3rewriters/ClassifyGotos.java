@@ -7,6 +7,7 @@ import org.benf.cfr.reader.bytecode.analysis.parse.statement.GotoStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.JumpingStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.TryStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockType;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.JumpType;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.Pair;
@@ -104,12 +105,12 @@ class ClassifyGotos {
 
         GotoStatement gotoStatement = (GotoStatement) gotoStm.getStatement();
 
-        Set<BlockIdentifier> tryBlocks = SetUtil.intersectionOrNull(blocks, tryBlockIdents);
+        Set<BlockIdentifier> tryBlocks = BlockIdentifierSet.intersectionOrNull(blocks, tryBlockIdents);
         if (tryBlocks == null) return false;
 
 
         Op03SimpleStatement after = in.get(idx + 1);
-        Set<BlockIdentifier> afterBlocks = SetUtil.intersectionOrNull(after.getBlockIdentifiers(), tryBlockIdents);
+        Set<BlockIdentifier> afterBlocks = BlockIdentifierSet.intersectionOrNull(after.getBlockIdentifiers(), tryBlockIdents);
 
         if (afterBlocks != null) tryBlocks.removeAll(afterBlocks);
         if (tryBlocks.size() != 1) return false;
@@ -131,11 +132,11 @@ class ClassifyGotos {
          */
         Op03SimpleStatement gotoTgt = gotoStm.getTargets().get(0);
         Set<BlockIdentifier> gotoTgtIdents = gotoTgt.getBlockIdentifiers();
-        if (SetUtil.hasIntersection(gotoTgtIdents, catchForThis)) return false;
+        if (BlockIdentifierSet.hasIntersection(gotoTgtIdents, catchForThis)) return false;
         int idxtgt = in.indexOf(gotoTgt);
         if (idxtgt == 0) return false;
         Op03SimpleStatement prev = in.get(idxtgt - 1);
-        if (!SetUtil.hasIntersection(prev.getBlockIdentifiers(), catchForThis)) return false;
+        if (!BlockIdentifierSet.hasIntersection(prev.getBlockIdentifiers(), catchForThis)) return false;
         // YAY!
         gotoStatement.setJumpType(JumpType.GOTO_OUT_OF_TRY);
         return true;
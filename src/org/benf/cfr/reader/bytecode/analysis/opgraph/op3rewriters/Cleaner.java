@@ -6,71 +6,78 @@ import org.benf.cfr.reader.bytecode.analysis.parse.Statement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.JumpingStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.WhileStatement;
 import org.benf.cfr.reader.util.collections.ListFactory;
-import org.benf.cfr.reader.util.collections.SetFactory;
-import org.benf.cfr.reader.util.functors.BinaryProcedure;
-import org.benf.cfr.reader.util.graph.GraphVisitor;
-import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
+import org.benf.cfr.reader.util.graph.GraphWalkerDFS;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 public class Cleaner {
     public static List<Op03SimpleStatement> removeUnreachableCode(final List<Op03SimpleStatement> statements, final boolean checkBackJumps) {
-        final Set<Op03SimpleStatement> reachable = SetFactory.newSet();
-        reachable.add(statements.get(0));
-        GraphVisitor<Op03SimpleStatement> gv = new GraphVisitorDFS<Op03SimpleStatement>(statements.get(0), new BinaryProcedure<Op03SimpleStatement, GraphVisitor<Op03SimpleStatement>>() {
-            @Override
-            public void call(Op03SimpleStatement arg1, GraphVisitor<Op03SimpleStatement> arg2) {
-                reachable.add(arg1);
-//                if (!statements.contains(arg1)) {
-//                    throw new IllegalStateException("Statement missing");
-//                }
-                arg2.enqueue(arg1.getTargets());
-                for (Op03SimpleStatement source : arg1.getSources()) {
-//                    if (!statements.contains(source)) {
-//                        throw new IllegalStateException("Source not in graph!");
-//                    }
-                    if (!source.getTargets().contains(arg1)) {
-                        throw new IllegalStateException("Inconsistent graph " + source + " does not have a target of " + arg1);
-                    }
-                }
-                for (Op03SimpleStatement test : arg1.getTargets()) {
-                    // Also, check for backjump targets on non jumps.
-                    Statement argContained = arg1.getStatement();
-                    if (checkBackJumps) {
-                        if (!(argContained instanceof JumpingStatement || argContained instanceof WhileStatement)) {
-                            if (test.getIndex().isBackJumpFrom(arg1)) {
-                                throw new IllegalStateException("Backjump on non jumping statement " + arg1);
-                            }
-                        }
-                    }
-                    if (!test.getSources().contains(arg1)) {
-                        throw new IllegalStateException("Inconsistent graph " + test + " does not have a source " + arg1);
-                    }
-                }
-            }
-        });
-        gv.process();
+        return removeUnreachableCode(statements, checkBackJumps, false);
+    }
+
+    /*
+     * checkGraph (ie the checkgraph option) verifies every edge we walk is present at both ends.  That used to be
+     * done on every call, but it's never been known to fail outside of bugs in CFR itself, so isn't worth the time
+     * otherwise.  (If checkBackJumps, we always check that only jumps jump backwards - that's cheap.)
+     */
+    public static List<Op03SimpleStatement> removeUnreachableCode(final List<Op03SimpleStatement> statements, final boolean checkBackJumps, final boolean checkGraph) {
+        GraphWalkerDFS<Op03SimpleStatement> reachable = new GraphWalkerDFS<Op03SimpleStatement>(statements);
+        reachable.start(statements.get(0));
+        for (Op03SimpleStatement node = reachable.next(); node != null; node = reachable.next()) {
+            List<Op03SimpleStatement> targets = node.getTargets();
+            reachable.enqueue(targets);
+            if (checkBackJumps) checkBackJumps(node, targets);
+            if (checkGraph) checkEdges(node);
+        }
 
         List<Op03SimpleStatement> result = ListFactory.newList();
         for (Op03SimpleStatement statement : statements) {
-            if (reachable.contains(statement)) {
+            if (reachable.isVisited(statement)) {
                 result.add(statement);
             }
         }
-        // Too expensive....
+        // Only copy sources where there's something to remove - usually there isn't.
         for (Op03SimpleStatement res1 : result) {
-            List<Op03SimpleStatement> sources = ListFactory.newList(res1.getSources());
-            for (Op03SimpleStatement source : sources) {
-                if (!reachable.contains(source)) {
-                    res1.removeSource(source);
+            List<Op03SimpleStatement> sources = res1.getSources();
+            for (int x = 0, len = sources.size(); x < len; ++x) {
+                if (!reachable.isVisited(sources.get(x))) {
+                    for (Op03SimpleStatement source : ListFactory.newList(sources)) {
+                        if (!reachable.isVisited(source)) {
+                            res1.removeSource(source);
+                        }
+                    }
+                    break;
                 }
             }
         }
         return result;
     }
 
+    // Check for backjump targets on non jumps.
+    private static void checkBackJumps(Op03SimpleStatement node, List<Op03SimpleStatement> targets) {
+        Statement argContained = node.getStatement();
+        if (argContained instanceof JumpingStatement || argContained instanceof WhileStatement) return;
+        for (Op03SimpleStatement test : targets) {
+            if (test.getIndex().isBackJumpFrom(node)) {
+                throw new IllegalStateException("Backjump on non jumping statement " + node);
+            }
+        }
+    }
+
+    private static void checkEdges(Op03SimpleStatement node) {
+        for (Op03SimpleStatement source : node.getSources()) {
+            if (!source.getTargets().contains(node)) {
+                throw new IllegalStateException("Inconsistent graph " + source + " does not have a target of " + node);
+            }
+        }
+        for (Op03SimpleStatement test : node.getTargets()) {
+            if (!test.getSources().contains(node)) {
+                throw new IllegalStateException("Inconsistent graph " + test + " does not have a source " + node);
+            }
+        }
+    }
+
     /*
 * Filter out nops (where appropriate) and renumber.  For display purposes.
 */
@@ -107,6 +114,10 @@ public class Cleaner {
         reindexInPlace(statements);
     }
 
+    /*
+     * Statements which already have the right (plain) index keep it - so after the first renumber, only those
+     * which have been added or moved since get a new one.
+     */
     public static void reindexInPlace(List<Op03SimpleStatement> statements) {
         int newIndex = 0;
         Op03SimpleStatement prev = null;
@@ -114,7 +125,10 @@ public class Cleaner {
             statement.setLinearlyPrevious(prev);
             statement.setLinearlyNext(null);
             if (prev != null) prev.setLinearlyNext(statement);
-            statement.setIndex(new InstrIndex(newIndex++));
+            if (!statement.getIndex().isPlain(newIndex)) {
+                statement.setIndex(new InstrIndex(newIndex));
+            }
+            newIndex++;
             prev = statement;
         }
     }
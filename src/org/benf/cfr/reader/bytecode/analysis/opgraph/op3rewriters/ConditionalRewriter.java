@@ -264,7 +264,7 @@ lbl10: // 1 sources:
     private static boolean detectAndRemarkJumpIntoOther(Set<BlockIdentifier> blocksAtStart, Set<BlockIdentifier> blocksAtEnd, Op03SimpleStatement realEnd, Op03SimpleStatement ifStatement) {
         if (blocksAtEnd.size() != blocksAtStart.size() + 1) return false;
 
-        List<BlockIdentifier> diff =  SetUtil.differenceAtakeBtoList(blocksAtEnd, blocksAtStart);
+        List<BlockIdentifier> diff =  BlockIdentifierSet.differenceAtakeBtoList(blocksAtEnd, blocksAtStart);
         BlockIdentifier testBlock = diff.get(0);
         if (testBlock.getBlockType() != BlockType.SIMPLE_IF_TAKEN) return false;
 
@@ -559,7 +559,7 @@ lbl10: // 1 sources:
              * and we'll jump into a case statement - the statement LINEARLY BEFORE that will be in the missing block.
              */
             if (blocksAtStart.size() == blocksAtEnd.size()+1) {
-                List<BlockIdentifier> change = SetUtil.differenceAtakeBtoList(blocksAtStart, blocksAtEnd);
+                List<BlockIdentifier> change = BlockIdentifierSet.differenceAtakeBtoList(blocksAtStart, blocksAtEnd);
                 // size == 1 already verified, but...
                 if (change.size() == 1 && change.get(0).getBlockType() == BlockType.CASE) {
                     if (takenTarget.getStatement() instanceof CaseStatement) {
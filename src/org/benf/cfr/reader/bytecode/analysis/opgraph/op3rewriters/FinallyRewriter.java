@@ -6,6 +6,7 @@ import org.benf.cfr.reader.bytecode.analysis.parse.statement.CatchStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.FinallyStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.TryStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierFactory;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.finalhelp.FinalAnalyzer;
 import org.benf.cfr.reader.entities.Method;
@@ -47,11 +48,11 @@ public class FinallyRewriter {
     }
 
     static Set<BlockIdentifier> getBlocksAffectedByFinally(List<Op03SimpleStatement> statements) {
-        Set<BlockIdentifier> res = SetFactory.newSet();
+        Set<BlockIdentifier> res = new BlockIdentifierSet();
         for (Op03SimpleStatement stm : statements) {
             if (stm.getStatement() instanceof TryStatement) {
                 TryStatement tryStatement = (TryStatement)stm.getStatement();
-                Set<BlockIdentifier> newBlocks = SetFactory.newSet();
+                Set<BlockIdentifier> newBlocks = new BlockIdentifierSet();
                 boolean found = false;
                 newBlocks.add(tryStatement.getBlockIdentifier());
                 for (Op03SimpleStatement tgt : stm.getTargets()) {
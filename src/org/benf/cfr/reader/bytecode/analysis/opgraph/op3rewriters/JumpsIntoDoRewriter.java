@@ -18,6 +18,7 @@ import org.benf.cfr.reader.bytecode.analysis.parse.statement.DoStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.IfStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.Nop;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.SSAIdentifiers;
 import org.benf.cfr.reader.bytecode.analysis.types.RawJavaType;
 import org.benf.cfr.reader.bytecode.analysis.types.discovery.InferredJavaType;
@@ -121,7 +122,7 @@ public class JumpsIntoDoRewriter {
                     BoolOp.AND));
                 prevTgt.removeSource(prev);
                 prev.removeTarget(prevTgt);
-                Set<BlockIdentifier> newBlocks = SetFactory.newSet(doS.getBlockIdentifiers());
+                Set<BlockIdentifier> newBlocks = new BlockIdentifierSet(doS.getBlockIdentifiers());
                 newBlocks.add(doBlockIdentifier);
                 Op03SimpleStatement newStm = new Op03SimpleStatement(newBlocks, newIf, doId, doS.getIndex().justAfter());
                 for (Op03SimpleStatement prevSource : ListFactory.newList(afterDo.getSources())) {
@@ -150,7 +151,7 @@ public class JumpsIntoDoRewriter {
             if (stm.getStatement() instanceof DoStatement) {
                 Set<Op03SimpleStatement> externals = SetFactory.newIdentitySet();
                 BlockIdentifier doBlock = ((DoStatement) stm.getStatement()).getBlockIdentifier();
-                Set<BlockIdentifier> originalDoIdentifiers = SetFactory.newSet(stm.getBlockIdentifiers());
+                Set<BlockIdentifier> originalDoIdentifiers = new BlockIdentifierSet(stm.getBlockIdentifiers());
                 for (int z = idx+1; z<op03SimpleParseNodes.size(); ++z) {
                     Op03SimpleStatement s2 = op03SimpleParseNodes.get(z);
                     if (!s2.getBlockIdentifiers().contains(doBlock)) break;
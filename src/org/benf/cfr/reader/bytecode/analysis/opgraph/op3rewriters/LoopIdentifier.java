@@ -8,6 +8,7 @@ import org.benf.cfr.reader.bytecode.analysis.parse.expression.BooleanExpression;
 import org.benf.cfr.reader.bytecode.analysis.parse.expression.ConditionalExpression;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.*;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierFactory;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockType;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.JumpType;
@@ -57,7 +58,7 @@ public class LoopIdentifier {
         Collections.sort(starts, new CompareByIndex());
 
         List<LoopResult> loopResults = ListFactory.newList();
-        Set<BlockIdentifier> relevantBlocks = SetFactory.newSet();
+        Set<BlockIdentifier> relevantBlocks = new BlockIdentifierSet();
         for (Op03SimpleStatement start : starts) {
             BlockIdentifier blockIdentifier = considerAsWhileLoopStart(method, start, statements, blockIdentifierFactory, blockEndsCache);
             if (blockIdentifier == null) {
@@ -100,7 +101,7 @@ public class LoopIdentifier {
             final Op03SimpleStatement start = loopResult.blockStart;
             final BlockIdentifier testBlockIdentifier = loopResult.blockIdentifier;
 
-            Set<BlockIdentifier> startIn = SetUtil.intersectionOrNull(start.getBlockIdentifiers(), relevantBlocks);
+            Set<BlockIdentifier> startIn = BlockIdentifierSet.intersectionOrNull(start.getBlockIdentifiers(), relevantBlocks);
             List<Op03SimpleStatement> backSources = Functional.filter(start.getSources(), new Predicate<Op03SimpleStatement>() {
                 @Override
                 public boolean test(Op03SimpleStatement in) {
@@ -119,7 +120,7 @@ public class LoopIdentifier {
             lastForBlock.put(testBlockIdentifier, lastBackSource);
             if (startIn == null) continue;
 
-            Set<BlockIdentifier> backIn = SetUtil.intersectionOrNull(lastBackSource.getBlockIdentifiers(), relevantBlocks);
+            Set<BlockIdentifier> backIn = BlockIdentifierSet.intersectionOrNull(lastBackSource.getBlockIdentifiers(), relevantBlocks);
             if (backIn == null) continue;
             if (!backIn.containsAll(startIn)) {
                 // NB Not ordered - will this bite me?  Shouldn't.
@@ -387,7 +388,7 @@ public class LoopIdentifier {
          */
         shuntLoop:
         if (!conditional) {
-            Set<BlockIdentifier> lastContent = SetFactory.newSet(lastJump.getBlockIdentifiers());
+            Set<BlockIdentifier> lastContent = new BlockIdentifierSet(lastJump.getBlockIdentifiers());
             lastContent.removeAll(start.getBlockIdentifiers());
             Set<BlockIdentifier> internalTryBlocks = SetFactory.newOrderedSet(Functional.filterSet(lastContent, new Predicate<BlockIdentifier>() {
                 @Override
@@ -723,7 +724,7 @@ public class LoopIdentifier {
          * and change it to a while (false).
          */
         Op03SimpleStatement discoveredLast = statements.get(last);
-        Set<BlockIdentifier> lastBlocks = SetFactory.newSet(discoveredLast.getBlockIdentifiers());
+        Set<BlockIdentifier> lastBlocks = new BlockIdentifierSet(discoveredLast.getBlockIdentifiers());
         lastBlocks.removeAll(start.getBlockIdentifiers());
         Set<BlockIdentifier> catches = SetFactory.newSet(Functional.filterSet(lastBlocks, new Predicate<BlockIdentifier>() {
             @Override
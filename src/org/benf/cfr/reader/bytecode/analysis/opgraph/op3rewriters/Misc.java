@@ -14,18 +14,17 @@ import org.benf.cfr.reader.bytecode.analysis.parse.utils.Pair;
 import org.benf.cfr.reader.util.*;
 import org.benf.cfr.reader.util.collections.Functional;
 import org.benf.cfr.reader.util.collections.ListFactory;
-import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.functors.BinaryProcedure;
 import org.benf.cfr.reader.util.functors.Predicate;
 import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.graph.GraphVisitor;
 import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
+import org.benf.cfr.reader.util.graph.GraphWalkerDFS;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 public class Misc {
@@ -121,45 +120,25 @@ public class Misc {
     }
 
 
-    private static class GraphVisitorReachableInThese implements BinaryProcedure<Op03SimpleStatement, GraphVisitor<Op03SimpleStatement>> {
-        private final Set<Integer> reachable;
-        private final Map<Op03SimpleStatement, Integer> instrToIdx;
-
-        GraphVisitorReachableInThese(Set<Integer> reachable, Map<Op03SimpleStatement, Integer> instrToIdx) {
-            this.reachable = reachable;
-            this.instrToIdx = instrToIdx;
-        }
-
-        @Override
-        public void call(Op03SimpleStatement node, GraphVisitor<Op03SimpleStatement> graphVisitor) {
-            Integer idx = instrToIdx.get(node);
-            if (idx == null) return;
-            reachable.add(idx);
+    static int getFarthestReachableInRange(List<Op03SimpleStatement> statements, int start, int afterEnd) {
+        // Only follow targets within the range - so the walker needn't know about anything else.
+        List<Op03SimpleStatement> range = statements.subList(start, afterEnd);
+        int rangeSize = range.size();
+        GraphWalkerDFS<Op03SimpleStatement> reachable = new GraphWalkerDFS<Op03SimpleStatement>(range);
+        reachable.start(statements.get(start));
+        for (Op03SimpleStatement node = reachable.next(); node != null; node = reachable.next()) {
             for (Op03SimpleStatement target : node.getTargets()) {
-                graphVisitor.enqueue(target);
+                int idx = target.getGraphIndex();
+                if (idx >= 0 && idx < rangeSize && range.get(idx) == target) reachable.enqueue(target);
             }
         }
-    }
-
-
-    static int getFarthestReachableInRange(List<Op03SimpleStatement> statements, int start, int afterEnd) {
-        Map<Op03SimpleStatement, Integer> instrToIdx = MapFactory.newMap();
-        for (int x = start; x < afterEnd; ++x) {
-            Op03SimpleStatement statement = statements.get(x);
-            instrToIdx.put(statement, x);
-        }
-
-        Set<Integer> reachableNodes = SetFactory.newSortedSet();
-        GraphVisitorReachableInThese graphVisitorCallee = new GraphVisitorReachableInThese(reachableNodes, instrToIdx);
-        GraphVisitor<Op03SimpleStatement> visitor = new GraphVisitorDFS<Op03SimpleStatement>(statements.get(start), graphVisitorCallee);
-        visitor.process();
 
         final int first = start;
         int last = -1;
         boolean foundLast = false;
 
         for (int x = first; x < afterEnd; ++x) {
-            if (reachableNodes.contains(x) || statements.get(x).isAgreedNop()) {
+            if (reachable.isVisited(statements.get(x)) || statements.get(x).isAgreedNop()) {
                 if (foundLast) {
                     // This is 'failure' behaviour.  It will probably trigger a re-sort.
                     // TODO : Handle better.
@@ -4,9 +4,9 @@ import org.benf.cfr.reader.bytecode.analysis.opgraph.Op03SimpleStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.CommentStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.MonitorStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.util.collections.Functional;
 import org.benf.cfr.reader.util.collections.ListFactory;
-import org.benf.cfr.reader.util.collections.SetFactory;
 
 import java.util.List;
 import java.util.Set;
@@ -28,7 +28,7 @@ public class MonitorRewriter {
              * Is monitor (as was) the last statement in a block.
              */
             Op03SimpleStatement target = monitor.getTargets().get(0);
-            Set<BlockIdentifier> monitorLast = SetFactory.newSet(monitor.getBlockIdentifiers());
+            Set<BlockIdentifier> monitorLast = new BlockIdentifierSet(monitor.getBlockIdentifiers());
             monitorLast.removeAll(target.getBlockIdentifiers());
             if (monitorLast.isEmpty()) continue;
             for (Op03SimpleStatement source : ListFactory.newList(monitor.getSources())) {
@@ -7,8 +7,8 @@ import org.benf.cfr.reader.bytecode.analysis.parse.statement.IfStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.JumpingStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.TryStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.JumpType;
-import org.benf.cfr.reader.util.collections.SetUtil;
 
 import java.util.List;
 import java.util.Set;
@@ -62,7 +62,7 @@ public class PointlessJumps {
                     maybeJump.nopOut();
                 } else {
                     // It might still be legit - if we've ended a loop, it's not.
-                    Set<BlockIdentifier> changes = SetUtil.difference(maybeJump.getBlockIdentifiers(),statements.get(x+1).getBlockIdentifiers());
+                    Set<BlockIdentifier> changes = BlockIdentifierSet.difference(maybeJump.getBlockIdentifiers(),statements.get(x+1).getBlockIdentifiers());
                     boolean ok = true;
                     for (BlockIdentifier change : changes) {
                         if (change.getBlockType().isLoop()) {
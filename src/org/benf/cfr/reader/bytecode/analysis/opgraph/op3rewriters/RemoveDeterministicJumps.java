@@ -11,6 +11,7 @@ import org.benf.cfr.reader.bytecode.analysis.parse.lvalue.LocalVariable;
 import org.benf.cfr.reader.bytecode.analysis.parse.lvalue.StackSSALabel;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.*;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.LValueUsageCollectorSimple;
 import org.benf.cfr.reader.entities.Method;
 import org.benf.cfr.reader.util.collections.Functional;
@@ -30,7 +31,7 @@ public class RemoveDeterministicJumps {
 
         for (Op03SimpleStatement stm : statements) {
             if (!(stm.getStatement() instanceof AssignmentSimple)) continue;
-            if (SetUtil.hasIntersection(ignoreInThese, stm.getBlockIdentifiers())) continue;
+            if (BlockIdentifierSet.hasIntersection(ignoreInThese, stm.getBlockIdentifiers())) continue;
             Map<LValue, Literal> display = MapFactory.newMap();
             success |= propagateLiteralReturn(method, stm, display);
         }
@@ -303,7 +304,7 @@ public class RemoveDeterministicJumps {
         Set<BlockIdentifier> affectedByFinally = FinallyRewriter.getBlocksAffectedByFinally(statements);
 
         for (Op03SimpleStatement stm : assignmentSimples) {
-            if (SetUtil.hasIntersection(affectedByFinally, stm.getBlockIdentifiers())) continue;
+            if (BlockIdentifierSet.hasIntersection(affectedByFinally, stm.getBlockIdentifiers())) continue;
             Statement inner = stm.getStatement();
             /*
              * This pass helps with scala and dex2jar style output - find a remaining assignment to a stack
@@ -24,6 +24,7 @@ import org.benf.cfr.reader.bytecode.analysis.parse.statement.RawSwitchStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.ReturnStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.SwitchStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierFactory;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockType;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.JumpType;
@@ -42,7 +43,6 @@ import org.benf.cfr.reader.util.collections.Functional;
 import org.benf.cfr.reader.util.collections.ListFactory;
 import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
-import org.benf.cfr.reader.util.collections.SetUtil;
 import org.benf.cfr.reader.util.functors.BinaryProcedure;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
@@ -192,7 +192,7 @@ public class SwitchReplacer {
                     expression.add(new Literal(TypedLiteral.getInt(val)));
                 }
             }
-            Set<BlockIdentifier> blocks = SetFactory.newSet(target.getBlockIdentifiers());
+            Set<BlockIdentifier> blocks = new BlockIdentifierSet(target.getBlockIdentifiers());
             blocks.add(switchBlockIdentifier);
             BlockIdentifier caseIdentifier = blockIdentifierFactory.getNextBlockIdentifier(BlockType.CASE);
             Op03SimpleStatement caseStatement = new Op03SimpleStatement(blocks, new CaseStatement(BytecodeLoc.TODO, expression, caseType, switchBlockIdentifier, caseIdentifier), target.getIndex().justBefore());
@@ -267,7 +267,7 @@ public class SwitchReplacer {
     private static void buildSwitchCases(final Op03SimpleStatement swatch, List<Op03SimpleStatement> targets, BlockIdentifier switchBlockIdentifier, List<Op03SimpleStatement> in, boolean forcedOrder) {
         targets = ListFactory.newList(targets);
         Collections.sort(targets, new CompareByIndex());
-        Set<BlockIdentifier> caseIdentifiers = SetFactory.newSet();
+        Set<BlockIdentifier> caseIdentifiers = new BlockIdentifierSet();
         /*
          * For each of the case statements - find which is reachable from the others WITHOUT going through
          * the switch again.  Then we might have to move a whole block... (!).
@@ -322,7 +322,7 @@ public class SwitchReplacer {
                         // TODO : FIXME : Expensive - can we assume we won't get asked to mark
                         // members of other cases?
                         if (!caseTargets.contains(reachable)) {
-                            if (!SetUtil.hasIntersection(reachable.getBlockIdentifiers(), caseIdentifiers)) {
+                            if (!BlockIdentifierSet.hasIntersection(reachable.getBlockIdentifiers(), caseIdentifiers)) {
                                 reachable.markBlock(caseBlock);
                             }
                         }
@@ -498,7 +498,7 @@ public class SwitchReplacer {
                     Op03SimpleStatement last = lastStatement;
                     Op03SimpleStatement tgt = last.getTargets().get(0);
                     InstrIndex moveTo = last.getIndex().justAfter();
-                    while (tgt.getSources().size() == 1 && tgt.getTargets().size() == 1 && SetUtil.difference(lastStatement.getBlockIdentifiers(), tgt.getBlockIdentifiers()).equals(others)) {
+                    while (tgt.getSources().size() == 1 && tgt.getTargets().size() == 1 && BlockIdentifierSet.difference(lastStatement.getBlockIdentifiers(), tgt.getBlockIdentifiers()).equals(others)) {
                         tgt.setIndex(moveTo);
                         moveTo = moveTo.justAfter();
                         tgt.getBlockIdentifiers().addAll(others);
@@ -619,7 +619,7 @@ public class SwitchReplacer {
             Op03SimpleStatement lastInThis = statements.get(indexLastInThis);
             if (lastInThis.getStatement().getClass() == GotoStatement.class) {
                 // Add another goto, after lastIn this.  Last in this becomes a break to that.
-                Set<BlockIdentifier> blockIdentifiers = SetFactory.newSet(lastInThis.getBlockIdentifiers());
+                Set<BlockIdentifier> blockIdentifiers = new BlockIdentifierSet(lastInThis.getBlockIdentifiers());
                 blockIdentifiers.remove(caseBlock);
                 blockIdentifiers.remove(switchBlock);
                 Op03SimpleStatement retie = new Op03SimpleStatement(blockIdentifiers, new GotoStatement(BytecodeLoc.TODO), lastInThis.getIndex().justAfter());
@@ -1050,7 +1050,7 @@ public class SwitchReplacer {
             }
         }
         Set<BlockIdentifier> firstBlocks = firstStatement.getBlockIdentifiers();
-        List<BlockIdentifier> newInFirst = SetUtil.differenceAtakeBtoList(firstBlocks, switchStatement.getBlockIdentifiers());
+        List<BlockIdentifier> newInFirst = BlockIdentifierSet.differenceAtakeBtoList(firstBlocks, switchStatement.getBlockIdentifiers());
         Cleaner.sortAndRenumberInPlace(statements);
         switchStatement.getBlockIdentifiers().addAll(newInFirst);
     }
@@ -6,11 +6,11 @@ import org.benf.cfr.reader.bytecode.analysis.parse.Statement;
 import org.benf.cfr.reader.bytecode.analysis.parse.expression.CastExpression;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.*;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.util.collections.Functional;
 import org.benf.cfr.reader.util.collections.ListFactory;
 import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
-import org.benf.cfr.reader.util.collections.SetUtil;
 import org.benf.cfr.reader.util.functors.BinaryProcedure;
 import org.benf.cfr.reader.util.graph.GraphVisitor;
 import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
@@ -71,7 +71,7 @@ public class SynchronizedBlocks {
          * }
          */
 
-        final Set<BlockIdentifier> leaveExitsMutex = SetFactory.newSet();
+        final Set<BlockIdentifier> leaveExitsMutex = new BlockIdentifierSet();
 
         GraphVisitor<Op03SimpleStatement> marker = new GraphVisitorDFS<Op03SimpleStatement>(start.getTargets(),
                 new BinaryProcedure<Op03SimpleStatement, GraphVisitor<Op03SimpleStatement>>() {
@@ -125,9 +125,9 @@ public class SynchronizedBlocks {
                             }
                         }
                         addToBlock.add(arg1);
-                        if (SetUtil.hasIntersection(arg1.getBlockIdentifiers(), leaveExitsMutex)) {
+                        if (BlockIdentifierSet.hasIntersection(arg1.getBlockIdentifiers(), leaveExitsMutex)) {
                             for (Op03SimpleStatement tgt : arg1.getTargets()) {
-                                if (SetUtil.hasIntersection(tgt.getBlockIdentifiers(), leaveExitsMutex)) {
+                                if (BlockIdentifierSet.hasIntersection(tgt.getBlockIdentifiers(), leaveExitsMutex)) {
                                     arg2.enqueue(tgt);
                                 }
                             }
@@ -164,13 +164,13 @@ public class SynchronizedBlocks {
         Iterator<Op03SimpleStatement> foundExitIter = foundExits.keySet().iterator();
         while (foundExitIter.hasNext()) {
             final Op03SimpleStatement foundExit = foundExitIter.next();
-            final Set<BlockIdentifier> exitBlocks = SetFactory.newSet(foundExit.getBlockIdentifiers());
+            final Set<BlockIdentifier> exitBlocks = new BlockIdentifierSet(foundExit.getBlockIdentifiers());
             exitBlocks.removeAll(start.getBlockIdentifiers());
             final List<Op03SimpleStatement> added = ListFactory.newList();
             GraphVisitor<Op03SimpleStatement> additional = new GraphVisitorDFS<Op03SimpleStatement>(foundExit, new BinaryProcedure<Op03SimpleStatement, GraphVisitor<Op03SimpleStatement>>() {
                 @Override
                 public void call(Op03SimpleStatement arg1, GraphVisitor<Op03SimpleStatement> arg2) {
-                    if (SetUtil.hasIntersection(exitBlocks, arg1.getBlockIdentifiers())) {
+                    if (BlockIdentifierSet.hasIntersection(exitBlocks, arg1.getBlockIdentifiers())) {
                         if (arg1 == foundExit) {
                             arg2.enqueue(arg1.getTargets());
                         } else if (addToBlock.add(arg1)) {
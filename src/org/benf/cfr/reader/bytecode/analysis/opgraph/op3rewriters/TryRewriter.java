@@ -6,6 +6,7 @@ import org.benf.cfr.reader.bytecode.analysis.opgraph.Op03SimpleStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.Statement;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.*;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.JumpType;
 import org.benf.cfr.reader.bytecode.analysis.types.JavaRefTypeInstance;
 import org.benf.cfr.reader.entities.exceptions.ExceptionCheck;
@@ -15,7 +16,6 @@ import org.benf.cfr.reader.state.DCCommonState;
 import org.benf.cfr.reader.util.collections.Functional;
 import org.benf.cfr.reader.util.collections.ListFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
-import org.benf.cfr.reader.util.collections.SetUtil;
 
 import java.util.Iterator;
 import java.util.List;
@@ -69,7 +69,7 @@ class TryRewriter {
 
         mainloop:
         while (!currentStatement.getStatement().canThrow(exceptionCheck)) {
-            Set<BlockIdentifier> validBlocks = SetFactory.newSet();
+            Set<BlockIdentifier> validBlocks = new BlockIdentifierSet();
             validBlocks.add(tryBlockIdent);
             for (int i = 1, len = tryStatement.getTargets().size(); i < len; ++i) {
                 Op03SimpleStatement tgt = tryStatement.getTargets().get(i);
@@ -85,7 +85,7 @@ class TryRewriter {
 
             boolean foundSource = false;
             for (Op03SimpleStatement source : currentStatement.getSources()) {
-                if (!SetUtil.hasIntersection(validBlocks, source.getBlockIdentifiers())) return;
+                if (!BlockIdentifierSet.hasIntersection(validBlocks, source.getBlockIdentifiers())) return;
                 if (source.getBlockIdentifiers().contains(tryBlockIdent)) foundSource = true;
             }
 
@@ -254,7 +254,7 @@ class TryRewriter {
          * and that all others are either the same, or do not have a terminal forward jump.
          */
         Op03SimpleStatement uniqueForwardTarget = null;
-        Set<BlockIdentifier> relevantBlocks = SetFactory.newSet();
+        Set<BlockIdentifier> relevantBlocks = new BlockIdentifierSet();
         Op03SimpleStatement lastEnd = null;
         int lpidx = 0;
         for (Op03SimpleStatement tgt : tryTargets) {
@@ -291,14 +291,14 @@ class TryRewriter {
             // handle.
         }
         for (Op03SimpleStatement source : next.getSources()) {
-            if (SetUtil.hasIntersection(source.getBlockIdentifiers(), relevantBlocks)) {
+            if (BlockIdentifierSet.hasIntersection(source.getBlockIdentifiers(), relevantBlocks)) {
                 // Can't handle.
                 return;
             }
         }
         List<Op03SimpleStatement> blockSources = ListFactory.newLinkedList();
         for (Op03SimpleStatement source : uniqueForwardTarget.getSources()) {
-            if (SetUtil.hasIntersection(source.getBlockIdentifiers(), relevantBlocks)) {
+            if (BlockIdentifierSet.hasIntersection(source.getBlockIdentifiers(), relevantBlocks)) {
                 blockSources.add(source);
             }
         }
@@ -6,7 +6,7 @@ import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.matchutil.*;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.transformers.InfiniteAssertRewriter;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.transformers.PreconditionAssertRewriter;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.transformers.StructuredStatementTransformer;
-import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.util.MiscStatementTools;
+import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.util.LinearisedStatements;
 import org.benf.cfr.reader.bytecode.analysis.parse.Expression;
 import org.benf.cfr.reader.bytecode.analysis.parse.expression.*;
 import org.benf.cfr.reader.bytecode.analysis.parse.literal.TypedLiteral;
@@ -31,6 +31,7 @@ import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -55,8 +56,10 @@ public class AssertRewriter {
          * where y is static final boolean.
          */
         if (!staticInit.hasCodeAttribute()) return;
-        List<StructuredStatement> statements = MiscStatementTools.linearise(staticInit.getAnalysis());
+        LinearisedStatements linearised = new LinearisedStatements(staticInit.getAnalysis());
+        List<StructuredStatement> statements = linearised.getStatements();
         if (statements == null) return;
+        BitSet candidates = linearised.getPositions(StructuredAssignment.class);
         MatchIterator<StructuredStatement> mi = new MatchIterator<StructuredStatement>(statements);
         WildcardMatch wcm1 = new WildcardMatch();
 
@@ -82,8 +85,7 @@ public class AssertRewriter {
         );
 
         AssertVarCollector matchResultCollector = new AssertVarCollector(wcm1);
-        while (mi.hasNext()) {
-            mi.advance();
+        while (mi.advanceToNextOf(candidates)) {
             matchResultCollector.clear();
             if (m.match(mi, matchResultCollector)) {
                 // This really should only match once.  If it matches multiple times, something else
@@ -168,14 +170,16 @@ public class AssertRewriter {
             handleInfiniteAsserts(top);
 
 
-            List<StructuredStatement> statements = MiscStatementTools.linearise(top);
+            LinearisedStatements linearised = new LinearisedStatements(top);
+            List<StructuredStatement> statements = linearised.getStatements();
 
             if (statements == null) continue;
 
+            // Every assert pattern hinges on an if, so that's the only place worth trying them.
             MatchIterator<StructuredStatement> mi = new MatchIterator<StructuredStatement>(statements);
+            BitSet candidates = linearised.getPositions(StructuredIf.class);
 
-            while (mi.hasNext()) {
-                mi.advance();
+            while (mi.advanceToNextOf(candidates)) {
                 if (standardAssertMatcher.match(mi, collector)) {
                     mi.rewind1();
                 }
@@ -185,9 +189,9 @@ public class AssertRewriter {
             // We can't search for a simple pattern any more, but we can find possible entry points.
             if (switchExpressions) {
                 mi = new MatchIterator<StructuredStatement>(statements);
+                candidates = linearised.getPositions(BeginBlock.class, 1, StructuredIf.class);
 
-                while (mi.hasNext()) {
-                    mi.advance();
+                while (mi.advanceToNextOf(candidates)) {
                     if (switchAssertMatcher.match(mi, swcollector)) {
                         mi.rewind1();
                     }
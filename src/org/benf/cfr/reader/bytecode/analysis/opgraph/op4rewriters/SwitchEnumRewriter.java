@@ -3,6 +3,7 @@ package org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters;
 import org.benf.cfr.reader.bytecode.analysis.loc.BytecodeLoc;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.Op04StructuredStatement;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.matchutil.*;
+import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.util.LinearisedStatements;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.util.MiscStatementTools;
 import org.benf.cfr.reader.bytecode.analysis.parse.Expression;
 import org.benf.cfr.reader.bytecode.analysis.parse.LValue;
@@ -53,18 +54,18 @@ public class SwitchEnumRewriter implements Op04Rewriter {
 
     @Override
     public void rewrite(Op04StructuredStatement root) {
+        rewrite(new LinearisedStatements(root));
+    }
+
+    public void rewrite(LinearisedStatements linearised) {
         Options options = dcCommonState.getOptions();
         if (!options.getOption(OptionsImpl.ENUM_SWITCH, classFileVersion)) return;
 
-        List<StructuredStatement> structuredStatements = MiscStatementTools.linearise(root);
-        if (structuredStatements == null) return;
+        if (linearised.getStatements() == null) return;
 
-        List<StructuredStatement> switchStatements = Functional.filter(structuredStatements, new Predicate<StructuredStatement>() {
-            @Override
-            public boolean test(StructuredStatement in) {
-                return in.getClass() == StructuredSwitch.class;
-            }
-        });
+        List<StructuredStatement> switchStatements = linearised.getStatements(StructuredSwitch.class);
+        // tryRewrite doesn't say if it's changed anything, but matches are rare enough to assume it has.
+        boolean matched = false;
         WildcardMatch wcm = new WildcardMatch();
 
         if (!switchStatements.isEmpty()) {
@@ -84,6 +85,7 @@ public class SwitchEnumRewriter implements Op04Rewriter {
                 matchResultCollector.clear();
                 if (m.match(mi, matchResultCollector)) {
                     tryRewrite(matchResultCollector, false);
+                    matched = true;
                     mi.rewind1();
                 }
             }
@@ -91,12 +93,7 @@ public class SwitchEnumRewriter implements Op04Rewriter {
 
         // We also have the vanishingly unlikely but quite silly case of switching on a literal with no content.
         // See switchTest23
-        List<StructuredStatement> expressionStatements = Functional.filter(structuredStatements, new Predicate<StructuredStatement>() {
-            @Override
-            public boolean test(StructuredStatement in) {
-                return in.getClass() == StructuredExpressionStatement.class;
-                }
-        });
+        List<StructuredStatement> expressionStatements = linearised.getStatements(StructuredExpressionStatement.class);
         if (!expressionStatements.isEmpty()) {
             Matcher<StructuredStatement> mInline = new ResetAfterTest(wcm,
                     new CollectMatch("bodylessswitch", new StructuredExpressionStatement(
@@ -113,10 +110,12 @@ public class SwitchEnumRewriter implements Op04Rewriter {
                 matchResultCollector2.clear();
                 if (mInline.match(mi2, matchResultCollector2)) {
                     tryRewrite(matchResultCollector2, true);
+                    matched = true;
                     mi2.rewind1();
                 }
             }
         }
+        if (matched) linearised.changed();
     }
 
 
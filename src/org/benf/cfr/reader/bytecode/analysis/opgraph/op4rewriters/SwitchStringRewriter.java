@@ -12,7 +12,7 @@ import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.matchutil.Matc
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.matchutil.MatchSequence;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.matchutil.Matcher;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.matchutil.ResetAfterTest;
-import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.util.MiscStatementTools;
+import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.util.LinearisedStatements;
 import org.benf.cfr.reader.bytecode.analysis.parse.Expression;
 import org.benf.cfr.reader.bytecode.analysis.parse.LValue;
 import org.benf.cfr.reader.bytecode.analysis.parse.expression.BooleanExpression;
@@ -45,6 +45,7 @@ import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -63,15 +64,22 @@ public class SwitchStringRewriter implements Op04Rewriter {
 
     @Override
     public void rewrite(Op04StructuredStatement root) {
+        rewrite(new LinearisedStatements(root));
+    }
+
+    public void rewrite(LinearisedStatements linearised) {
         if (!(options.getOption(OptionsImpl.STRING_SWITCH, classFileVersion)
                 || bytecodeMeta.has(BytecodeMeta.CodeInfoFlag.STRING_SWITCHES))
         ) return;
 
-        List<StructuredStatement> structuredStatements = MiscStatementTools.linearise(root);
+        List<StructuredStatement> structuredStatements = linearised.getStatements();
         if (structuredStatements == null) return;
 
-        rewriteComplex(structuredStatements);
-        rewriteEmpty(structuredStatements);
+        // Both patterns start with an assignment, and have the hashcode switch two or three statements later - so
+        // there's no point trying them anywhere else.
+        boolean changed = rewriteComplex(structuredStatements, linearised.getPositions(StructuredAssignment.class, 2, StructuredSwitch.class));
+        changed |= rewriteEmpty(structuredStatements, linearised.getPositions(StructuredAssignment.class, 3, StructuredSwitch.class));
+        if (changed) linearised.changed();
     }
 
     /*
@@ -91,7 +99,8 @@ public class SwitchStringRewriter implements Op04Rewriter {
      *
      * Note that this doesn't pull anything into the switch (so switch expressions will need further work).
      */
-    private void rewriteEmpty(List<StructuredStatement> structuredStatements) {
+    private boolean rewriteEmpty(List<StructuredStatement> structuredStatements, BitSet candidates) {
+        if (candidates.isEmpty()) return false;
         MatchIterator<StructuredStatement> mi = new MatchIterator<StructuredStatement>(structuredStatements);
 
         WildcardMatch wcm = new WildcardMatch();
@@ -114,8 +123,8 @@ public class SwitchStringRewriter implements Op04Rewriter {
         ));
 
         EmptySwitchStringMatchResultCollector matchResultCollector = new EmptySwitchStringMatchResultCollector(wcm);
-        while (mi.hasNext()) {
-            mi.advance();
+        boolean changed = false;
+        while (mi.advanceToNextOf(candidates)) {
             matchResultCollector.clear();
             if (m.match(mi, matchResultCollector)) {
                 if (!isLVOk(matchResultCollector.verify, matchResultCollector.lvalue, matchResultCollector.getStatementByName("ass1"))) continue;
@@ -128,13 +137,15 @@ public class SwitchStringRewriter implements Op04Rewriter {
 
                 Op04StructuredStatement body = swtch.getBody();
                 swtch.getContainer().replaceStatement(new StructuredSwitch(BytecodeLoc.TODO, matchResultCollector.string, body, swtch.getBlockIdentifier()));
+                changed = true;
                 mi.rewind1();
             }
         }
-
+        return changed;
     }
 
-    private void rewriteComplex(List<StructuredStatement> structuredStatements) {
+    private boolean rewriteComplex(List<StructuredStatement> structuredStatements, BitSet candidates) {
+        if (candidates.isEmpty()) return false;
         // Rather than have a non-greedy kleene star at the start, we cheat and scan for valid start points.
         // switch OB (case OB (if-testalternativevalid OB assign break CB)* if-notvalid break assign break CB)+ CB
         MatchIterator<StructuredStatement> mi = new MatchIterator<StructuredStatement>(structuredStatements);
@@ -195,8 +206,8 @@ public class SwitchStringRewriter implements Op04Rewriter {
         ));
 
         SwitchStringMatchResultCollector matchResultCollector = new SwitchStringMatchResultCollector(wcm1, wcm2, wcm3);
-        while (mi.hasNext()) {
-            mi.advance();
+        boolean changed = false;
+        while (mi.advanceToNextOf(candidates)) {
             matchResultCollector.clear();
             if (m.match(mi, matchResultCollector)) {
                 if (!isLVOk(matchResultCollector.verify, matchResultCollector.lvalue, matchResultCollector.getStatementByName("ass1"))) continue;
@@ -209,9 +220,11 @@ public class SwitchStringRewriter implements Op04Rewriter {
                 firstSwitch.getContainer().nopOut();
                 matchResultCollector.getStatementByName("ass1").getContainer().nopOut();
                 matchResultCollector.getStatementByName("ass2").getContainer().nopOut();
+                changed = true;
                 mi.rewind1();
             }
         }
+        return changed;
     }
 
     private StructuredSwitch rewriteSwitch(StructuredSwitch original, SwitchStringMatchResultCollector matchResultCollector) {
@@ -2,6 +2,7 @@ package org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.matchutil;
 
 import org.benf.cfr.reader.bytecode.analysis.structured.StructuredStatement;
 
+import java.util.BitSet;
 import java.util.List;
 
 public class MatchIterator<T> {
@@ -48,6 +49,15 @@ public class MatchIterator<T> {
         return !isFinished();
     }
 
+    /*
+     * As advance, but skipping positions which aren't candidates - ie where the caller knows nothing can match.
+     */
+    public boolean advanceToNextOf(BitSet candidates) {
+        int next = candidates.nextSetBit(idx + 1);
+        idx = (next < 0 || next >= data.size()) ? data.size() : next;
+        return !isFinished();
+    }
+
     public void rewind1() {
         if (idx > 0) idx--;
     }
@@ -0,0 +1,97 @@
+package org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.util;
+
+import org.benf.cfr.reader.bytecode.analysis.opgraph.Op04StructuredStatement;
+import org.benf.cfr.reader.bytecode.analysis.structured.StructuredStatement;
+import org.benf.cfr.reader.util.annotation.Nullable;
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * A structured tree, linearised once for the pattern matching rewriters which run over it one after another, rather
+ * than once per rewriter.
+ *
+ * The positions of each class of statement are indexed, so a rewriter can declare the kind of statement its patterns
+ * are rooted at (or hinge on), and only try them where that turns up - most methods don't have a switch, so most
+ * attempts to match a switch pattern fail on the first statement checked, after a WildcardMatch reset.
+ *
+ * A rewriter which changes the tree must call changed(), so that the next one sees the tree as it now is.
+ */
+public class LinearisedStatements {
+    private final Op04StructuredStatement root;
+    private boolean linearised;
+    private List<StructuredStatement> statements;
+    private Map<Class<?>, BitSet> positions;
+
+    public LinearisedStatements(Op04StructuredStatement root) {
+        this.root = root;
+    }
+
+    /*
+     * null if the tree can't be linearised.
+     */
+    public @Nullable
+    List<StructuredStatement> getStatements() {
+        if (!linearised) {
+            statements = MiscStatementTools.linearise(root);
+            positions = MapFactory.newIdentityMap();
+            if (statements != null) {
+                for (int x = 0, len = statements.size(); x < len; ++x) {
+                    Class<?> kind = statements.get(x).getClass();
+                    BitSet kindPositions = positions.get(kind);
+                    if (kindPositions == null) {
+                        kindPositions = new BitSet();
+                        positions.put(kind, kindPositions);
+                    }
+                    kindPositions.set(x);
+                }
+            }
+            linearised = true;
+        }
+        return statements;
+    }
+
+    /*
+     * Where statements of exactly this class are.  (Not to be modified).
+     */
+    public BitSet getPositions(Class<? extends StructuredStatement> kind) {
+        getStatements();
+        BitSet res = positions.get(kind);
+        return res == null ? new BitSet() : res;
+    }
+
+    /*
+     * Where there's a statement of class first, with one of class second offset statements later.
+     */
+    public BitSet getPositions(Class<? extends StructuredStatement> first, int offset, Class<? extends StructuredStatement> second) {
+        BitSet firsts = getPositions(first);
+        BitSet seconds = getPositions(second);
+        BitSet res = new BitSet();
+        for (int x = seconds.nextSetBit(offset); x >= 0; x = seconds.nextSetBit(x + 1)) {
+            if (firsts.get(x - offset)) res.set(x - offset);
+        }
+        return res;
+    }
+
+    /*
+     * Statements of exactly this class, in order.
+     */
+    public List<StructuredStatement> getStatements(Class<? extends StructuredStatement> kind) {
+        List<StructuredStatement> res = ListFactory.newList();
+        if (getStatements() == null) return res;
+        BitSet kindPositions = getPositions(kind);
+        for (int x = kindPositions.nextSetBit(0); x >= 0; x = kindPositions.nextSetBit(x + 1)) {
+            res.add(statements.get(x));
+        }
+        return res;
+    }
+
+    public void changed() {
+        linearised = false;
+        statements = null;
+        positions = null;
+    }
+}
@@ -30,12 +30,17 @@ public enum ArithOp {
     NEG("~", false, false, Precedence.UNARY_OTHER);
 
     private final String showAs;
+    // Dumped for every operation, so don't rebuild these each time.
+    private final String showAsBinary;
+    private final String showAsMutation;
     private final boolean temporary;
     private final boolean boolSafe;
     private final Precedence precedence;
 
     ArithOp(String showAs, boolean temporary, boolean boolSafe, Precedence precedence) {
         this.showAs = showAs;
+        this.showAsBinary = " " + showAs + " ";
+        this.showAsMutation = showAs + "=";
         this.temporary = temporary;
         this.boolSafe = boolSafe;
         this.precedence = precedence;
@@ -45,6 +50,14 @@ public enum ArithOp {
         return showAs;
     }
 
+    public String getShowAsBinary() {
+        return showAsBinary;
+    }
+
+    public String getShowAsMutation() {
+        return showAsMutation;
+    }
+
     public boolean isTemporary() {
         return temporary;
     }
@@ -51,7 +51,7 @@ public class ArithmeticMutationOperation extends AbstractMutatingAssignmentExpre
 
     @Override
     public Dumper dumpInner(Dumper d) {
-        d.dump(mutated).print(' ').operator(op.getShowAs() + "=").print(' ');
+        d.dump(mutated).print(' ').operator(op.getShowAsMutation()).print(' ');
         mutation.dumpWithOuterPrecedence(d, getPrecedence(), Troolean.NEITHER);
         return d;
     }
@@ -91,7 +91,7 @@ public class ArithmeticOperation extends AbstractExpression implements BoxingPro
     @Override
     public Dumper dumpInner(Dumper d) {
         lhs.dumpWithOuterPrecedence(d, getPrecedence(), Troolean.TRUE);
-        d.operator(" " + op.getShowAs() + " ");
+        d.operator(op.getShowAsBinary());
         rhs.dumpWithOuterPrecedence(d, getPrecedence(), Troolean.FALSE);
         return d;
     }
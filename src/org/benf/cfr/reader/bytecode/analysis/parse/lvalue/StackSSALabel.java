@@ -126,7 +126,9 @@ public class StackSSALabel extends AbstractLValue {
         if (o == null) return false;
         if (o == this) return true;
         if (!(o instanceof StackSSALabel)) return false;
-        return id == ((StackSSALabel) o).id;
+        StackSSALabel other = (StackSSALabel) o;
+        // ids are only unique within a method.
+        return id == other.id && stackEntry == other.stackEntry;
     }
 
 }
@@ -10,13 +10,23 @@ import java.util.Set;
 
 public class BlockIdentifier implements Comparable<BlockIdentifier> {
     private final int index;
+    private final BlockIdentifierFactory factory;
     private BlockType blockType;
     // foreign refs - for spotting non local jumps to this block.
     private int knownForeignReferences = 0;
 
     public BlockIdentifier(int index, BlockType blockType) {
+        this(index, blockType, null);
+    }
+
+    BlockIdentifier(int index, BlockType blockType, BlockIdentifierFactory factory) {
         this.index = index;
         this.blockType = blockType;
+        this.factory = factory;
+    }
+
+    BlockIdentifierFactory getFactory() {
+        return factory;
     }
 
     public BlockType getBlockType() {
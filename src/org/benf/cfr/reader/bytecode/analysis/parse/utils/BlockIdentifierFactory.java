@@ -1,9 +1,22 @@
 package org.benf.cfr.reader.bytecode.analysis.parse.utils;
 
+import org.benf.cfr.reader.util.collections.ListFactory;
+
+import java.util.List;
+
+/*
+ * Block identifiers from one factory have dense indices, so BlockIdentifierSet can hold them as bits.
+ */
 public class BlockIdentifierFactory {
-    int idx = 0;
+    private final List<BlockIdentifier> identifiers = ListFactory.newList();
 
     public BlockIdentifier getNextBlockIdentifier(BlockType blockType) {
-        return new BlockIdentifier(idx++, blockType);
+        BlockIdentifier res = new BlockIdentifier(identifiers.size(), blockType, this);
+        identifiers.add(res);
+        return res;
+    }
+
+    BlockIdentifier getBlockIdentifier(int idx) {
+        return identifiers.get(idx);
     }
 }
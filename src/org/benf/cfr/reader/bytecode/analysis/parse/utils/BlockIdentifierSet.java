@@ -0,0 +1,350 @@
+package org.benf.cfr.reader.bytecode.analysis.parse.utils;
+
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.SetFactory;
+import org.benf.cfr.reader.util.collections.SetUtil;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/*
+ * A set of BlockIdentifiers, as a bitset over their indices.
+ *
+ * Identifiers from one BlockIdentifierFactory have dense indices, so membership is a bit each - and containsAll,
+ * intersection, difference etc between two of these are word operations, rather than a hash lookup per member.
+ * Anything which doesn't share that index space (from another factory, or made directly) is kept in an ordinary
+ * set alongside.
+ *
+ * Iterates in index order (ie the order the blocks were created), then anything else.
+ *
+ * The static helpers are SetUtil's operations for sets of blocks - where both sides are BlockIdentifierSets, they
+ * work a word at a time.
+ */
+public class BlockIdentifierSet extends AbstractSet<BlockIdentifier> {
+    private static final long[] NO_BITS = new long[0];
+
+    private BlockIdentifierFactory factory;
+    private long[] bits = NO_BITS;
+    private int bitCount;
+    private Set<BlockIdentifier> others;
+
+    public BlockIdentifierSet() {
+    }
+
+    public BlockIdentifierSet(Collection<? extends BlockIdentifier> content) {
+        addAll(content);
+    }
+
+    private boolean isIndexed(BlockIdentifier blockIdentifier) {
+        BlockIdentifierFactory itsFactory = blockIdentifier.getFactory();
+        if (itsFactory == null) return false;
+        // Nothing in others ever shares our factory, so we can only change it when empty.
+        if (factory == null || isEmpty()) {
+            factory = itsFactory;
+            return true;
+        }
+        return factory == itsFactory;
+    }
+
+    /*
+     * Can our bits be combined with other's directly?
+     */
+    private boolean compatible(BlockIdentifierSet other) {
+        return factory == other.factory || isEmpty() || other.isEmpty();
+    }
+
+    private void adoptFactory(BlockIdentifierSet other) {
+        if (isEmpty()) factory = other.factory;
+    }
+
+    private void ensureWords(int words) {
+        if (words <= bits.length) return;
+        long[] newBits = new long[Math.max(words, bits.length * 2)];
+        System.arraycopy(bits, 0, newBits, 0, bits.length);
+        bits = newBits;
+    }
+
+    private boolean hasBit(int idx) {
+        int word = idx >> 6;
+        return word < bits.length && (bits[word] & (1L << idx)) != 0;
+    }
+
+    private void recount() {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        bitCount = count;
+    }
+
+    @Override
+    public int size() {
+        return bitCount + (others == null ? 0 : others.size());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bitCount == 0 && (others == null || others.isEmpty());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof BlockIdentifier)) return false;
+        BlockIdentifier blockIdentifier = (BlockIdentifier) o;
+        if (bitCount != 0 && blockIdentifier.getFactory() == factory) return hasBit(blockIdentifier.getIndex());
+        return others != null && others.contains(blockIdentifier);
+    }
+
+    @Override
+    public boolean add(BlockIdentifier blockIdentifier) {
+        if (!isIndexed(blockIdentifier)) {
+            if (others == null) others = SetFactory.newOrderedSet();
+            return others.add(blockIdentifier);
+        }
+        int idx = blockIdentifier.getIndex();
+        if (hasBit(idx)) return false;
+        ensureWords((idx >> 6) + 1);
+        bits[idx >> 6] |= 1L << idx;
+        bitCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof BlockIdentifier)) return false;
+        BlockIdentifier blockIdentifier = (BlockIdentifier) o;
+        if (bitCount != 0 && blockIdentifier.getFactory() == factory) {
+            int idx = blockIdentifier.getIndex();
+            if (!hasBit(idx)) return false;
+            bits[idx >> 6] &= ~(1L << idx);
+            bitCount--;
+            return true;
+        }
+        return others != null && others.remove(blockIdentifier);
+    }
+
+    @Override
+    public void clear() {
+        for (int x = 0; x < bits.length; ++x) {
+            bits[x] = 0;
+        }
+        bitCount = 0;
+        others = null;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (!(c instanceof BlockIdentifierSet)) return super.containsAll(c);
+        BlockIdentifierSet other = (BlockIdentifierSet) c;
+        if (!compatible(other)) return super.containsAll(c);
+        long[] otherBits = other.bits;
+        for (int x = 0; x < otherBits.length; ++x) {
+            if (otherBits[x] == 0) continue;
+            if (x >= bits.length || (otherBits[x] & ~bits[x]) != 0) return false;
+        }
+        return other.others == null || super.containsAll(other.others);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends BlockIdentifier> c) {
+        if (!(c instanceof BlockIdentifierSet)) return super.addAll(c);
+        BlockIdentifierSet other = (BlockIdentifierSet) c;
+        if (!compatible(other)) return super.addAll(c);
+        adoptFactory(other);
+        long[] otherBits = other.bits;
+        boolean changed = false;
+        for (int x = 0; x < otherBits.length; ++x) {
+            if (otherBits[x] == 0) continue;
+            ensureWords(x + 1);
+            long merged = bits[x] | otherBits[x];
+            if (merged != bits[x]) {
+                bitCount += Long.bitCount(merged) - Long.bitCount(bits[x]);
+                bits[x] = merged;
+                changed = true;
+            }
+        }
+        if (other.others != null) {
+            for (BlockIdentifier blockIdentifier : other.others) {
+                if (add(blockIdentifier)) changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (!(c instanceof BlockIdentifierSet)) return super.removeAll(c);
+        BlockIdentifierSet other = (BlockIdentifierSet) c;
+        if (!compatible(other)) return super.removeAll(c);
+        boolean changed = false;
+        for (int x = 0, len = Math.min(bits.length, other.bits.length); x < len; ++x) {
+            long remaining = bits[x] & ~other.bits[x];
+            if (remaining != bits[x]) {
+                bits[x] = remaining;
+                changed = true;
+            }
+        }
+        if (changed) recount();
+        if (others != null && other.others != null) {
+            if (others.removeAll(other.others)) changed = true;
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (!(c instanceof BlockIdentifierSet)) return super.retainAll(c);
+        BlockIdentifierSet other = (BlockIdentifierSet) c;
+        if (!compatible(other)) return super.retainAll(c);
+        boolean changed = false;
+        for (int x = 0; x < bits.length; ++x) {
+            long remaining = x < other.bits.length ? bits[x] & other.bits[x] : 0;
+            if (remaining != bits[x]) {
+                bits[x] = remaining;
+                changed = true;
+            }
+        }
+        if (changed) recount();
+        if (others != null) {
+            if (other.others == null) {
+                changed = true;
+                others = null;
+            } else if (others.retainAll(other.others)) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /*
+     * Do we have anything in common with other?
+     */
+    public boolean intersects(BlockIdentifierSet other) {
+        if (!compatible(other)) {
+            for (BlockIdentifier blockIdentifier : other) {
+                if (contains(blockIdentifier)) return true;
+            }
+            return false;
+        }
+        for (int x = 0, len = Math.min(bits.length, other.bits.length); x < len; ++x) {
+            if ((bits[x] & other.bits[x]) != 0) return true;
+        }
+        if (others == null || other.others == null) return false;
+        for (BlockIdentifier blockIdentifier : other.others) {
+            if (others.contains(blockIdentifier)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof BlockIdentifierSet)) return super.equals(o);
+        BlockIdentifierSet other = (BlockIdentifierSet) o;
+        if (size() != other.size()) return false;
+        return containsAll(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public Iterator<BlockIdentifier> iterator() {
+        return new Iterator<BlockIdentifier>() {
+            private int next = nextBit(0);
+            private int lastBit = -1;
+            private boolean lastWasOther;
+            private Iterator<BlockIdentifier> othersIterator;
+
+            private int nextBit(int from) {
+                int word = from >> 6;
+                if (word >= bits.length) return -1;
+                long current = bits[word] & (-1L << from);
+                while (true) {
+                    if (current != 0) return (word << 6) + Long.numberOfTrailingZeros(current);
+                    if (++word == bits.length) return -1;
+                    current = bits[word];
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (next != -1) return true;
+                if (others == null) return false;
+                if (othersIterator == null) othersIterator = others.iterator();
+                return othersIterator.hasNext();
+            }
+
+            @Override
+            public BlockIdentifier next() {
+                if (next != -1) {
+                    lastBit = next;
+                    next = nextBit(next + 1);
+                    return factory.getBlockIdentifier(lastBit);
+                }
+                if (!hasNext()) throw new NoSuchElementException();
+                lastWasOther = true;
+                return othersIterator.next();
+            }
+
+            @Override
+            public void remove() {
+                if (lastWasOther) {
+                    lastWasOther = false;
+                    othersIterator.remove();
+                    return;
+                }
+                if (lastBit == -1) throw new IllegalStateException();
+                bits[lastBit >> 6] &= ~(1L << lastBit);
+                bitCount--;
+                lastBit = -1;
+            }
+        };
+    }
+
+    public static boolean hasIntersection(Set<? extends BlockIdentifier> b, Collection<? extends BlockIdentifier> a) {
+        if (a instanceof BlockIdentifierSet && b instanceof BlockIdentifierSet) {
+            return ((BlockIdentifierSet) b).intersects((BlockIdentifierSet) a);
+        }
+        return SetUtil.hasIntersection(b, a);
+    }
+
+    public static Set<BlockIdentifier> intersectionOrNull(Set<? extends BlockIdentifier> a, Set<? extends BlockIdentifier> b) {
+        if (a instanceof BlockIdentifierSet && b instanceof BlockIdentifierSet) {
+            BlockIdentifierSet res = new BlockIdentifierSet(a);
+            res.retainAll(b);
+            return res.isEmpty() ? null : res;
+        }
+        return SetUtil.intersectionOrNull(a, b);
+    }
+
+    /*
+     * In either, but not both.
+     */
+    public static Set<BlockIdentifier> difference(Set<? extends BlockIdentifier> a, Set<? extends BlockIdentifier> b) {
+        if (a instanceof BlockIdentifierSet && b instanceof BlockIdentifierSet) {
+            BlockIdentifierSet res = new BlockIdentifierSet(a);
+            res.removeAll(b);
+            BlockIdentifierSet onlyB = new BlockIdentifierSet(b);
+            onlyB.removeAll(a);
+            res.addAll(onlyB);
+            return res;
+        }
+        return SetUtil.difference(a, b);
+    }
+
+    public static List<BlockIdentifier> differenceAtakeBtoList(Set<? extends BlockIdentifier> a, Set<? extends BlockIdentifier> b) {
+        if (a instanceof BlockIdentifierSet && b instanceof BlockIdentifierSet) {
+            BlockIdentifierSet res = new BlockIdentifierSet(a);
+            res.removeAll(b);
+            return ListFactory.newList(res);
+        }
+        return SetUtil.differenceAtakeBtoList(a, b);
+    }
+}
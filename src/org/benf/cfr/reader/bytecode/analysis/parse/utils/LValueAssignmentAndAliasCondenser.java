@@ -219,7 +219,7 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
                 // We don't want to copy propagate out of a try block.
                 // BUT - we will tolerate it if the linearly previous entry is in the block,
                 // because it's a known pattern.
-                for (BlockIdentifier left : SetUtil.differenceAtakeBtoList(
+                for (BlockIdentifier left : BlockIdentifierSet.differenceAtakeBtoList(
                         statementContainer.getBlockIdentifiers(),
                         lvSc.getBlockIdentifiers())) {
                     if (left.getBlockType() == BlockType.TRYBLOCK) {
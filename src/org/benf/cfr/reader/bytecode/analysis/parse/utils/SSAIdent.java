@@ -1,20 +1,22 @@
 package org.benf.cfr.reader.bytecode.analysis.parse.utils;
 
-import java.util.BitSet;
-
 public class SSAIdent {
     public static SSAIdent poison = new SSAIdent(0, new Object());
 
-    private final BitSet val;
+    /*
+     * A bitset of versions - words as in BitSet, but never with a trailing zero word, so equal sets have
+     * equal arrays.  Never modified once constructed, so merging into a superset can just return this.
+     */
+    private final long[] val;
     private final Object comparisonType;
 
     public SSAIdent(int idx, Object comparisonType) {
-        val = new BitSet();
-        val.set(idx);
+        val = new long[(idx >> 6) + 1];
+        val[idx >> 6] = 1L << idx;
         this.comparisonType = comparisonType;
     }
 
-    private SSAIdent(BitSet content, Object comparisonType) {
+    private SSAIdent(long[] content, Object comparisonType) {
         this.val = content;
         this.comparisonType = comparisonType;
     }
@@ -24,25 +26,42 @@ public class SSAIdent {
     }
 
     public SSAIdent mergeWith(SSAIdent other) {
-        BitSet b1 = val;
-        BitSet b2 = other.val;
-        if (b1.equals(b2)) return this;
-        b1 = (BitSet) b1.clone();
-        b1.or(b2);
-        return new SSAIdent(b1, comparisonType);
+        if (contains(other)) return this;
+        long[] b1 = val;
+        long[] b2 = other.val;
+        if (b1.length < b2.length) {
+            b1 = other.val;
+            b2 = val;
+        }
+        long[] res = b1.clone();
+        for (int x = 0; x < b2.length; ++x) {
+            res[x] |= b2[x];
+        }
+        return new SSAIdent(res, comparisonType);
+    }
+
+    private boolean contains(SSAIdent other) {
+        long[] b2 = other.val;
+        if (b2.length > val.length) return false;
+        for (int x = 0; x < b2.length; ++x) {
+            if ((b2[x] & ~val[x]) != 0) return false;
+        }
+        return true;
     }
 
+    /*
+     * Strictly.
+     */
     public boolean isSuperSet(SSAIdent other) {
-        BitSet tmp = (BitSet) val.clone();
-        tmp.or(other.val);
-        // if or-ing it changed cardinality, then it wasn't a superset.
-        if (tmp.cardinality() != val.cardinality()) return false;
-        tmp.xor(other.val);
-        return (tmp.cardinality() > 0);
+        return contains(other) && !equals(other);
     }
 
     public int card() {
-        return val.cardinality();
+        int res = 0;
+        for (long word : val) {
+            res += Long.bitCount(word);
+        }
+        return res;
     }
 
     @Override
@@ -50,23 +69,53 @@ public class SSAIdent {
         if (o == this) return true;
         if (!(o instanceof SSAIdent)) return false;
         SSAIdent other = (SSAIdent) o;
-        return val.equals(other.val);
+        long[] b2 = other.val;
+        if (b2.length != val.length) return false;
+        for (int x = 0; x < b2.length; ++x) {
+            if (b2[x] != val[x]) return false;
+        }
+        return true;
     }
 
+    /*
+     * As BitSet, as this used to be one - so anything hashed by ident keeps its order.
+     */
     @Override
     public int hashCode() {
-        return val.hashCode();
+        long h = 1234;
+        for (int x = val.length; --x >= 0; ) {
+            h ^= val[x] * (x + 1);
+        }
+        return (int) ((h >> 32) ^ h);
     }
 
     @Override
     public String toString() {
         if (this == poison) return "POISON";
-        return val.toString();
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+        for (int bit = nextSetBit(0); bit >= 0; bit = nextSetBit(bit + 1)) {
+            if (!first) sb.append(", ");
+            first = false;
+            sb.append(bit);
+        }
+        return sb.append("}").toString();
+    }
+
+    private int nextSetBit(int from) {
+        int x = from >> 6;
+        if (x >= val.length) return -1;
+        long word = val[x] & (-1L << from);
+        while (true) {
+            if (word != 0) return (x << 6) + Long.numberOfTrailingZeros(word);
+            if (++x == val.length) return -1;
+            word = val[x];
+        }
     }
 
     public boolean isFirstIn(SSAIdent other) {
-        int bit1 = val.nextSetBit(0);
-        int bit2 = other.val.nextSetBit(0);
+        int bit1 = nextSetBit(0);
+        int bit2 = other.nextSetBit(0);
         return bit1 == bit2;
     }
 }
@@ -4,6 +4,7 @@ import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.functors.BinaryPredicate;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -112,6 +113,29 @@ public class SSAIdentifiers<KEYTYPE> {
         return changed;
     }
 
+    /*
+     * As mergeWith(other), but only for keys (or all of other's, if keys is null) - and adding any keys whose
+     * identifiers changed on exit to changedOnExit.  (Changes on entry aren't interesting to our targets).
+     */
+    public void mergeWith(SSAIdentifiers<KEYTYPE> other, Collection<KEYTYPE> keys, Set<KEYTYPE> changedOnExit) {
+        if (keys == null) {
+            for (Map.Entry<KEYTYPE, SSAIdent> valueSetEntry : other.knownIdentifiersOnExit.entrySet()) {
+                mergeKey(valueSetEntry.getKey(), valueSetEntry.getValue(), changedOnExit);
+            }
+            return;
+        }
+        for (KEYTYPE lValue : keys) {
+            SSAIdent otherIdent = other.knownIdentifiersOnExit.get(lValue);
+            if (otherIdent != null) mergeKey(lValue, otherIdent, changedOnExit);
+        }
+    }
+
+    private void mergeKey(KEYTYPE lValue, SSAIdent otherIdent, Set<KEYTYPE> changedOnExit) {
+        registerChange(knownIdentifiersOnEntry, lValue, otherIdent);
+        if (fixedHere.containsKey(lValue)) return;
+        if (registerChange(knownIdentifiersOnExit, lValue, otherIdent)) changedOnExit.add(lValue);
+    }
+
     void fixHere(Set<KEYTYPE> fixed) {
         for (KEYTYPE fix : fixed) {
             fixedHere.put(fix, fix);
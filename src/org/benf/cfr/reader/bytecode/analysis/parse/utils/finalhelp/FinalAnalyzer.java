@@ -12,6 +12,7 @@ import org.benf.cfr.reader.bytecode.analysis.parse.expression.LValueExpression;
 import org.benf.cfr.reader.bytecode.analysis.parse.statement.*;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifier;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierFactory;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockIdentifierSet;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.BlockType;
 import org.benf.cfr.reader.bytecode.analysis.types.JavaRefTypeInstance;
 import org.benf.cfr.reader.bytecode.analysis.types.JavaTypeInstance;
@@ -724,7 +725,7 @@ public class FinalAnalyzer {
                 /*
                  * If this set contains a DIFFERENT peer try, it's an ok jump.
                  */
-                Set<BlockIdentifier> exitStartPeerBlocks = SetUtil.intersectionOrNull(guessPeerTryBlocks, exitBlocks);
+                Set<BlockIdentifier> exitStartPeerBlocks = BlockIdentifierSet.intersectionOrNull(guessPeerTryBlocks, exitBlocks);
                 if (exitStartPeerBlocks != null && exitStartPeerBlocks.size() == 1) {
                     // Should we add this try block to results?
                     Map<BlockIdentifier, Op03SimpleStatement> guessPeerTryMap = peerTries.getGuessPeerTryMap();
@@ -745,7 +746,7 @@ public class FinalAnalyzer {
                             addPeerTries.add(target);
                             continue;
                         }
-                        exitStartPeerBlocks = SetUtil.intersectionOrNull(guessPeerTryBlocks, target.getBlockIdentifiers());
+                        exitStartPeerBlocks = BlockIdentifierSet.intersectionOrNull(guessPeerTryBlocks, target.getBlockIdentifiers());
                         if (exitStartPeerBlocks != null && exitStartPeerBlocks.size() == 1) {
                             // Should we add this try block to results?
                             Map<BlockIdentifier, Op03SimpleStatement> guessPeerTryMap = peerTries.getGuessPeerTryMap();
@@ -14,8 +14,9 @@ import java.util.Set;
 
 public class StackEntry {
 
-    private static long sid = 0;
-
+    /*
+     * Only unique within the stack simulation this was created by.
+     */
     private final long id0;
     private final Set<Long> ids = SetFactory.newSet();
     private int artificalSourceCount = 0;
@@ -24,8 +25,8 @@ public class StackEntry {
     private final StackType stackType;
     private final InferredJavaType inferredJavaType = new InferredJavaType();
 
-    StackEntry(StackType stackType) {
-        id0 = sid++;
+    StackEntry(StackType stackType, long id0) {
+        this.id0 = id0;
         ids.add(id0);
         this.lValue = new StackSSALabel(id0, this);
         this.stackType = stackType;
@@ -99,11 +100,11 @@ public class StackEntry {
         return (int) id0;
     }
 
+    /*
+     * Entries from different methods (eg once lambda bodies have been inlined) may share an id.
+     */
     @Override
     public boolean equals(Object o) {
-        if (o == null) return false;
-        if (o == this) return true;
-        if (!(o instanceof StackEntry)) return false;
-        return id0 == ((StackEntry) o).id0;
+        return o == this;
     }
 }
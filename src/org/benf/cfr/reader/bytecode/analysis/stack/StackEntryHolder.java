@@ -8,8 +8,8 @@ import java.util.Set;
 public class StackEntryHolder {
     private StackEntry stackEntry;
 
-    StackEntryHolder(StackType stackType) {
-        stackEntry = new StackEntry(stackType);
+    StackEntryHolder(StackType stackType, long id) {
+        stackEntry = new StackEntry(stackType, id);
     }
 
     public void mergeWith(StackEntryHolder other, Set<DecompilerComment> comments) {
@@ -0,0 +1,13 @@
+package org.benf.cfr.reader.bytecode.analysis.stack;
+
+/*
+ * Ids for the entries of a single stack simulation, so that they (and the stack labels named after them) don't
+ * depend on what else has been analysed in this JVM.
+ */
+class StackEntryIdFactory {
+    private long idx = 0;
+
+    long getNextId() {
+        return idx++;
+    }
+}
@@ -1,53 +1,61 @@
 package org.benf.cfr.reader.bytecode.analysis.stack;
 
 import org.benf.cfr.reader.bytecode.analysis.opgraph.Op02WithProcessedDataAndRefs;
-import org.benf.cfr.reader.bytecode.analysis.types.StackType;
 import org.benf.cfr.reader.bytecode.analysis.types.StackTypes;
 import org.benf.cfr.reader.util.ConfusedCFRException;
 import org.benf.cfr.reader.util.collections.ListFactory;
 
 import java.util.List;
 
+/*
+ * The operand stack at a point in a stack simulation - holders[0] is the bottom of the stack.
+ *
+ * This is a mutable frame, which is changed in place as we walk forward through a run of instructions.  Where the
+ * walk branches, each branch which isn't taken immediately gets a copy().  Copies share their holders, so entries
+ * which were on the stack before a branch are still the same entries on both sides of it.
+ */
 public class StackSim {
-    private final StackSim parent;
-    private final StackEntryHolder stackEntryHolder;
-    private final long depth;
+    private StackEntryHolder[] holders;
+    private int depth;
+    private final StackEntryIdFactory idFactory;
 
     public StackSim() {
+        this.holders = new StackEntryHolder[8];
         this.depth = 0;
-        this.parent = null;
-        this.stackEntryHolder = null;
+        this.idFactory = new StackEntryIdFactory();
     }
 
-    private StackSim(StackSim parent, StackType stackType) {
-        this.parent = parent;
-        this.depth = parent.depth + 1;
-        this.stackEntryHolder = new StackEntryHolder(stackType);
+    private StackSim(StackSim other) {
+        this.holders = new StackEntryHolder[Math.max(8, other.depth)];
+        System.arraycopy(other.holders, 0, this.holders, 0, other.depth);
+        this.depth = other.depth;
+        this.idFactory = other.idFactory;
+    }
+
+    public StackSim copy() {
+        return new StackSim(this);
     }
 
     public StackEntry getEntry(int depth) {
-        StackSim thisSim = this;
-        while (depth > 0) {
-            thisSim = thisSim.getParent();
-            depth--;
+        if (depth > this.depth) {
+            throw new ConfusedCFRException("Stack underflow");
         }
-        if (thisSim.stackEntryHolder == null) {
+        if (depth == this.depth) {
             throw new ConfusedCFRException("Underrun type stack");
         }
-        return thisSim.stackEntryHolder.getStackEntry();
+        return holders[this.depth - 1 - depth].getStackEntry();
     }
 
+    /*
+     * num holders, from the top of the stack down, having skipped the top offset.
+     */
     public List<StackEntryHolder> getHolders(int offset, long num) {
-        StackSim thisSim = this;
+        if (offset + num > depth) {
+            throw new ConfusedCFRException("Stack underflow");
+        }
         List<StackEntryHolder> res = ListFactory.newList();
-        while (num > 0) {
-            if (offset > 0) {
-                offset--;
-            } else {
-                res.add(thisSim.stackEntryHolder);
-                num--;
-            }
-            thisSim = thisSim.getParent();
+        for (int x = depth - 1 - offset; num > 0; --x, --num) {
+            res.add(holders[x]);
         }
         return res;
     }
@@ -56,48 +64,47 @@ public class StackSim {
         return depth;
     }
 
-    public StackSim getChange(StackDelta delta, List<StackEntryHolder> consumed, List<StackEntryHolder> produced, Op02WithProcessedDataAndRefs instruction) {
+    /*
+     * Apply delta to this frame, noting the holders consumed and produced (both from the top of the stack down).
+     */
+    public void applyChange(StackDelta delta, List<StackEntryHolder> consumed, List<StackEntryHolder> produced, Op02WithProcessedDataAndRefs instruction) {
         if (delta.isNoOp()) {
-            return this;
+            return;
         }
         try {
-            StackSim thisSim = this;
             StackTypes consumedStack = delta.getConsumed();
-            for (StackType stackType : consumedStack) {
-                consumed.add(thisSim.stackEntryHolder);
-                thisSim = thisSim.getParent();
+            for (int x = 0, len = consumedStack.size(); x < len; ++x) {
+                if (depth == 0) {
+                    throw new ConfusedCFRException("Stack underflow");
+                }
+                consumed.add(holders[--depth]);
+                holders[depth] = null;
             }
             StackTypes producedStack = delta.getProduced();
-            for (int x = producedStack.size() - 1; x >= 0; --x) {
-                thisSim = new StackSim(thisSim, producedStack.get(x));
+            int producedSize = producedStack.size();
+            if (depth + producedSize > holders.length) {
+                StackEntryHolder[] newHolders = new StackEntryHolder[Math.max(holders.length * 2, depth + producedSize)];
+                System.arraycopy(holders, 0, newHolders, 0, depth);
+                holders = newHolders;
             }
-            StackSim thatSim = thisSim;
-            for (StackType stackType : producedStack) {
-                produced.add(thatSim.stackEntryHolder);
-                thatSim = thatSim.getParent();
+            // The first produced type ends up on top, so is pushed last.
+            for (int x = producedSize - 1; x >= 0; --x) {
+                holders[depth++] = new StackEntryHolder(producedStack.get(x), idFactory.getNextId());
+            }
+            for (int x = 0; x < producedSize; ++x) {
+                produced.add(holders[depth - 1 - x]);
             }
-            return thisSim;
         } catch (ConfusedCFRException e) {
             throw new ConfusedCFRException("While processing " + instruction + " : " + e.getMessage());
         }
     }
 
-    private StackSim getParent() {
-        if (parent == null) {
-            throw new ConfusedCFRException("Stack underflow");
-        }
-        return parent;
-    }
-
     @Override
     public String toString() {
-        StackSim next = this;
         StringBuilder sb = new StringBuilder();
-        while (next != null) {
-            if (next.stackEntryHolder == null) break;
-            StackEntry stackEntry = next.stackEntryHolder.getStackEntry();
+        for (int x = depth - 1; x >= 0; --x) {
+            StackEntry stackEntry = holders[x].getStackEntry();
             sb.append(stackEntry).append('[').append(stackEntry.getType()).append("] ");
-            next = next.parent;
         }
         return sb.toString();
     }
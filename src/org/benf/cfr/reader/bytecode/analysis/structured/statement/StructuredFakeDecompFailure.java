@@ -1,5 +1,6 @@
 package org.benf.cfr.reader.bytecode.analysis.structured.statement;
 
+import org.benf.cfr.reader.bytecode.AnalysisBudgetExceededException;
 import org.benf.cfr.reader.util.output.Dumper;
 
 public class StructuredFakeDecompFailure extends StructuredComment {
@@ -16,7 +17,11 @@ public class StructuredFakeDecompFailure extends StructuredComment {
         dumper.indent(1);
         dumper.newln();
         dumper.beginBlockComment(false);
-        dumper.print("This method has failed to decompile.  When submitting a bug report, please provide this stack trace, and (if you hold appropriate legal rights) the relevant class file.").newln().newln();
+        if (e instanceof AnalysisBudgetExceededException) {
+            dumper.print("This method has not been decompiled - analysis was abandoned as it exceeded the budget given.").newln().newln();
+        } else {
+            dumper.print("This method has failed to decompile.  When submitting a bug report, please provide this stack trace, and (if you hold appropriate legal rights) the relevant class file.").newln().newln();
+        }
         dumper.print(e.toString()).newln();
         for (StackTraceElement ste : e.getStackTrace()) {
             dumper.explicitIndent().print("at ").print(ste.toString()).newln();
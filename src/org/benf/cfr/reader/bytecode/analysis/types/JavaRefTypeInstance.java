@@ -25,6 +25,7 @@ import java.util.Set;
 public class JavaRefTypeInstance implements JavaTypeInstance {
     private final String className;
     private String shortName; // may not be unique
+    private String packageName; // lazily, as it's asked for on every dump.
     private String suggestedVarName;
     private InnerClassInfo innerClassInfo; // info about this class AS AN INNER CLASS.
     //    private final Options options;
@@ -308,7 +309,12 @@ public class JavaRefTypeInstance implements JavaTypeInstance {
     }
 
     public String getPackageName() {
-        return ClassNameUtils.getPackageAndClassNames(this).getFirst();
+        String res = packageName;
+        if (res == null) {
+            res = ClassNameUtils.getPackageAndClassNames(this).getFirst();
+            packageName = res;
+        }
+        return res;
     }
 
     @Override
@@ -10,6 +10,7 @@ import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Multiple expressions / lvalues will have pointers to a single instance of this - at type changing boundaries,
@@ -59,7 +60,7 @@ public class InferredJavaType {
     }
 
 
-    private static int global_id = 0;
+    private static final AtomicInteger global_id = new AtomicInteger();
 
     private enum ClashState {
         None,
@@ -117,7 +118,7 @@ public class InferredJavaType {
         private JavaTypeInstance type = null;
 
         private IJTInternal_Clash(Collection<IJTInternal> clashes) {
-            this.id = global_id++;
+            this.id = global_id.getAndIncrement();
             this.clashes = ListFactory.newList(SetFactory.newOrderedSet(clashes));
         }
 
@@ -456,19 +457,74 @@ public class InferredJavaType {
         private IJTInternal delegate;
 
         private Troolean canBeVar = Troolean.FALSE;
+        // Path compression - a node further down the chain than delegate, with only transparent nodes between.
+        // Only good while the shortcut's epoch is what it was when we took it.
+        private IJTInternal_Impl shortcut;
+        private int shortcutEpoch;
+        // Bumped when a node which may have been skipped on the way here stops being transparent.
+        private int epoch;
+        // Has any shortcut been taken over this node?
+        private boolean skipped;
 
         private IJTInternal_Impl(JavaTypeInstance type, Source source, boolean locked) {
             this.type = type;
             this.source = source;
-            this.id = global_id++;
+            this.id = global_id.getAndIncrement();
             this.locked = locked;
         }
 
+        /*
+         * A node which would only pass on anything asked of it - delegating, not locked, not a var candidate, and
+         * with a delegate whose lock can't change under us.
+         *
+         * The only way one of these stops being transparent is shallowSetCanBeVar (nothing else can undelegate it,
+         * or change what it delegates to), so a path through them can be shortcut, until that happens - at which point
+         * the node bumps the epoch of everything below it, which is where any shortcut over it must lead.
+         */
+        private boolean isTransparent() {
+            return isDelegate && !locked && canBeVar == Troolean.FALSE && delegate instanceof IJTInternal_Impl && !delegate.isLocked();
+        }
+
+        private IJTInternal following() {
+            return (shortcut != null && shortcut.epoch == shortcutEpoch) ? shortcut : delegate;
+        }
+
+        private static boolean isTransparent(IJTInternal node) {
+            return node instanceof IJTInternal_Impl && ((IJTInternal_Impl) node).isTransparent();
+        }
+
+        /*
+         * Where to pass on anything we're asked, when delegating - the first node past us which isn't transparent.
+         *
+         * Chains are nearly always a single step, but can build up - rather than walk them every time, point
+         * ourselves and everything we walked over at where we ended up.
+         */
+        private IJTInternal next() {
+            IJTInternal first = following();
+            if (!isTransparent(first)) return first;
+            IJTInternal next = first;
+            do {
+                next = ((IJTInternal_Impl) next).following();
+            } while (isTransparent(next));
+            // Anything a transparent node leads to is an IJTInternal_Impl.
+            IJTInternal_Impl res = (IJTInternal_Impl) next;
+            shortcut = res;
+            shortcutEpoch = res.epoch;
+            for (IJTInternal node = first; node != res; ) {
+                IJTInternal_Impl impl = (IJTInternal_Impl) node;
+                node = impl.following();
+                impl.skipped = true;
+                impl.shortcut = res;
+                impl.shortcutEpoch = res.epoch;
+            }
+            return res;
+        }
+
         @Override
         public RawJavaType getRawType() {
             // Think this might bite me later?
             if (isDelegate) {
-                return delegate.getRawType();
+                return next().getRawType();
             } else {
                 return type.getRawTypeOfSimpleType();
             }
@@ -477,7 +533,7 @@ public class InferredJavaType {
         @Override
         public int getTaggedBytecodeLocation() {
             if (isDelegate) {
-                return delegate.getTaggedBytecodeLocation();
+                return next().getTaggedBytecodeLocation();
             } else {
                 return taggedBytecodeLocation;
             }
@@ -486,7 +542,7 @@ public class InferredJavaType {
         @Override
         public void setTaggedBytecodeLocation(int location) {
             if (isDelegate) {
-                delegate.setTaggedBytecodeLocation(location);
+                next().setTaggedBytecodeLocation(location);
             } else {
                 taggedBytecodeLocation = location;
             }
@@ -494,7 +550,7 @@ public class InferredJavaType {
 
         public JavaTypeInstance getJavaTypeInstance() {
             if (isDelegate) {
-                return delegate.getJavaTypeInstance();
+                return next().getJavaTypeInstance();
             } else {
                 return type;
             }
@@ -502,7 +558,7 @@ public class InferredJavaType {
 
         public Source getSource() {
             if (isDelegate) {
-                return delegate.getSource();
+                return next().getSource();
             } else {
                 return source;
             }
@@ -511,13 +567,13 @@ public class InferredJavaType {
         @Override
         public void collapseTypeClash() {
             if (isDelegate) {
-                delegate.collapseTypeClash();
+                next().collapseTypeClash();
             }
         }
 
         public int getFinalId() {
             if (isDelegate) {
-                return delegate.getFinalId();
+                return next().getFinalId();
             } else {
                 return id;
             }
@@ -526,7 +582,7 @@ public class InferredJavaType {
         @Override
         public boolean usesFinalId(int id) {
             if (isDelegate) {
-                return delegate.usesFinalId(id);
+                return next().usesFinalId(id);
             } else {
                 return this.id == id;
             }
@@ -539,6 +595,15 @@ public class InferredJavaType {
         @Override
         public void shallowSetCanBeVar() {
             canBeVar = Troolean.NEITHER;
+            // We're no longer transparent, so anything skipping over us is wrong - and will lead somewhere below us.
+            if (skipped) {
+                for (IJTInternal node = delegate; node instanceof IJTInternal_Impl; ) {
+                    IJTInternal_Impl impl = (IJTInternal_Impl) node;
+                    impl.epoch++;
+                    if (!impl.isDelegate) break;
+                    node = impl.delegate;
+                }
+            }
         }
 
         @Override
@@ -549,7 +614,7 @@ public class InferredJavaType {
                 return;
             }
             if (isDelegate) {
-                delegate.confirmVarIfPossible();
+                next().confirmVarIfPossible();
             }
         }
 
@@ -559,17 +624,19 @@ public class InferredJavaType {
 
         public void mkDelegate(IJTInternal newDelegate) {
             if (isDelegate) {
-                delegate.mkDelegate(newDelegate);
+                next().mkDelegate(newDelegate);
             } else {
                 isDelegate = true;
                 delegate = newDelegate;
+                // We may have delegated before, somewhere else.
+                shortcut = null;
             }
         }
 
         @Override
         public void markKnownBaseClass(JavaTypeInstance newKnownBase) {
             if (isDelegate) {
-                delegate.markKnownBaseClass(newKnownBase);
+                next().markKnownBaseClass(newKnownBase);
                 return;
             }
             if (this.knownBase == null) {
@@ -584,7 +651,7 @@ public class InferredJavaType {
 
         @Override
         public JavaTypeInstance getKnownBaseType() {
-            if (isDelegate) return delegate.getKnownBaseType();
+            if (isDelegate) return next().getKnownBaseType();
             return knownBase;
         }
 
@@ -594,7 +661,7 @@ public class InferredJavaType {
                 isDelegate = false;
             }
             if (isDelegate) {
-                delegate.forceType(rawJavaType, ignoreLock);
+                next().forceType(rawJavaType, ignoreLock);
             } else {
                 this.type = rawJavaType;
             }
@@ -42,7 +42,7 @@ public class VariableNamerDefault implements VariableNamer {
         return ListFactory.newList(cached.values());
     }
 
-    private final Pattern indexedVarPattern = Pattern.compile("^(.*[^\\d]+)([\\d]+)$");
+    private static final Pattern indexedVarPattern = Pattern.compile("^(.*[^\\d]+)([\\d]+)$");
 
     @Override
     public void mutatingRenameUnClash(NamedVariable toRename) {
@@ -2,10 +2,15 @@ package org.benf.cfr.reader.bytecode.analysis.variables;
 
 import org.benf.cfr.reader.entities.constantpool.ConstantPool;
 import org.benf.cfr.reader.entities.attributes.AttributeLocalVariableTable;
+import org.benf.cfr.reader.util.functors.NonaryFunction;
 
 public class VariableNamerFactory {
     public static VariableNamer getNamer(AttributeLocalVariableTable source, ConstantPool cp) {
         if (source == null) return new VariableNamerDefault();
         return new VariableNamerHinted(source.getLocalVariableEntryList(), cp);
     }
+
+    public static VariableNamer getLazyNamer(NonaryFunction<VariableNamer> factory) {
+        return new VariableNamerLazy(factory);
+    }
 }
@@ -0,0 +1,46 @@
+package org.benf.cfr.reader.bytecode.analysis.variables;
+
+import org.benf.cfr.reader.util.functors.NonaryFunction;
+
+import java.util.List;
+
+/*
+ * Most methods we load are never analysed (they're on classes we only look at for their prototypes, supers etc),
+ * so don't build the real namer (and parse the local variable table it needs) until it's actually used.
+ */
+class VariableNamerLazy implements VariableNamer {
+    private NonaryFunction<VariableNamer> factory;
+    private VariableNamer delegate;
+
+    VariableNamerLazy(NonaryFunction<VariableNamer> factory) {
+        this.factory = factory;
+    }
+
+    private VariableNamer getDelegate() {
+        if (delegate == null) {
+            delegate = factory.invoke();
+            factory = null;
+        }
+        return delegate;
+    }
+
+    @Override
+    public NamedVariable getName(int originalRawOffset, Ident ident, long stackPosition, boolean clashed) {
+        return getDelegate().getName(originalRawOffset, ident, stackPosition, clashed);
+    }
+
+    @Override
+    public List<NamedVariable> getNamedVariables() {
+        return getDelegate().getNamedVariables();
+    }
+
+    @Override
+    public void mutatingRenameUnClash(NamedVariable toRename) {
+        getDelegate().mutatingRenameUnClash(toRename);
+    }
+
+    @Override
+    public void forceName(Ident ident, long stackPosition, String name) {
+        getDelegate().forceName(ident, stackPosition, name);
+    }
+}
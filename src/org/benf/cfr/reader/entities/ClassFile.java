@@ -52,6 +52,7 @@ import org.benf.cfr.reader.entityfactories.ContiguousEntityFactory;
 import org.benf.cfr.reader.relationship.MemberNameResolver;
 import org.benf.cfr.reader.state.DCCommonState;
 import org.benf.cfr.reader.state.InnerClassTypeUsageInformation;
+import org.benf.cfr.reader.state.MethodAnalysisPool;
 import org.benf.cfr.reader.state.OverloadMethodSetCache;
 import org.benf.cfr.reader.state.TypeUsageCollectingDumper;
 import org.benf.cfr.reader.state.TypeUsageCollector;
@@ -79,6 +80,7 @@ import org.benf.cfr.reader.util.output.Dumper;
 import org.benf.cfr.reader.util.output.IllegalIdentifierReplacement;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -102,7 +104,7 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
 
     private final List<Method> methods;
     private FakeMethods fakeMethods;
-    private Map<String, List<Method>> methodsByName; // Lazily populated if interrogated.
+    private volatile Map<String, List<Method>> methodsByName; // Lazily populated if interrogated.
     private final boolean isInnerClass;
     private final Map<JavaTypeInstance, Pair<InnerClassAttributeInfo, ClassFile>> innerClassesByTypeInfo; // populated if analysed.
 
@@ -126,7 +128,7 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
      */
     private boolean hiddenInnerClass;
 
-    private BindingSuperContainer boundSuperClasses;
+    private volatile BindingSuperContainer boundSuperClasses;
 
     private ClassFileDumper dumpHelper;
 
@@ -409,12 +411,12 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
         return accessFlags.contains(AccessFlag.ACC_INTERFACE);
     }
 
-    public void addComment(DecompilerComment comment) {
+    public synchronized void addComment(DecompilerComment comment) {
         if (decompilerComments == null) decompilerComments = new DecompilerComments();
         decompilerComments.addComment(comment);
     }
 
-    public void addComment(String comment) {
+    public synchronized void addComment(String comment) {
         ensureDecompilerComments();
         decompilerComments.addComment(comment);
     }
@@ -432,7 +434,7 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
         return decompilerComments;
     }
 
-    public FakeMethod addFakeMethod(Object key, String nameHint, UnaryFunction<String, FakeMethod> methodFactory) {
+    public synchronized FakeMethod addFakeMethod(Object key, String nameHint, UnaryFunction<String, FakeMethod> methodFactory) {
         if (fakeMethods == null) fakeMethods = new FakeMethods();
         return fakeMethods.add(key, nameHint, methodFactory);
     }
@@ -506,7 +508,7 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
         return formalTypeParameters != null && !formalTypeParameters.isEmpty();
     }
 
-    private void ensureFieldsByName() {
+    private synchronized void ensureFieldsByName() {
         if (fieldsByName == null) {
             calculateFieldsByName();
         }
@@ -541,9 +543,7 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
     }
 
     public ClassFileField getFieldByName(String name, JavaTypeInstance type) throws NoSuchFieldException {
-        if (fieldsByName == null) {
-            calculateFieldsByName();
-        }
+        ensureFieldsByName();
         Map<JavaTypeInstance, ClassFileField> fieldsByType = fieldsByName.get(name);
         if (fieldsByType == null || fieldsByType.isEmpty()) { // can't be empty, but....
             throw new NoSuchFieldException(name);
@@ -753,18 +753,20 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
     }
 
     public List<Method> getMethodsByNameOrNull(String name) {
-        if (methodsByName == null) {
-            methodsByName = MapFactory.newMap();
+        Map<String, List<Method>> byName = methodsByName;
+        if (byName == null) {
+            byName = MapFactory.newMap();
             for (Method method : methods) {
-                List<Method> list = methodsByName.get(method.getName());
+                List<Method> list = byName.get(method.getName());
                 if (list == null) {
                     list = ListFactory.newList();
-                    methodsByName.put(method.getName(), list);
+                    byName.put(method.getName(), list);
                 }
                 list.add(method);
             }
+            methodsByName = byName;
         }
-        return methodsByName.get(name);
+        return byName.get(name);
     }
 
     public List<Method> getMethodByName(String name) throws NoSuchMethodException {
@@ -903,6 +905,24 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
         return state.getObfuscationMapping().getInnerClassInfo(getClassType());
     }
 
+    /*
+     * The InnerClasses attribute lists every nested class which is referred to - including those which belong to
+     * entirely different classes.  This collects them for this class, and any inner classes which have been loaded.
+     */
+    public void collectReferencedInnerClassTypes(DCCommonState state, Collection<JavaTypeInstance> into) {
+        List<InnerClassAttributeInfo> innerClassAttributeInfoList = getInnerClassAttributeInfos(state);
+        if (innerClassAttributeInfoList != null) {
+            for (InnerClassAttributeInfo innerClassAttributeInfo : innerClassAttributeInfoList) {
+                JavaTypeInstance innerType = innerClassAttributeInfo.getInnerClassInfo();
+                if (innerType != null) into.add(innerType);
+            }
+        }
+        if (innerClassesByTypeInfo == null) return;
+        for (Pair<InnerClassAttributeInfo, ClassFile> innerClassInfoClassFilePair : innerClassesByTypeInfo.values()) {
+            innerClassInfoClassFilePair.getSecond().collectReferencedInnerClassTypes(state, into);
+        }
+    }
+
     private void analyseInnerClassesPass1(DCCommonState state) {
         if (innerClassesByTypeInfo == null) return;
         for (Pair<InnerClassAttributeInfo, ClassFile> innerClassInfoClassFilePair : innerClassesByTypeInfo.values()) {
@@ -935,6 +955,10 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
         });
         /*
          * Perform a pass to determine what imports / classes etc we used / failed.
+         *
+         * This can't be folded into the real dump (by recording it and patching type names in once imports are
+         * known) - pass 3 below rewrites the class based on what it finds, and the real dump asks its
+         * TypeUsageInformation for more than names (static imports, clashes with fields and inner classes).
          */
         this.dump(typeUsageCollectingDumper);
         analysePassOuterFirst(new UnaryProcedure<ClassFile>() {
@@ -1009,7 +1033,7 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
 
 
     private void analyseMid(DCCommonState state) {
-        Options options = state.getOptions();
+        final Options options = state.getOptions();
         if (this.begunAnalysis) {
             return;
         }
@@ -1032,15 +1056,22 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
                 return x.getAccessFlags().contains(AccessFlagMethod.ACC_SYNTHETIC);
             }
         });
+        MethodAnalysisPool pool = state.getMethodAnalysisPool();
         // Analyse synthetic methods.
-        for (Method method : partition.getFirst()) {
-            method.analyse();
-            analyseSyntheticTags(method, options);
-        }
-        // Non synthetics.
-        for (Method method : partition.getSecond()) {
-            method.analyse();
-        }
+        analyseMethods(pool, partition.getFirst(), new UnaryProcedure<Method>() {
+            @Override
+            public void call(Method method) {
+                method.analyse();
+                analyseSyntheticTags(method, options);
+            }
+        });
+        // Non synthetics - only once all the synthetics are done, as these may pull them in (eg lambda bodies).
+        analyseMethods(pool, partition.getSecond(), new UnaryProcedure<Method>() {
+            @Override
+            public void call(Method method) {
+                method.analyse();
+            }
+        });
 
         try {
             if (options.getOption(OptionsImpl.OVERRIDES, classFileVersion)) {
@@ -1054,6 +1085,16 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
 
     }
 
+    private static void analyseMethods(MethodAnalysisPool pool, List<Method> methods, UnaryProcedure<Method> fn) {
+        if (pool == null) {
+            for (Method method : methods) {
+                fn.call(method);
+            }
+            return;
+        }
+        pool.forEach(methods, fn);
+    }
+
     public void releaseCode() {
         if (isInnerClass) return;
         for (Method method : methods) {
@@ -1061,6 +1102,21 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
         }
     }
 
+    /*
+     * Did analysis of any method (including those of inner classes) run into an analysis budget?  If so, what we
+     * dump isn't reproducible.
+     */
+    public boolean isAnalysisBudgetExceeded() {
+        for (Method method : methods) {
+            if (method.isAnalysisBudgetExceeded()) return true;
+        }
+        if (innerClassesByTypeInfo == null) return false;
+        for (Pair<InnerClassAttributeInfo, ClassFile> innerClassInfoClassFilePair : innerClassesByTypeInfo.values()) {
+            if (innerClassInfoClassFilePair.getSecond().isAnalysisBudgetExceeded()) return true;
+        }
+        return false;
+    }
+
     public JavaTypeInstance getClassType() {
         return thisClass.getTypeInstance();
     }
@@ -1253,10 +1309,12 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
     public BindingSuperContainer getBindingSupers() {
         // Start with the generic version of this type, i.e. if this is Fred<X>
 
-        if (boundSuperClasses == null) {
-            boundSuperClasses = generateBoundSuperClasses();
+        BindingSuperContainer res = boundSuperClasses;
+        if (res == null) {
+            res = generateBoundSuperClasses();
+            boundSuperClasses = res;
         }
-        return boundSuperClasses;
+        return res;
     }
 
     private BindingSuperContainer generateBoundSuperClasses() {
@@ -1378,11 +1436,11 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
 
     private List<ConstructorInvokationSimple> methodUsages = ListFactory.newList();
 
-    public void noteAnonymousUse(ConstructorInvokationAnonymousInner anoynmousInner) {
+    public synchronized void noteAnonymousUse(ConstructorInvokationAnonymousInner anoynmousInner) {
         anonymousUsages.add(anoynmousInner);
     }
 
-    public void noteMethodUse(ConstructorInvokationSimple constructorCall) {
+    public synchronized void noteMethodUse(ConstructorInvokationSimple constructorCall) {
         methodUsages.add(constructorCall);
     }
 
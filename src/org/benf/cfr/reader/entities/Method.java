@@ -28,6 +28,7 @@ import org.benf.cfr.reader.util.collections.CollectionUtils;
 import org.benf.cfr.reader.util.collections.Functional;
 import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
+import org.benf.cfr.reader.util.functors.NonaryFunction;
 import org.benf.cfr.reader.util.functors.Predicate;
 import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.getopt.Options;
@@ -99,6 +100,7 @@ public class Method implements KnowsRawSize, TypeUsageCollectable {
     private DecompilerComments comments;
     private final Map<JavaRefTypeInstance, String> localClasses = MapFactory.newOrderedMap();
     private boolean isOverride;
+    private volatile boolean analysisBudgetExceeded;
     private transient Set<JavaTypeInstance> thrownTypes = null;
 
     public Method(ByteData raw, ClassFile classFile, final ConstantPool cp, final DCCommonState dcCommonState, final ClassFileVersion classFileVersion) {
@@ -141,15 +143,21 @@ public class Method implements KnowsRawSize, TypeUsageCollectable {
             classFile.getAccessFlags().add(AccessFlag.ACC_STRICT);
         }
 
-        AttributeCode codeAttribute = attributes.getByName(AttributeCode.ATTRIBUTE_NAME);
+        final AttributeCode codeAttribute = attributes.getByName(AttributeCode.ATTRIBUTE_NAME);
         if (codeAttribute == null) {
             // Because we don't have a code attribute, we don't have a local variable table.
             this.variableNamer = VariableNamerFactory.getNamer(null, cp);
             this.codeAttribute = null;
         } else {
             this.codeAttribute = codeAttribute;
-            AttributeLocalVariableTable variableTable = options.getOption(OptionsImpl.USE_NAME_TABLE) ? this.codeAttribute.getLocalVariableTable() : null;
-            this.variableNamer = VariableNamerFactory.getNamer(variableTable, cp);
+            final boolean useNameTable = options.getOption(OptionsImpl.USE_NAME_TABLE);
+            this.variableNamer = VariableNamerFactory.getLazyNamer(new NonaryFunction<VariableNamer>() {
+                @Override
+                public VariableNamer invoke() {
+                    AttributeLocalVariableTable variableTable = useNameTable ? codeAttribute.getLocalVariableTable() : null;
+                    return VariableNamerFactory.getNamer(variableTable, cp);
+                }
+            });
             // This rigamarole is neccessary because we don't provide the factory for the code attribute enough information
             // to get the Method (this).
             this.codeAttribute.setMethod(this);
@@ -577,6 +585,14 @@ public class Method implements KnowsRawSize, TypeUsageCollectable {
         }
     }
 
+    public void setAnalysisBudgetExceeded() {
+        analysisBudgetExceeded = true;
+    }
+
+    public boolean isAnalysisBudgetExceeded() {
+        return analysisBudgetExceeded;
+    }
+
     private void addComment(DecompilerComment comment) {
         if (comments == null) {
             comments = new DecompilerComments();
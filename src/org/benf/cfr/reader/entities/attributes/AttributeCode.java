@@ -26,8 +26,17 @@ public class AttributeCode extends Attribute {
     private final int maxStack;
     private final int maxLocals;
     private final int codeLength;
-    private final List<ExceptionTableEntry> exceptionTableEntries;
-    private final AttributeMap attributes;
+    /*
+     * The exception table and nested attributes are only needed if this method is analysed, which most methods we
+     * load (on classes we've only loaded to look at their members) never are - so they're not parsed until then.
+     *
+     * With --methodthreads, methods of one class are analysed concurrently, and may look at each other's code (eg to
+     * inline a lambda body) - so parsing them is synchronized.
+     */
+    private List<ExceptionTableEntry> exceptionTableEntries;
+    private AttributeMap attributes;
+    private final ByteData rawExceptionTableAndAttributes;
+    private final ClassFileVersion classFileVersion;
     private final ConstantPool cp;
     private final ByteData rawData;
 
@@ -62,7 +71,16 @@ public class AttributeCode extends Attribute {
         this.maxLocals = maxLocals;
         this.codeLength = codeLength;
 
-        final long OFFSET_OF_EXCEPTION_TABLE_LENGTH = OFFSET_OF_CODE + codeLength;
+        this.classFileVersion = classFileVersion;
+        this.rawExceptionTableAndAttributes = raw.getOffsetData(OFFSET_OF_CODE + codeLength);
+        this.rawData = raw.getOffsetData(OFFSET_OF_CODE);
+        this.codeAnalyser = new CodeAnalyser(this);
+    }
+
+    private synchronized void parseExceptionTableAndAttributes() {
+        if (attributes != null) return;
+        ByteData raw = rawExceptionTableAndAttributes;
+        final long OFFSET_OF_EXCEPTION_TABLE_LENGTH = 0;
         final long OFFSET_OF_EXCEPTION_TABLE = OFFSET_OF_EXCEPTION_TABLE_LENGTH + 2;
 
         ArrayList<ExceptionTableEntry> etis = new ArrayList<ExceptionTableEntry>();
@@ -71,7 +89,6 @@ public class AttributeCode extends Attribute {
         final long numBytesExceptionInfo =
                 ContiguousEntityFactory.buildSized(raw.getOffsetData(OFFSET_OF_EXCEPTION_TABLE), numExceptions, 8, etis,
                         ExceptionTableEntry.getBuilder());
-        this.exceptionTableEntries = etis;
 
         final long OFFSET_OF_ATTRIBUTES_COUNT = OFFSET_OF_EXCEPTION_TABLE + numBytesExceptionInfo;
         final long OFFSET_OF_ATTRIBUTES = OFFSET_OF_ATTRIBUTES_COUNT + 2;
@@ -80,10 +97,8 @@ public class AttributeCode extends Attribute {
         tmpAttributes.ensureCapacity(numAttributes);
         ContiguousEntityFactory.build(raw.getOffsetData(OFFSET_OF_ATTRIBUTES), numAttributes, tmpAttributes,
                 AttributeFactory.getBuilder(cp, classFileVersion));
+        this.exceptionTableEntries = etis;
         this.attributes = new AttributeMap(tmpAttributes);
-
-        this.rawData = raw.getOffsetData(OFFSET_OF_CODE);
-        this.codeAnalyser = new CodeAnalyser(this);
     }
 
     public void setMethod(Method method) {
@@ -99,19 +114,23 @@ public class AttributeCode extends Attribute {
     }
 
     public AttributeLocalVariableTable getLocalVariableTable() {
-        return attributes.getByName(AttributeLocalVariableTable.ATTRIBUTE_NAME);
+        return getAttributes().getByName(AttributeLocalVariableTable.ATTRIBUTE_NAME);
+    }
+
+    public AttributeStackMapTable getStackMapTable() {
+        return getAttributes().getByName(AttributeStackMapTable.ATTRIBUTE_NAME);
     }
 
     public AttributeLineNumberTable getLineNumberTable() {
-        return attributes.getByName(AttributeLineNumberTable.ATTRIBUTE_NAME);
+        return getAttributes().getByName(AttributeLineNumberTable.ATTRIBUTE_NAME);
     }
 
     public AttributeRuntimeVisibleTypeAnnotations getRuntimeVisibleTypeAnnotations() {
-        return attributes.getByName(AttributeRuntimeVisibleTypeAnnotations.ATTRIBUTE_NAME);
+        return getAttributes().getByName(AttributeRuntimeVisibleTypeAnnotations.ATTRIBUTE_NAME);
     }
 
     public AttributeRuntimeInvisibleTypeAnnotations getRuntimeInvisibleTypeAnnotations() {
-        return attributes.getByName(AttributeRuntimeInvisibleTypeAnnotations.ATTRIBUTE_NAME);
+        return getAttributes().getByName(AttributeRuntimeInvisibleTypeAnnotations.ATTRIBUTE_NAME);
     }
 
     public ByteData getRawData() {
@@ -119,6 +138,7 @@ public class AttributeCode extends Attribute {
     }
 
     public List<ExceptionTableEntry> getExceptionTableEntries() {
+        parseExceptionTableAndAttributes();
         return exceptionTableEntries;
     }
 
@@ -147,7 +167,7 @@ public class AttributeCode extends Attribute {
 
     @Override
     public void collectTypeUsages(TypeUsageCollector collector) {
-        attributes.collectTypeUsages(collector);
+        getAttributes().collectTypeUsages(collector);
     }
 
     public void releaseCode() {
@@ -155,6 +175,7 @@ public class AttributeCode extends Attribute {
     }
 
     public AttributeMap getAttributes() {
+        parseExceptionTableAndAttributes();
         return attributes;
     }
 }
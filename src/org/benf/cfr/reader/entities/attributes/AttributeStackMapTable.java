@@ -3,11 +3,15 @@ package org.benf.cfr.reader.entities.attributes;
 import org.benf.cfr.reader.entities.constantpool.ConstantPool;
 import org.benf.cfr.reader.util.ClassFileVersion;
 import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.bytestream.ByteData;
 import org.benf.cfr.reader.util.bytestream.OffsettingByteData;
 import org.benf.cfr.reader.util.output.Dumper;
 
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /*
  * https://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html#jvms-4.7.4
@@ -55,8 +59,7 @@ public class AttributeStackMapTable extends Attribute {
     }
 
     /*
-     * NB : Currently unused - until I actually make use of this, doesn't seem worth consuming the
-     * memory.
+     * Only used with usestackmaps - otherwise, doesn't seem worth consuming the memory.
      */
     public AttributeStackMapTable(ByteData raw, ConstantPool cp, ClassFileVersion classFileVersion) {
         this.length = raw.getS4At(OFFSET_OF_ATTRIBUTE_LENGTH);
@@ -81,8 +84,53 @@ public class AttributeStackMapTable extends Attribute {
         return valid;
     }
 
-    public List<StackMapFrame> getStackMapFrames() {
-        return stackMapFrames;
+    /*
+     * The number of values on the stack (not words - a long is one value) at the start of the instruction each
+     * frame is for, by bytecode offset.
+     */
+    public Map<Integer, Integer> getStackDepths() {
+        Map<Integer, Integer> res = MapFactory.newOrderedMap();
+        int offset = -1;
+        for (StackMapFrame frame : stackMapFrames) {
+            offset += frame.getOffsetDelta() + 1;
+            res.put(offset, frame.getStackSize());
+        }
+        return res;
+    }
+
+    /*
+     * The local slots which can't be read at each frame (by bytecode offset) without being stored to first - those
+     * which are top, or beyond the frame's locals.
+     *
+     * Frames other than full frames are relative to the previous one, starting from an implicit frame which holds
+     * the arguments - initialCategories is the computational category of each of those (including this).
+     */
+    public Map<Integer, BitSet> getDeadSlots(List<Integer> initialCategories, int maxLocals) {
+        List<VerificationInfo> locals = ListFactory.newList();
+        for (Integer category : initialCategories) {
+            // We only care which slots are live, so these are just placeholders of the right size.
+            locals.add(category == 2 ? VerificationInfoLong.INSTANCE : VerificationInfoInteger.INSTANCE);
+        }
+        Map<Integer, BitSet> res = MapFactory.newOrderedMap();
+        int offset = -1;
+        for (StackMapFrame frame : stackMapFrames) {
+            offset += frame.getOffsetDelta() + 1;
+            frame.applyLocals(locals);
+            BitSet dead = new BitSet(maxLocals);
+            dead.set(0, maxLocals);
+            int slot = 0;
+            for (VerificationInfo local : locals) {
+                if (local == VerificationInfoLong.INSTANCE || local == VerificationInfoDouble.INSTANCE) {
+                    dead.clear(slot, slot + 2);
+                    slot += 2;
+                } else {
+                    if (local != VerificationInfoTop.INSTANCE) dead.clear(slot);
+                    slot++;
+                }
+            }
+            res.put(offset, dead);
+        }
+        return res;
     }
 
     private static StackMapFrame readStackMapFrame(OffsettingByteData raw) {
@@ -91,7 +139,7 @@ public class AttributeStackMapTable extends Attribute {
         if (frameType < 64) {
             return new StackMapFrameSameFrame(frameType);
         }
-        if (frameType < 127) {
+        if (frameType < 128) {
             return same_locals_1_stack_item_frame(frameType, raw);
         }
         if (frameType < 247) {
@@ -221,6 +269,15 @@ public class AttributeStackMapTable extends Attribute {
     }
 
     private interface StackMapFrame {
+        int getOffsetDelta();
+
+        int getStackSize();
+
+        /*
+         * Turn the locals (one entry per local, so a long / double is one entry for two slots) of the previous
+         * frame into the locals of this one.
+         */
+        void applyLocals(List<VerificationInfo> locals);
     }
 
     private static class StackMapFrameSameFrame implements StackMapFrame {
@@ -230,6 +287,19 @@ public class AttributeStackMapTable extends Attribute {
             this.id = id;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return id;
+        }
+
+        @Override
+        public int getStackSize() {
+            return 0;
+        }
+
+        @Override
+        public void applyLocals(List<VerificationInfo> locals) {
+        }
     }
 
     private static class StackMapFrameSameLocals1SameItemFrame implements StackMapFrame {
@@ -241,6 +311,19 @@ public class AttributeStackMapTable extends Attribute {
             this.verificationInfo = verificationInfo;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return id - 64;
+        }
+
+        @Override
+        public int getStackSize() {
+            return 1;
+        }
+
+        @Override
+        public void applyLocals(List<VerificationInfo> locals) {
+        }
     }
 
     private static class StackMapFrameSameLocals1SameItemFrameExtended implements StackMapFrame {
@@ -252,6 +335,19 @@ public class AttributeStackMapTable extends Attribute {
             this.verificationInfo = verificationInfo;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public int getStackSize() {
+            return 1;
+        }
+
+        @Override
+        public void applyLocals(List<VerificationInfo> locals) {
+        }
     }
 
     private static class StackMapFrameChopFrame implements StackMapFrame {
@@ -262,6 +358,27 @@ public class AttributeStackMapTable extends Attribute {
             this.frame_type = frame_type;
             this.offset_delta = offset_delta;
         }
+
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public int getStackSize() {
+            return 0;
+        }
+
+        @Override
+        public void applyLocals(List<VerificationInfo> locals) {
+            int chop = 251 - frame_type;
+            if (chop > locals.size()) {
+                throw new IllegalStateException("Chop frame removes more locals than there are");
+            }
+            for (int x = 0; x < chop; ++x) {
+                locals.remove(locals.size() - 1);
+            }
+        }
     }
 
     private static class StackMapFrameSameFrameExtended implements StackMapFrame {
@@ -271,6 +388,19 @@ public class AttributeStackMapTable extends Attribute {
             this.offset_delta = offset_delta;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public int getStackSize() {
+            return 0;
+        }
+
+        @Override
+        public void applyLocals(List<VerificationInfo> locals) {
+        }
     }
 
     private static class StackMapFrameAppendFrame implements StackMapFrame {
@@ -284,6 +414,20 @@ public class AttributeStackMapTable extends Attribute {
             this.verificationInfos = verificationInfos;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public int getStackSize() {
+            return 0;
+        }
+
+        @Override
+        public void applyLocals(List<VerificationInfo> locals) {
+            Collections.addAll(locals, verificationInfos);
+        }
     }
 
     private static class StackMapFrameFullFrame implements StackMapFrame {
@@ -297,6 +441,21 @@ public class AttributeStackMapTable extends Attribute {
             this.verificationStackItems = verificationStackItems;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public int getStackSize() {
+            return verificationStackItems.length;
+        }
+
+        @Override
+        public void applyLocals(List<VerificationInfo> locals) {
+            locals.clear();
+            Collections.addAll(locals, verificationLocals);
+        }
     }
     /*
      * Be nice to make this an enum, but we can't as variable info is ... variable.
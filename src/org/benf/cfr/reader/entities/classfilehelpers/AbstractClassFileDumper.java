@@ -19,6 +19,7 @@ import org.benf.cfr.reader.util.DecompilerComments;
 import org.benf.cfr.reader.util.MiscConstants;
 import org.benf.cfr.reader.util.collections.Functional;
 import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.functors.Predicate;
 import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.getopt.Options;
@@ -97,7 +98,8 @@ abstract class AbstractClassFileDumper implements ClassFileDumper {
          * and don't want to strip obfuscated names.
          */
         List<JavaTypeInstance> classTypes = d.getObfuscationMapping().get(classFile.getAllClassTypes());
-        Set<JavaRefTypeInstance> types = d.getTypeUsageInformation().getShortenedClassTypes();
+        // Copy, as we're about to modify this, and the class may be dumped more than once.
+        Set<JavaRefTypeInstance> types = SetFactory.newOrderedSet(d.getTypeUsageInformation().getShortenedClassTypes());
         //noinspection SuspiciousMethodCalls
         types.removeAll(classTypes);
         /*
@@ -127,7 +129,7 @@ abstract class AbstractClassFileDumper implements ClassFileDumper {
         }));
 
         Options options = dcCommonState.getOptions();
-        final IllegalIdentifierDump iid = IllegalIdentifierDump.Factory.getOrNull(options);
+        final IllegalIdentifierDump iid = dcCommonState.getIllegalIdentifierDumpOrNull();
 
         Collection<JavaRefTypeInstance> importTypes = types;
         if (options.getOption(OptionsImpl.HIDE_LANG_IMPORTS)) {
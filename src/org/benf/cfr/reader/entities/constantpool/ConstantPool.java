@@ -11,6 +11,8 @@ import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.output.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ConstantPool {
@@ -24,21 +26,21 @@ public class ConstantPool {
     private final ClassFile classFile;
     private String comparisonKey;
     private boolean isLoaded;
-    private final int idx = sidx++;
-    private static int sidx = 0;
+    private final int idx = sidx.getAndIncrement();
+    private static final AtomicInteger sidx = new AtomicInteger();
     private final boolean dynamicConstants;
 
     public ConstantPool(ClassFile classFile, DCCommonState dcCommonState, ByteData raw, int count) {
         this.classFile = classFile;
         this.options = dcCommonState.getOptions();
+        this.dcCommonState = dcCommonState;
+        this.classCache = dcCommonState.getClassCache();
         count--;
 
         RawTmp tmp = processRaw(raw, count);
         this.entries = tmp.entries;
         this.length = tmp.rawLength;
         this.dynamicConstants = tmp.dynamicConstants;
-        this.dcCommonState = dcCommonState;
-        this.classCache = dcCommonState.getClassCache();
         this.isLoaded = true;
     }
 
@@ -70,7 +72,9 @@ public class ConstantPool {
         List<ConstantPoolEntry> tgt = ListFactory.newList(count);
         OffsettingByteData data = raw.getOffsettingOffsetData(0);
         boolean dynamicConstant = false;
-        logger.info("Processing " + count + " constpool entries.");
+        // Building these messages is a significant part of the cost of loading a class - don't unless we'll use them.
+        boolean logging = logger.isLoggable(Level.INFO);
+        if (logging) logger.info("Processing " + count + " constpool entries.");
         for (int x = 0; x < count; ++x) {
             ConstantPoolEntry.Type type = ConstantPoolEntry.Type.get(data.getS1At(0));
             ConstantPoolEntry cpe;
@@ -130,7 +134,7 @@ public class ConstantPool {
                 default:
                     throw new ConfusedCFRException("Invalid constant pool entry : " + type);
             }
-            logger.info("" + (x + 1) + " : " + cpe);
+            if (logging) logger.info("" + (x + 1) + " : " + cpe);
             tgt.add(cpe);
             switch (type) {
                 case CPT_Double:
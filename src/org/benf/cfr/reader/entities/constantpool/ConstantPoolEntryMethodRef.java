@@ -21,7 +21,8 @@ public class ConstantPoolEntryMethodRef extends AbstractConstantPoolEntry {
     @SuppressWarnings({"FieldCanBeLocal", "unused"})
     private final boolean interfaceMethod;
     private static final VariableNamer fakeNamer = new VariableNamerDefault();
-    private MethodPrototype methodPrototype = null;
+    // May be computed by more than one thread (with --methodthreads) - they'll agree.
+    private volatile MethodPrototype methodPrototype = null;
 
     private final int classIndex;
     private final int nameAndTypeIndex;
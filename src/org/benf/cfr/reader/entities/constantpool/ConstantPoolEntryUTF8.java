@@ -17,8 +17,6 @@ public class ConstantPoolEntryUTF8 extends AbstractConstantPoolEntry {
     private final int length;
     private final String value;
 
-    private static int idx;
-
     public ConstantPoolEntryUTF8(ConstantPool cp, ByteData data, Options options) {
         super(cp);
         this.length = data.getU2At(OFFSET_OF_LENGTH);
@@ -61,7 +59,7 @@ public class ConstantPoolEntryUTF8 extends AbstractConstantPoolEntry {
             tmpValue = new String(bytes, UTF8_CHARSET);
         }
         if (tmpValue.length() > 512 && options.getOption(OptionsImpl.HIDE_LONGSTRINGS)) {
-            tmpValue = "longStr" + idx++ + "[" + tmpValue.substring(0, 10).replace('\r', '_').replace('\n', '_') + "]";
+            tmpValue = "longStr" + cp.getDCCommonState().getNextLongStringIdx() + "[" + tmpValue.substring(0, 10).replace('\r', '_').replace('\n', '_') + "]";
         }
         this.value = tmpValue;
     }
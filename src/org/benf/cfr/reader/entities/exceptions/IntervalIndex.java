@@ -0,0 +1,163 @@
+package org.benf.cfr.reader.entities.exceptions;
+
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.SetFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Exception table entries, indexed both by the offset they start at and by the offset they end at.
+ *
+ * Each index is a segment tree over bytecode offsets (of which there can't be more than 64K), where every node
+ * knows the latest end (or earliest start) of any entry beneath it.  So finding the entries which straddle one end
+ * of a range only visits the nodes which lead to them, rather than everything which starts before the range.
+ *
+ * Entries at the same offset are kept in the order they were added.
+ */
+class IntervalIndex {
+    private final OffsetTree starts;
+    private final OffsetTree ends;
+
+    IntervalIndex(int maxOffset) {
+        this.starts = new OffsetTree(maxOffset) {
+            @Override
+            int keyOf(ExceptionTableEntry e) {
+                return e.getBytecodeIndexFrom();
+            }
+
+            @Override
+            int valueOf(ExceptionTableEntry e) {
+                return e.getBytecodeIndexTo();
+            }
+        };
+        // Negated, so that the earliest start is the greatest value.
+        this.ends = new OffsetTree(maxOffset) {
+            @Override
+            int keyOf(ExceptionTableEntry e) {
+                return e.getBytecodeIndexTo();
+            }
+
+            @Override
+            int valueOf(ExceptionTableEntry e) {
+                return -e.getBytecodeIndexFrom();
+            }
+        };
+    }
+
+    void add(ExceptionTableEntry e) {
+        starts.add(e);
+        ends.add(e);
+    }
+
+    /*
+     * Removing an entry which isn't present is fine.
+     */
+    void remove(ExceptionTableEntry e) {
+        starts.remove(e);
+        ends.remove(e);
+    }
+
+    /*
+     * Entries with start < from, and from < end < to - in order of end.
+     */
+    Set<ExceptionTableEntry> getOverlappingStart(int from, int to) {
+        Set<ExceptionTableEntry> res = SetFactory.newOrderedSet();
+        ends.collect(from + 1, to - 1, -from, res);
+        return res;
+    }
+
+    /*
+     * Entries with from < start < to, and end > to - in order of start.
+     */
+    Set<ExceptionTableEntry> getOverlappingEnd(int from, int to) {
+        Set<ExceptionTableEntry> res = SetFactory.newOrderedSet();
+        starts.collect(from + 1, to - 1, to, res);
+        return res;
+    }
+
+    /*
+     * Everything, in order of start.
+     */
+    List<ExceptionTableEntry> getEntries() {
+        List<ExceptionTableEntry> res = ListFactory.newList();
+        starts.collect(0, Integer.MAX_VALUE, Integer.MIN_VALUE, res);
+        return res;
+    }
+
+    private static abstract class OffsetTree {
+        private final int leaves;
+        // greatest value beneath each node, or MIN_VALUE if there's nothing there.  Node 1 is the root, the children
+        // of n are 2n and 2n+1, and the leaf for offset x is leaves + x.
+        private final int[] greatest;
+        private final List<Set<ExceptionTableEntry>> buckets;
+
+        OffsetTree(int maxOffset) {
+            int leaves = 1;
+            while (leaves <= maxOffset) leaves <<= 1;
+            this.leaves = leaves;
+            this.greatest = new int[leaves * 2];
+            for (int x = 0; x < greatest.length; ++x) {
+                greatest[x] = Integer.MIN_VALUE;
+            }
+            this.buckets = ListFactory.newList(leaves);
+            for (int x = 0; x < leaves; ++x) {
+                buckets.add(null);
+            }
+        }
+
+        abstract int keyOf(ExceptionTableEntry e);
+
+        abstract int valueOf(ExceptionTableEntry e);
+
+        void add(ExceptionTableEntry e) {
+            int key = keyOf(e);
+            Set<ExceptionTableEntry> bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = SetFactory.newOrderedSet();
+                buckets.set(key, bucket);
+            }
+            if (!bucket.add(e)) return;
+            int value = valueOf(e);
+            for (int node = leaves + key; node > 0 && greatest[node] < value; node >>= 1) {
+                greatest[node] = value;
+            }
+        }
+
+        void remove(ExceptionTableEntry e) {
+            int key = keyOf(e);
+            Set<ExceptionTableEntry> bucket = buckets.get(key);
+            if (bucket == null || !bucket.remove(e)) return;
+            int value = Integer.MIN_VALUE;
+            for (ExceptionTableEntry other : bucket) {
+                value = Math.max(value, valueOf(other));
+            }
+            int node = leaves + key;
+            greatest[node] = value;
+            for (node >>= 1; node > 0; node >>= 1) {
+                greatest[node] = Math.max(greatest[2 * node], greatest[2 * node + 1]);
+            }
+        }
+
+        /*
+         * Add entries with lo <= key <= hi and value > above, in order of key.
+         */
+        void collect(int lo, int hi, int above, Collection<ExceptionTableEntry> res) {
+            collect(1, 0, leaves - 1, lo, hi, above, res);
+        }
+
+        private void collect(int node, int nodeLo, int nodeHi, int lo, int hi, int above, Collection<ExceptionTableEntry> res) {
+            if (nodeHi < lo || nodeLo > hi || greatest[node] <= above) return;
+            if (node >= leaves) {
+                for (ExceptionTableEntry e : buckets.get(nodeLo)) {
+                    if (valueOf(e) > above) res.add(e);
+                }
+                return;
+            }
+            int mid = (nodeLo + nodeHi) >>> 1;
+            collect(2 * node, nodeLo, mid, lo, hi, above, res);
+            collect(2 * node + 1, mid + 1, nodeHi, lo, hi, above, res);
+        }
+    }
+}
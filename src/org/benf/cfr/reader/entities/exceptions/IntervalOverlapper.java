@@ -1,18 +1,21 @@
 package org.benf.cfr.reader.entities.exceptions;
 
 import org.benf.cfr.reader.util.collections.ListFactory;
-import org.benf.cfr.reader.util.collections.MapFactory;
-import org.benf.cfr.reader.util.collections.SetFactory;
 
 import java.util.*;
 
 public class IntervalOverlapper {
 
 
-    private final NavigableMap<Integer, Set<ExceptionTableEntry>> starts = MapFactory.newTreeMap();
-    private final NavigableMap<Integer, Set<ExceptionTableEntry>> ends = MapFactory.newTreeMap();
-    
+    private final IntervalIndex index;
+
     IntervalOverlapper(List<ExceptionTableEntry> entries) {
+        int maxOffset = 0;
+        for (ExceptionTableEntry e : entries) {
+            maxOffset = Math.max(maxOffset, e.getBytecodeIndexTo());
+        }
+        // Splitting never takes an entry outside the range covered by the originals.
+        this.index = new IntervalIndex(maxOffset);
         // Should do this in a builder not in a constructor... eww.
         processEntries(entries);
     }
@@ -23,38 +26,16 @@ public class IntervalOverlapper {
         }
     }
 
-    //Apache Harmony throws an NPE when calling methods on value set of a blank map
-    private static <X> Set<X> razeValues(NavigableMap<?, Set<X>> map) {
-        Set<X> res = SetFactory.newOrderedSet();
-        if (map.isEmpty()) return res;
-        for (Set<X> i : map.values()) {
-            res.addAll(i);
-        }
-        return res;
-    }
-
-    /* This is hideous - O(N^2). */
     private void processEntry(ExceptionTableEntry e) {
         final int from = e.getBytecodeIndexFrom();
         final int to = e.getBytecodeIndexTo();
 
         // TODO : This won't ignore 0-2 if we already have 0-7
 
-        // Get the set that started before the start and end before the end.
-        NavigableMap<Integer, Set<ExceptionTableEntry>> startedBeforeStart = starts.headMap(from, false);
-        NavigableMap<Integer, Set<ExceptionTableEntry>> endsBeforeEnd = ends.headMap(to, false);
-        NavigableMap<Integer, Set<ExceptionTableEntry>> endsInside = endsBeforeEnd.tailMap(from, false);
-        // Anything that's in the values of endsInside, AND the values of startedBeforeStart, is 'bad'.
-        // We'll remove them from BOTH starts and ends, split them up, and then add them back again.
-        Set<ExceptionTableEntry> overlapStartsBefore = razeValues(endsInside);
-        overlapStartsBefore.retainAll(razeValues(startedBeforeStart));
-
-        NavigableMap<Integer, Set<ExceptionTableEntry>> endsAfterEnd = ends.tailMap(to, false);
-        NavigableMap<Integer, Set<ExceptionTableEntry>> startedAfterStart = starts.tailMap(from, false);
-        NavigableMap<Integer, Set<ExceptionTableEntry>> startsInside = startedAfterStart.headMap(to, false);
-
-        Set<ExceptionTableEntry> overlapEndsAfter = razeValues(startsInside);
-        overlapEndsAfter.retainAll(razeValues(endsAfterEnd));
+        // Anything that started before the start and ends inside is 'bad'.
+        // We'll remove them, split them up, and then add them back again.
+        Set<ExceptionTableEntry> overlapStartsBefore = index.getOverlappingStart(from, to);
+        Set<ExceptionTableEntry> overlapEndsAfter = index.getOverlappingEnd(from, to);
 
         if (overlapEndsAfter.isEmpty() && overlapStartsBefore.isEmpty()) {
             addEntry(e);
@@ -71,8 +52,7 @@ public class IntervalOverlapper {
             Set<Integer> blockEnds = new TreeSet<Integer>();
             for (ExceptionTableEntry e2 : overlapStartsBefore) {
                 blockEnds.add(e2.getBytecodeIndexTo());
-                starts.get(e2.getBytecodeIndexFrom()).remove(e2);
-                ends.get(e2.getBytecodeIndexTo()).remove(e2);
+                index.remove(e2);
             }
             // Divide e into start->ends[0], ends[0]->ends[1], ends[1] -> ends[2], etc.
             currentFrom = from;
@@ -101,8 +81,7 @@ public class IntervalOverlapper {
             Set<Integer> blockStarts = new TreeSet<Integer>();
             for (ExceptionTableEntry e2 : overlapStartsBefore) {
                 blockStarts.add(e2.getBytecodeIndexFrom());
-                starts.get(e2.getBytecodeIndexFrom()).remove(e2);
-                ends.get(e2.getBytecodeIndexTo()).remove(e2);
+                index.remove(e2);
             }
             List<Integer> revBlockStarts = ListFactory.newList(blockStarts);
             currentTo = to;
@@ -134,20 +113,10 @@ public class IntervalOverlapper {
     }
 
     private void addEntry(ExceptionTableEntry e) {
-        add(starts, e.getBytecodeIndexFrom(), e);
-        add(ends, e.getBytecodeIndexTo(), e);
-    }
-
-    private <A, B> void add(NavigableMap<A, Set<B>> m, A k, B v) {
-        Set<B> b = m.get(k);
-        if (b == null) {
-            b = SetFactory.newOrderedSet();
-            m.put(k, b);
-        }
-        b.add(v);
+        index.add(e);
     }
 
     public List<ExceptionTableEntry> getExceptions() {
-        return ListFactory.newList(razeValues(starts));
+        return index.getEntries();
     }
 }
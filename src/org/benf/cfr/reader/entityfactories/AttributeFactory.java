@@ -6,6 +6,7 @@ import org.benf.cfr.reader.entities.attributes.*;
 import org.benf.cfr.reader.util.ClassFileVersion;
 import org.benf.cfr.reader.util.bytestream.ByteData;
 import org.benf.cfr.reader.util.functors.UnaryFunction;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
 
 public class AttributeFactory {
     private static final long OFFSET_OF_ATTRIBUTE_NAME_INDEX = 0;
@@ -63,6 +64,11 @@ public class AttributeFactory {
             } else if (AttributeLocalVariableTypeTable.ATTRIBUTE_NAME.equals(attributeName)) {
                 return new AttributeLocalVariableTypeTable(raw);
             } else if (AttributeStackMapTable.ATTRIBUTE_NAME.equals(attributeName)) {
+                // Only worth keeping the frames if we're going to use them - and they can't be trusted before 7.
+                if (classFileVersion.equalOrLater(ClassFileVersion.JAVA_7) &&
+                        cp.getDCCommonState().getOptions().getOption(OptionsImpl.USE_STACK_MAPS)) {
+                    return new AttributeStackMapTable(raw, cp, classFileVersion);
+                }
                 return new AttributeStackMapTable(raw, cp);
             } else if (AttributeSynthetic.ATTRIBUTE_NAME.equals(attributeName)) {
                 return new AttributeSynthetic(raw);
@@ -180,7 +180,7 @@ public class Mapping implements ObfuscationMapping {
         public TypeUsageInformation getTypeUsageInformation() {
             if (mappingTypeUsage == null) {
                 TypeUsageInformation dti = delegate.getTypeUsageInformation();
-                TypeUsageInformation dtr = new TypeUsageInformationImpl(options,
+                TypeUsageInformation dtr = new TypeUsageInformationImpl(options, dti.getIid(),
                         (JavaRefTypeInstance)get(dti.getAnalysisType()),
                         SetFactory.newOrderedSet(Functional.map(dti.getUsedClassTypes(), new UnaryFunction<JavaRefTypeInstance, JavaRefTypeInstance>() {
                             @Override
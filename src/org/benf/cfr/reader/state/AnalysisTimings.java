@@ -0,0 +1,172 @@
+package org.benf.cfr.reader.state;
+
+import org.benf.cfr.reader.bytecode.analysis.types.InnerClassInfo;
+import org.benf.cfr.reader.bytecode.analysis.types.JavaTypeInstance;
+import org.benf.cfr.reader.entities.Method;
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Per pass analysis timings, collected if requested with --analysistimings.
+ *
+ * Methods are accumulated against their top level class, and the driver asks for a report (and reset) once it's
+ * finished a class or a jar.  May be shared by several states (and so threads).
+ */
+public class AnalysisTimings {
+    private static final int TOP_PASSES_PER_CLASS = 5;
+
+    private final Map<String, List<MethodTimings>> byClass = MapFactory.newOrderedMap();
+
+    public static class PassStats {
+        private int calls;
+        private long nanos;
+        private long allocated;
+        private long nodesIn;
+        private long nodesOut;
+
+        public void add(long nanos, long allocated, int nodesIn, int nodesOut) {
+            this.calls++;
+            this.nanos += nanos;
+            this.allocated += allocated;
+            this.nodesIn += nodesIn;
+            this.nodesOut += nodesOut;
+        }
+
+        private void add(PassStats other) {
+            this.calls += other.calls;
+            this.nanos += other.nanos;
+            this.allocated += other.allocated;
+            this.nodesIn += other.nodesIn;
+            this.nodesOut += other.nodesOut;
+        }
+    }
+
+    /*
+     * Everything that happened while analysing one method - possibly over several recovery passes.
+     */
+    public static class MethodTimings {
+        private final Method method;
+        private final Map<String, PassStats> passes = MapFactory.newOrderedMap();
+        private int attempts;
+        private long nanos;
+        private int usedPass;
+
+        public MethodTimings(Method method) {
+            this.method = method;
+        }
+
+        public PassStats getPass(String pass) {
+            PassStats res = passes.get(pass);
+            if (res == null) {
+                res = new PassStats();
+                passes.put(pass, res);
+            }
+            return res;
+        }
+
+        public void addAttempt(long nanos) {
+            this.attempts++;
+            this.nanos += nanos;
+        }
+
+        public void setUsedPass(int usedPass) {
+            this.usedPass = usedPass;
+        }
+    }
+
+    public synchronized void add(MethodTimings methodTimings) {
+        String key = getTopLevelType(methodTimings.method.getClassFile().getClassType()).getRawName();
+        List<MethodTimings> methods = byClass.get(key);
+        if (methods == null) {
+            methods = ListFactory.newList();
+            byClass.put(key, methods);
+        }
+        methods.add(methodTimings);
+    }
+
+    private static JavaTypeInstance getTopLevelType(JavaTypeInstance type) {
+        InnerClassInfo ici = type.getInnerClassHereInfo();
+        while (ici.isInnerClass()) {
+            type = ici.getOuterClass();
+            ici = type.getInnerClassHereInfo();
+        }
+        return type;
+    }
+
+    /*
+     * Returns null if nothing has been analysed since the last report.
+     */
+    public synchronized String reportAndReset(String title) {
+        if (byClass.isEmpty()) return null;
+        StringBuilder sb = new StringBuilder();
+        sb.append("Analysis timings for ").append(title).append('\n');
+        Map<String, PassStats> total = MapFactory.newOrderedMap();
+        long totalNanos = 0;
+        int totalMethods = 0;
+        for (Map.Entry<String, List<MethodTimings>> entry : byClass.entrySet()) {
+            Map<String, PassStats> classPasses = MapFactory.newOrderedMap();
+            long classNanos = 0;
+            for (MethodTimings methodTimings : entry.getValue()) {
+                accumulate(methodTimings.passes, classPasses);
+                classNanos += methodTimings.nanos;
+            }
+            accumulate(classPasses, total);
+            totalNanos += classNanos;
+            totalMethods += entry.getValue().size();
+
+            sb.append('\n').append(entry.getKey()).append(" : ").append(entry.getValue().size())
+                    .append(" methods, ").append(millis(classNanos)).append(" ms\n");
+            dumpPasses(sb, classPasses, TOP_PASSES_PER_CLASS);
+            for (MethodTimings methodTimings : entry.getValue()) {
+                sb.append("  ").append(methodTimings.method.getName())
+                        .append(methodTimings.method.getMethodPrototype().getOriginalDescriptor())
+                        .append(" : ").append(millis(methodTimings.nanos)).append(" ms, ")
+                        .append(methodTimings.attempts).append(methodTimings.attempts == 1 ? " attempt" : " attempts")
+                        .append(", recovery pass ").append(methodTimings.usedPass).append('\n');
+            }
+        }
+        sb.append("\nTotal : ").append(byClass.size()).append(" classes, ").append(totalMethods)
+                .append(" methods, ").append(millis(totalNanos)).append(" ms\n");
+        dumpPasses(sb, total, total.size());
+        byClass.clear();
+        return sb.toString();
+    }
+
+    private static void accumulate(Map<String, PassStats> from, Map<String, PassStats> into) {
+        for (Map.Entry<String, PassStats> entry : from.entrySet()) {
+            PassStats stats = into.get(entry.getKey());
+            if (stats == null) {
+                stats = new PassStats();
+                into.put(entry.getKey(), stats);
+            }
+            stats.add(entry.getValue());
+        }
+    }
+
+    private static void dumpPasses(StringBuilder sb, Map<String, PassStats> passes, int max) {
+        List<Map.Entry<String, PassStats>> sorted = ListFactory.newList(passes.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<String, PassStats>>() {
+            @Override
+            public int compare(Map.Entry<String, PassStats> o1, Map.Entry<String, PassStats> o2) {
+                long a = o1.getValue().nanos;
+                long b = o2.getValue().nanos;
+                return a < b ? 1 : (a == b ? 0 : -1);
+            }
+        });
+        sb.append(String.format("  %-60s %8s %10s %12s %10s %10s\n", "Pass", "Calls", "Time ms", "Alloc KB", "Nodes in", "Nodes out"));
+        for (Map.Entry<String, PassStats> entry : sorted.subList(0, Math.min(max, sorted.size()))) {
+            PassStats stats = entry.getValue();
+            sb.append(String.format("  %-60s %8d %10s %12d %10d %10d\n", entry.getKey(), stats.calls, millis(stats.nanos),
+                    stats.allocated / 1024, stats.nodesIn, stats.nodesOut));
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1000000.0);
+    }
+}
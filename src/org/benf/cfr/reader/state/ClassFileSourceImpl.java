@@ -25,6 +25,8 @@ import java.io.InputStreamReader;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.*;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -37,6 +39,10 @@ public class ClassFileSourceImpl implements ClassFileSource2 {
     private final Options options;
     private ClassRenamer classRenamer;
     private ClassFileRelocator classRelocator;
+    private final ZipFileCache zipFiles = new ZipFileCache(MAX_OPEN_JARS);
+    private static final int MAX_OPEN_JARS = 32;
+    private final LibraryContentCache libraryContent = new LibraryContentCache(MAX_LIBRARY_CONTENT);
+    private static final long MAX_LIBRARY_CONTENT = 64L * 1024 * 1024;
     /*
      * Initialisation info
      */
@@ -56,25 +62,54 @@ public class ClassFileSourceImpl implements ClassFileSource2 {
     }
 
     private byte[] getBytesFromFile(InputStream is, long length) throws IOException {
-        // Create the byte array to hold the data
-        byte[] bytes = new byte[(int) length];
-
-        // Read in the bytes
-        int offset = 0;
-        int numRead;
-        while (offset < bytes.length
-                && (numRead = is.read(bytes, offset, bytes.length - offset)) >= 0) {
-            offset += numRead;
-        }
+        try {
+            // Create the byte array to hold the data
+            byte[] bytes = new byte[(int) length];
+
+            // Read in the bytes
+            int offset = 0;
+            int numRead;
+            while (offset < bytes.length
+                    && (numRead = is.read(bytes, offset, bytes.length - offset)) >= 0) {
+                offset += numRead;
+            }
 
-        // Ensure all the bytes have been read in
-        if (offset < bytes.length) {
-            throw new IOException("Could not completely read file");
+            // Ensure all the bytes have been read in
+            if (offset < bytes.length) {
+                throw new IOException("Could not completely read file");
+            }
+            return bytes;
+        } finally {
+            is.close();
         }
+    }
 
-        // Close the input stream and return bytes
-        is.close();
-        return bytes;
+    /*
+     * Plain class files are read through a channel straight into an array of the right size - the size comes from
+     * the open file rather than another lookup by path, and there's no intermediate stream buffering.
+     *
+     * (Mapping the file isn't worth it - class files are small enough that setting up (and later releasing)
+     * a mapping costs as much as the copy, and everything downstream wants a byte[] anyway.)
+     */
+    private static byte[] getBytesFromFile(File file) throws IOException {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            FileChannel channel = fis.getChannel();
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("File too large " + file);
+            }
+            byte[] bytes = new byte[(int) length];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Could not completely read file");
+                }
+            }
+            return bytes;
+        } finally {
+            fis.close();
+        }
     }
 
     @Override
@@ -98,38 +133,44 @@ public class ClassFileSourceImpl implements ClassFileSource2 {
             path = classRenamer.getOriginalClass(path);
         }
 
-        ZipFile zipFile = null;
-
-        try {
-            InputStream is;
-            long length;
-
-            String usePath = classRelocator.correctPath(path);
-            boolean forceJar = jarEntry != null && explicitJars.contains(jarEntry.getPath());
-            File file = forceJar ? null : new File(usePath);
-            byte[] content;
-            if (file != null && file.exists()) {
-                is = new FileInputStream(file);
-                length = file.length();
-                content = getBytesFromFile(is, length);
-            } else if (jarEntry != null) {
-                zipFile = new ZipFile(new File(jarEntry.getPath()), ZipFile.OPEN_READ);
-                if (jarEntry.analysisType == AnalysisType.WAR) {
-                    path = MiscConstants.WAR_PREFIX + path;
+        String usePath = classRelocator.correctPath(path);
+        boolean forceJar = jarEntry != null && explicitJars.contains(jarEntry.getPath());
+        File file = forceJar ? null : new File(usePath);
+        byte[] content;
+        if (file != null && file.exists()) {
+            content = getBytesFromFile(file);
+        } else if (jarEntry != null) {
+            if (jarEntry.analysisType == AnalysisType.WAR) {
+                path = MiscConstants.WAR_PREFIX + path;
+            }
+            String libraryKey = forceJar ? null : jarEntry.getPath() + "!" + path;
+            content = libraryKey == null ? null : libraryContent.get(libraryKey);
+            if (content == null) {
+                synchronized (zipFiles) {
+                    ZipFile zipFile = zipFiles.get(new File(jarEntry.getPath()));
+                    ZipEntry zipEntry = zipFile.getEntry(path);
+                    content = getBytesFromFile(zipFile.getInputStream(zipEntry), zipEntry.getSize());
                 }
-                ZipEntry zipEntry = zipFile.getEntry(path);
-                length = zipEntry.getSize();
-                is = zipFile.getInputStream(zipEntry);
-                content = getBytesFromFile(is, length);
-            } else {
-                // Fallback - can we get the bytes using a java9 extractor?
+                if (libraryKey != null) libraryContent.put(libraryKey, content);
+            }
+        } else {
+            // Fallback - can we get the bytes using a java9 extractor?
+            String libraryKey = "!" + inputPath;
+            content = libraryContent.get(libraryKey);
+            if (content == null) {
                 content = getInternalContent(inputPath);
+                libraryContent.put(libraryKey, content);
             }
-
-            return Pair.make(content, inputPath);
-        } finally {
-            if (zipFile != null) zipFile.close();
         }
+
+        return Pair.make(content, inputPath);
+    }
+
+    /*
+     * Jars are kept open between class loads - this releases them.  The source may still be used afterwards.
+     */
+    public void close() {
+        zipFiles.close();
     }
 
     /*
@@ -370,9 +411,9 @@ public class ClassFileSourceImpl implements ClassFileSource2 {
         List<String> content = ListFactory.newList();
         Map<String, String> manifest;
         try {
-            ZipFile zipFile = new ZipFile(file, ZipFile.OPEN_READ);
-            manifest = getManifestContent(zipFile);
-            try {
+            synchronized (zipFiles) {
+                ZipFile zipFile = zipFiles.get(file);
+                manifest = getManifestContent(zipFile);
                 Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
                 while (enumeration.hasMoreElements()) {
                     ZipEntry entry = enumeration.nextElement();
@@ -390,8 +431,6 @@ public class ClassFileSourceImpl implements ClassFileSource2 {
                         }
                     }
                 }
-            } finally {
-                zipFile.close();
             }
         } catch (IOException e) {
             return null;
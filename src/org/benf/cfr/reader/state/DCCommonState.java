@@ -21,13 +21,17 @@ import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.functors.BinaryFunction;
 import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.getopt.Options;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
+import org.benf.cfr.reader.util.output.IllegalIdentifierDump;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 
 public class DCCommonState {
@@ -37,11 +41,32 @@ public class DCCommonState {
     private final Options options;
     private final Map<String, ClassFile> classFileCache;
     private Set<JavaTypeInstance> versionCollisions;
-    private transient LinkedHashSet<String> couldNotLoadClasses = new LinkedHashSet<String>();
+    private final transient LinkedHashSet<String> couldNotLoadClasses = new LinkedHashSet<String>();
     private final ObfuscationMapping obfuscationMapping;
     private final OverloadMethodSetCache overloadMethodSetCache;
+    private final AnalysisTimings analysisTimings;
+    private final DecompilationCache decompilationCache;
+    private final MethodAnalysisPool methodAnalysisPool;
+    private final IllegalIdentifierDump illegalIdentifierDump;
+    private final AtomicInteger longStringIdx;
 
     public DCCommonState(Options options, ClassFileSource2 classFileSource) {
+        this(options, classFileSource, IllegalIdentifierDump.Factory.create(options), new AtomicInteger(),
+                DecompilationCache.create(options), MethodAnalysisPool.create(options));
+    }
+
+    /*
+     * A fresh state for the next input of the same run - no classes are cached from previousInput, but renames and
+     * hidden string names carry on from it, so they agree across every input.  The decompilation cache and method
+     * analysis threads are the run's, so are handed on too.
+     */
+    public DCCommonState(DCCommonState previousInput) {
+        this(previousInput.options, previousInput.classFileSource, previousInput.illegalIdentifierDump, previousInput.longStringIdx,
+                previousInput.decompilationCache, previousInput.methodAnalysisPool);
+    }
+
+    private DCCommonState(Options options, ClassFileSource2 classFileSource, IllegalIdentifierDump illegalIdentifierDump, AtomicInteger longStringIdx,
+                          DecompilationCache decompilationCache, MethodAnalysisPool methodAnalysisPool) {
         this.options = options;
         this.classFileSource = classFileSource;
         this.classCache = new ClassCache(this);
@@ -54,6 +79,11 @@ public class DCCommonState {
         this.versionCollisions = SetFactory.newSet();
         this.obfuscationMapping = NullMapping.INSTANCE;
         this.overloadMethodSetCache = new OverloadMethodSetCache();
+        this.analysisTimings = options.getOption(OptionsImpl.ANALYSIS_TIMINGS) ? new AnalysisTimings() : null;
+        this.decompilationCache = decompilationCache;
+        this.methodAnalysisPool = methodAnalysisPool;
+        this.illegalIdentifierDump = illegalIdentifierDump;
+        this.longStringIdx = longStringIdx;
     }
 
     public DCCommonState(DCCommonState dcCommonState, final BinaryFunction<String, DCCommonState, ClassFile> cacheAccess) {
@@ -68,7 +98,14 @@ public class DCCommonState {
         });
         this.versionCollisions = dcCommonState.versionCollisions;
         this.obfuscationMapping = dcCommonState.obfuscationMapping;
-        this.overloadMethodSetCache = dcCommonState.overloadMethodSetCache;
+        // Keyed by ClassFile, and all ours are loaded through cacheAccess - so nothing in dcCommonState's would be found,
+        // it would only keep (for instance) a discarded parallel worker's classes alive.
+        this.overloadMethodSetCache = new OverloadMethodSetCache();
+        this.analysisTimings = dcCommonState.analysisTimings;
+        this.decompilationCache = dcCommonState.decompilationCache;
+        this.methodAnalysisPool = dcCommonState.methodAnalysisPool;
+        this.illegalIdentifierDump = dcCommonState.illegalIdentifierDump;
+        this.longStringIdx = dcCommonState.longStringIdx;
     }
 
     // TODO : If we have any more of these, refactor to a builder!
@@ -85,6 +122,11 @@ public class DCCommonState {
         this.versionCollisions = dcCommonState.versionCollisions;
         this.obfuscationMapping = mapping;
         this.overloadMethodSetCache = dcCommonState.overloadMethodSetCache;
+        this.analysisTimings = dcCommonState.analysisTimings;
+        this.decompilationCache = dcCommonState.decompilationCache;
+        this.methodAnalysisPool = dcCommonState.methodAnalysisPool;
+        this.illegalIdentifierDump = dcCommonState.illegalIdentifierDump;
+        this.longStringIdx = dcCommonState.longStringIdx;
     }
 
     public void setCollisions(Set<JavaTypeInstance> versionCollisions) {
@@ -110,15 +152,28 @@ public class DCCommonState {
 
     public ClassFile loadClassFileAtPath(final String path) {
         try {
-            Pair<byte[], String> content = classFileSource.getClassFileContent(path);
+            Pair<byte[], String> content;
+            // Class file sources are shared between derived states, which may be in use on several
+            // worker threads - we don't require user supplied sources to be thread safe.
+            synchronized (classFileSource) {
+                content = classFileSource.getClassFileContent(path);
+            }
             ByteData data = new BaseByteData(content.getFirst());
             return new ClassFile(data, content.getSecond(), this);
         } catch (Exception e) {
-            couldNotLoadClasses.add(path);
+            synchronized (couldNotLoadClasses) {
+                couldNotLoadClasses.add(path);
+            }
             throw new CannotLoadClassException(path, e);
         }
     }
 
+    public byte[] getClassFileContent(String path) throws IOException {
+        synchronized (classFileSource) {
+            return classFileSource.getClassFileContent(path).getFirst();
+        }
+    }
+
     public DecompilerComment renamedTypeComment(String typeName) {
         String originalName = classCache.getOriginalName(typeName);
         if (originalName != null) {
@@ -176,7 +231,9 @@ public class DCCommonState {
     }
 
     public ClassFile getClassFile(String path) throws CannotLoadClassException {
-        return classFileCache.get(path);
+        synchronized (classFileCache) {
+            return classFileCache.get(path);
+        }
     }
 
     public JavaRefTypeInstance getClassTypeOrNull(String path) {
@@ -236,6 +293,56 @@ public class DCCommonState {
         return obfuscationMapping;
     }
 
+    /*
+     * null unless timings have been asked for.
+     */
+    public AnalysisTimings getAnalysisTimings() {
+        return analysisTimings;
+    }
+
+    /*
+     * null unless a cache directory has been given (and can be used with the other options).
+     */
+    public DecompilationCache getDecompilationCache() {
+        return decompilationCache;
+    }
+
+    /*
+     * null unless the methods of a class are to be analysed concurrently.
+     */
+    public MethodAnalysisPool getMethodAnalysisPool() {
+        return methodAnalysisPool;
+    }
+
+    /*
+     * Called once the run this state belongs to is finished - every state handed on from it (or from the state it
+     * was handed on from) is finished with too.
+     */
+    public void close() {
+        if (methodAnalysisPool != null) methodAnalysisPool.shutdown();
+    }
+
+    /*
+     * Renames are shared by every class decompiled with (states derived from) this state, and by nothing else.
+     */
+    public IllegalIdentifierDump getIllegalIdentifierDump() {
+        return illegalIdentifierDump == null ? IllegalIdentifierDump.Nop.getInstance() : illegalIdentifierDump;
+    }
+
+    /*
+     * null unless illegal identifiers are to be renamed.
+     */
+    public IllegalIdentifierDump getIllegalIdentifierDumpOrNull() {
+        return illegalIdentifierDump;
+    }
+
+    /*
+     * Used to name strings hidden by hidelongstrings.
+     */
+    public int getNextLongStringIdx() {
+        return longStringIdx.getAndIncrement();
+    }
+
     public OverloadMethodSetCache getOverloadMethodSetCache() {
         return overloadMethodSetCache;
     }
@@ -0,0 +1,444 @@
+package org.benf.cfr.reader.state;
+
+import org.benf.cfr.reader.bytecode.analysis.types.JavaTypeInstance;
+import org.benf.cfr.reader.entities.ClassFile;
+import org.benf.cfr.reader.entities.Method;
+import org.benf.cfr.reader.mapping.ObfuscationMapping;
+import org.benf.cfr.reader.util.CfrVersionInfo;
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
+import org.benf.cfr.reader.util.collections.SetFactory;
+import org.benf.cfr.reader.util.getopt.Options;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
+import org.benf.cfr.reader.util.getopt.PermittedOptionProvider;
+import org.benf.cfr.reader.util.output.Dumper;
+import org.benf.cfr.reader.util.output.DumperFactory;
+import org.benf.cfr.reader.util.output.IllegalIdentifierDump;
+import org.benf.cfr.reader.util.output.MethodErrorCollector;
+import org.benf.cfr.reader.util.output.StringStreamDumper;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * A directory of previously decompiled top level classes, so that the same (unchanged) class in the same
+ * (unchanged) environment needn't be analysed again.
+ *
+ * An entry is keyed by a hash of
+ *  * the CFR version
+ *  * the options which affect output
+ *  * the bytes of the class, and its inner classes
+ *  * the names and bytes of all their supertypes, transitively.
+ *
+ * and holds the text of the class, along with any summary errors reported while dumping it.  As that's all we
+ * keep, it's only used when the output is plain text - not for a token stream, or with line number mappings.
+ *
+ * Analysis can also look at other classes (eg the signatures of methods being called) - a change to one of
+ * those which doesn't also change one of the above won't be noticed.
+ *
+ * The directory is kept under a size limit by deleting the least recently used entries.
+ */
+public class DecompilationCache {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int MAGIC = 0xCFCAC4E1;
+    private static final String SUFFIX = ".cfrcache";
+    private static final long MB = 1024L * 1024L;
+
+    /*
+     * These change where (or whether) output goes, or how we go about producing it, but not what it is.
+     */
+    private static final Set<String> NOT_RELEVANT = SetFactory.newSet(
+            OptionsImpl.OUTPUT_DIR.getName(),
+            OptionsImpl.OUTPUT_PATH.getName(),
+            OptionsImpl.CLOBBER_FILES.getName(),
+            OptionsImpl.SILENT.getName(),
+            OptionsImpl.JAR_FILTER.getName(),
+            OptionsImpl.LOMEM.getName(),
+            OptionsImpl.ANALYSIS_TIMINGS.getName(),
+            OptionsImpl.THREADS.getName(),
+            OptionsImpl.METHOD_THREADS.getName(),
+            OptionsImpl.CACHE_DIR.getName(),
+            OptionsImpl.CACHE_SIZE.getName()
+    );
+
+    private final File dir;
+    private final long maxSize;
+    private final String optionsKey;
+    private long size;
+    private final Map<String, byte[]> digests = MapFactory.newMap();
+
+    private DecompilationCache(File dir, long maxSize, String optionsKey) {
+        this.dir = dir;
+        this.maxSize = maxSize;
+        this.optionsKey = optionsKey;
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(SUFFIX)) size += file.length();
+            }
+        }
+    }
+
+    /*
+     * Returns null if caching isn't enabled, or can't be used with these options.
+     *
+     * Illegal identifier replacement and long string hiding allocate names in the order they are seen over a
+     * whole run, and an obfuscation mapping isn't part of the key.
+     */
+    public static DecompilationCache create(Options options) {
+        String path = options.getOption(OptionsImpl.CACHE_DIR);
+        if (path == null) return null;
+        if (options.getOption(OptionsImpl.RENAME_ILLEGAL_IDENTS)) return null;
+        if (options.getOption(OptionsImpl.HIDE_LONGSTRINGS)) return null;
+        if (options.optionIsSet(OptionsImpl.OBFUSCATION_PATH)) return null;
+        File dir = new File(path);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalStateException("Couldn't create cache dir: " + dir);
+        }
+        return new DecompilationCache(dir, options.getOption(OptionsImpl.CACHE_SIZE) * MB, getOptionsKey(options));
+    }
+
+    /*
+     * The cache to use when dumping with dumperFactory - null if there's none, or if the text we keep can't stand in
+     * for what its dumpers would be given (eg a token stream).
+     */
+    public static DecompilationCache getFor(DCCommonState state, DumperFactory dumperFactory) {
+        DecompilationCache decompilationCache = state.getDecompilationCache();
+        if (decompilationCache == null || !dumperFactory.isPlainText()) return null;
+        return decompilationCache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String getOptionsKey(Options options) {
+        StringBuilder sb = new StringBuilder();
+        for (PermittedOptionProvider.ArgumentParam<?, ?> arg : OptionsImpl.getFactory().getArguments()) {
+            if (NOT_RELEVANT.contains(arg.getName())) continue;
+            if (!options.optionIsSet(arg)) continue;
+            Object value = options.getOption((PermittedOptionProvider.ArgumentParam<Object, Object>) arg, null);
+            sb.append(arg.getName()).append('=').append(value).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Digests of supertypes are remembered - but only until the next input, as it may replace them.
+     */
+    public synchronized void startInput() {
+        digests.clear();
+    }
+
+    /*
+     * The inner classes of c must already have been loaded.
+     *
+     * Returns null if we can't read everything we need to.
+     */
+    public String getKey(ClassFile c, int forVersion, DCCommonState state) {
+        MessageDigest md = newDigest();
+        update(md, CfrVersionInfo.VERSION_INFO);
+        update(md, optionsKey);
+        update(md, Integer.toString(forVersion));
+
+        List<ClassFile> classes = ListFactory.newList();
+        for (JavaTypeInstance type : c.getAllClassTypes()) {
+            ClassFile classFile = state.getClassFileOrNull(type);
+            if (classFile == null) return null;
+            byte[] content = getContent(classFile, state);
+            if (content == null) return null;
+            update(md, type.getRawName());
+            md.update(content);
+            classes.add(classFile);
+        }
+
+        Set<JavaTypeInstance> seen = SetFactory.newSet();
+        for (ClassFile classFile : classes) {
+            seen.add(classFile.getClassType());
+        }
+        List<JavaTypeInstance> pending = ListFactory.newList();
+        for (ClassFile classFile : classes) {
+            addSupers(classFile, seen, pending);
+        }
+        while (!pending.isEmpty()) {
+            JavaTypeInstance type = pending.remove(pending.size() - 1);
+            update(md, type.getRawName());
+            ClassFile classFile = state.getClassFileOrNull(type);
+            byte[] digest = classFile == null ? null : getDigest(classFile, state);
+            if (digest == null) {
+                update(md, "?");
+                continue;
+            }
+            md.update(digest);
+            addSupers(classFile, seen, pending);
+        }
+        return toHex(md.digest());
+    }
+
+    private static void addSupers(ClassFile classFile, Set<JavaTypeInstance> seen, List<JavaTypeInstance> pending) {
+        List<JavaTypeInstance> supers = ListFactory.newList();
+        JavaTypeInstance superClass = classFile.getClassSignature().getSuperClass();
+        if (superClass != null) supers.add(superClass);
+        supers.addAll(classFile.getClassSignature().getInterfaces());
+        for (JavaTypeInstance type : supers) {
+            type = type.getDeGenerifiedType();
+            if (seen.add(type)) pending.add(type);
+        }
+    }
+
+    private byte[] getDigest(ClassFile classFile, DCCommonState state) {
+        String path = classFile.getUsePath();
+        synchronized (this) {
+            byte[] digest = digests.get(path);
+            if (digest != null) return digest;
+        }
+        byte[] content = getContent(classFile, state);
+        if (content == null) return null;
+        byte[] digest = newDigest().digest(content);
+        synchronized (this) {
+            digests.put(path, digest);
+        }
+        return digest;
+    }
+
+    private static byte[] getContent(ClassFile classFile, DCCommonState state) {
+        try {
+            return state.getClassFileContent(classFile.getUsePath());
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Returns null if there's no (readable) entry.
+     */
+    public Entry get(String key) {
+        File file = getFile(key);
+        if (!file.isFile()) return null;
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+            try {
+                if (in.readInt() != MAGIC) return null;
+                String text = readString(in);
+                int errorCount = in.readInt();
+                List<SummaryError> errors = ListFactory.newList();
+                for (int x = 0; x < errorCount; ++x) {
+                    errors.add(new SummaryError(readString(in), readString(in), readString(in), readString(in)));
+                }
+                //noinspection ResultOfMethodCallIgnored
+                file.setLastModified(System.currentTimeMillis());
+                return new Entry(text, errors);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Failure to write an entry isn't fatal - we just won't find it next time.
+     */
+    public void put(String key, Entry entry) {
+        File file = getFile(key);
+        File tmp = null;
+        try {
+            tmp = File.createTempFile(key, ".tmp", dir);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp))));
+            try {
+                out.writeInt(MAGIC);
+                writeString(out, entry.text);
+                out.writeInt(entry.errors.size());
+                for (SummaryError error : entry.errors) {
+                    writeString(out, error.className);
+                    writeString(out, error.methodName);
+                    writeString(out, error.descriptor);
+                    writeString(out, error.message);
+                }
+            } finally {
+                out.close();
+            }
+            long oldLength = file.length();
+            if (!tmp.renameTo(file)) {
+                // Some platforms won't rename over an existing file.
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                if (!tmp.renameTo(file)) return;
+            }
+            tmp = null;
+            synchronized (this) {
+                size += file.length() - oldLength;
+                if (size > maxSize) evict();
+            }
+        } catch (IOException ignore) {
+        } finally {
+            if (tmp != null) {
+                //noinspection ResultOfMethodCallIgnored
+                tmp.delete();
+            }
+        }
+    }
+
+    /*
+     * Other processes may be sharing the directory, so recount rather than trusting our running total.
+     */
+    private void evict() {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        final Map<File, Long> lastModified = MapFactory.newMap();
+        List<File> entries = ListFactory.newList();
+        size = 0;
+        for (File file : files) {
+            if (!file.getName().endsWith(SUFFIX)) continue;
+            entries.add(file);
+            lastModified.put(file, file.lastModified());
+            size += file.length();
+        }
+        Collections.sort(entries, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                return lastModified.get(o1).compareTo(lastModified.get(o2));
+            }
+        });
+        // Leave some headroom, so we don't have to do this for every subsequent entry.
+        long target = maxSize - maxSize / 4;
+        for (File file : entries) {
+            if (size <= target) break;
+            long length = file.length();
+            if (file.delete()) size -= length;
+        }
+    }
+
+    private File getFile(String key) {
+        return new File(dir, key + SUFFIX);
+    }
+
+    /*
+     * Produce the text of c, as it would be dumped to a top level dumper.
+     */
+    public static Entry capture(ClassFile c, TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump, ObfuscationMapping mapping) {
+        StringBuilder sb = new StringBuilder();
+        final List<SummaryError> errors = ListFactory.newList();
+        MethodErrorCollector methodErrorCollector = new MethodErrorCollector() {
+            @Override
+            public void addSummaryError(Method method, String s) {
+                if (method == null) {
+                    errors.add(new SummaryError("", "", "", s));
+                    return;
+                }
+                errors.add(new SummaryError(method.getClassFile().getClassType().getRawName(), method.getName(), method.getMethodPrototype().getOriginalDescriptor(), s));
+            }
+        };
+        Dumper d = new StringStreamDumper(methodErrorCollector, sb, typeUsageInformation, options, illegalIdentifierDump);
+        d = mapping.wrap(d);
+        c.dump(d);
+        d.newln();
+        d.newln();
+        d.close();
+        return new Entry(sb.toString(), errors);
+    }
+
+    /*
+     * Write a captured class to d, which is in the state a top level dumper starts in.
+     *
+     * A newline is only written when something follows it - the trailing newln() makes the last one pending,
+     * which is where c.dump(d); d.newln(); d.newln(); would have left us.
+     */
+    public static void replay(Entry entry, ClassFile c, Dumper d, DCCommonState state) {
+        String text = entry.text;
+        int start = 0;
+        int end;
+        while ((end = text.indexOf('\n', start)) != -1) {
+            if (end > start) d.print(text.substring(start, end));
+            d.newln();
+            start = end + 1;
+        }
+        if (start < text.length()) d.print(text.substring(start));
+        d.newln();
+
+        for (SummaryError error : entry.errors) {
+            d.addSummaryError(findMethod(c, error, state), error.message);
+        }
+    }
+
+    private static Method findMethod(ClassFile c, SummaryError error, DCCommonState state) {
+        if (error.className.length() == 0) return null;
+        for (JavaTypeInstance type : c.getAllClassTypes()) {
+            if (!type.getRawName().equals(error.className)) continue;
+            ClassFile classFile = state.getClassFileOrNull(type);
+            if (classFile == null) return null;
+            List<Method> methods = classFile.getMethodsByNameOrNull(error.methodName);
+            if (methods == null) return null;
+            for (Method method : methods) {
+                if (method.getMethodPrototype().getOriginalDescriptor().equals(error.descriptor)) return method;
+            }
+            return null;
+        }
+        return null;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest md, String s) {
+        md.update(s.getBytes(UTF8));
+        md.update((byte) 0);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    public static class Entry {
+        private final String text;
+        private final List<SummaryError> errors;
+
+        private Entry(String text, List<SummaryError> errors) {
+            this.text = text;
+            this.errors = errors;
+        }
+    }
+
+    private static class SummaryError {
+        private final String className;
+        private final String methodName;
+        private final String descriptor;
+        private final String message;
+
+        private SummaryError(String className, String methodName, String descriptor, String message) {
+            this.className = className;
+            this.methodName = methodName;
+            this.descriptor = descriptor;
+            this.message = message;
+        }
+    }
+}
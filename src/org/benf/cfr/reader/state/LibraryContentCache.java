@@ -0,0 +1,37 @@
+package org.benf.cfr.reader.state;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Content of classes which aren't being analysed (the runtime, and the class path), so that when many inputs
+ * are analysed in one run, each doesn't have to fetch them again.  This is never used for jars which have been
+ * explicitly added, as a later input may replace those.
+ *
+ * Bounded by total size - least recently used content is dropped first.
+ */
+class LibraryContentCache {
+    private final long maxBytes;
+    private long bytes;
+    private final Map<String, byte[]> content = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+
+    LibraryContentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized byte[] get(String key) {
+        return content.get(key);
+    }
+
+    synchronized void put(String key, byte[] data) {
+        if (data.length > maxBytes) return;
+        byte[] old = content.put(key, data);
+        if (old != null) bytes -= old.length;
+        bytes += data.length;
+        while (bytes > maxBytes) {
+            Map.Entry<String, byte[]> eldest = content.entrySet().iterator().next();
+            bytes -= eldest.getValue().length;
+            content.remove(eldest.getKey());
+        }
+    }
+}
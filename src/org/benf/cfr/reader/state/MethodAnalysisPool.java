@@ -0,0 +1,130 @@
+package org.benf.cfr.reader.state;
+
+import org.benf.cfr.reader.util.functors.UnaryProcedure;
+import org.benf.cfr.reader.util.getopt.Options;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Helper threads for analysing the methods of one class concurrently, if requested with --methodthreads.
+ *
+ * The thread asking for a batch to be run works through it as well, and only waits for items which have already been
+ * picked up by a helper - so a batch always completes, even if every helper is busy with someone else's batch.
+ * (Several states, and so several ParallelDriver workers, may share one pool).
+ */
+public class MethodAnalysisPool {
+    private final int threads;
+    private final ExecutorService helpers;
+
+    private MethodAnalysisPool(int threads) {
+        this.threads = threads;
+        this.helpers = Executors.newFixedThreadPool(threads - 1, new ThreadFactory() {
+            private final AtomicInteger idx = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "cfr-method-analysis-" + idx.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /*
+     * One pool serves a whole run, and is handed on from state to state.
+     *
+     * Illegal identifier replacement and long string hiding allocate names from a table shared by the whole run, in
+     * the order they are encountered, which would make output depend on scheduling.
+     */
+    static MethodAnalysisPool create(Options options) {
+        int threads = options.getOption(OptionsImpl.METHOD_THREADS);
+        if (threads <= 1) return null;
+        if (options.getOption(OptionsImpl.RENAME_ILLEGAL_IDENTS)) return null;
+        if (options.getOption(OptionsImpl.HIDE_LONGSTRINGS)) return null;
+        return new MethodAnalysisPool(threads);
+    }
+
+    /*
+     * Call fn for every item, returning once all calls have completed.  If any call throws, the exception from the
+     * earliest such item is rethrown (though, unlike a serial loop, later items will still have been processed).
+     */
+    public <T> void forEach(List<T> items, UnaryProcedure<T> fn) {
+        int size = items.size();
+        if (size <= 1) {
+            for (T item : items) {
+                fn.call(item);
+            }
+            return;
+        }
+        Batch<T> batch = new Batch<T>(items, fn);
+        for (int x = 1, len = Math.min(threads, size); x < len; ++x) {
+            helpers.execute(batch);
+        }
+        batch.run();
+        batch.await();
+    }
+
+    /*
+     * Helpers are daemon threads, so this isn't needed to let the JVM exit - but an embedding application
+     * shouldn't be left with idle threads for every run.
+     */
+    void shutdown() {
+        helpers.shutdown();
+    }
+
+    private static class Batch<T> implements Runnable {
+        private final List<T> items;
+        private final UnaryProcedure<T> fn;
+        private final AtomicInteger next = new AtomicInteger();
+        private final Throwable[] failures;
+        private int completed;
+
+        private Batch(List<T> items, UnaryProcedure<T> fn) {
+            this.items = items;
+            this.fn = fn;
+            this.failures = new Throwable[items.size()];
+        }
+
+        @Override
+        public void run() {
+            int idx;
+            while ((idx = next.getAndIncrement()) < items.size()) {
+                Throwable failure = null;
+                try {
+                    fn.call(items.get(idx));
+                } catch (Throwable t) {
+                    failure = t;
+                }
+                synchronized (this) {
+                    failures[idx] = failure;
+                    if (++completed == items.size()) notifyAll();
+                }
+            }
+        }
+
+        private void await() {
+            boolean interrupted = false;
+            synchronized (this) {
+                while (completed < items.size()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            for (Throwable t : failures) {
+                if (t == null) continue;
+                if (t instanceof RuntimeException) throw (RuntimeException) t;
+                if (t instanceof Error) throw (Error) t;
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.output.Dumpable;
 import org.benf.cfr.reader.util.output.Dumper;
+import org.benf.cfr.reader.util.output.IllegalIdentifierDump;
 import org.benf.cfr.reader.util.output.TypeContext;
 
 import java.io.BufferedOutputStream;
@@ -21,6 +22,7 @@ import java.util.Set;
 public class TypeUsageCollectingDumper implements Dumper {
 
     private final Options options;
+    private final IllegalIdentifierDump iid;
     private final JavaRefTypeInstance analysisType;
     private final Set<JavaRefTypeInstance> refTypeInstanceSet = SetFactory.newSet();
     private final Set<JavaTypeInstance> emitted = SetFactory.newSet();
@@ -30,15 +32,16 @@ public class TypeUsageCollectingDumper implements Dumper {
         staticImports.add(new DetectedStaticImport(clazz, name));
     }
 
-    public TypeUsageCollectingDumper(Options options, ClassFile analysisClass) {
-        this.options = options;
+    public TypeUsageCollectingDumper(DCCommonState dcCommonState, ClassFile analysisClass) {
+        this.options = dcCommonState.getOptions();
+        this.iid = dcCommonState.getIllegalIdentifierDumpOrNull();
         this.analysisType = (JavaRefTypeInstance) analysisClass.getClassType().getDeGenerifiedType();
         refTypeInstanceSet.add(TypeConstants.OBJECT);
     }
 
     public TypeUsageInformation getRealTypeUsageInformation() {
         /* Figure out what the imports are */
-        return new TypeUsageInformationImpl(options, analysisType, refTypeInstanceSet, staticImports);
+        return new TypeUsageInformationImpl(options, iid, analysisType, refTypeInstanceSet, staticImports);
     }
 
     @Override
@@ -36,10 +36,10 @@ public class TypeUsageInformationImpl implements TypeUsageInformation {
     private final Predicate<String> allowShorten;
     private final Map<String, Boolean> clashNames = MapFactory.newLazyMap(new FieldClash());
 
-    public TypeUsageInformationImpl(Options options, JavaRefTypeInstance analysisType, Set<JavaRefTypeInstance> usedRefTypes, Set<DetectedStaticImport> staticImports) {
+    public TypeUsageInformationImpl(Options options, IllegalIdentifierDump iid, JavaRefTypeInstance analysisType, Set<JavaRefTypeInstance> usedRefTypes, Set<DetectedStaticImport> staticImports) {
         this.allowShorten = MiscUtils.mkRegexFilter(options.getOption(OptionsImpl.IMPORT_FILTER), true);
         this.analysisType = analysisType;
-        this.iid = IllegalIdentifierDump.Factory.getOrNull(options);
+        this.iid = iid;
         this.staticImports = staticImports;
         initialiseFrom(usedRefTypes);
     }
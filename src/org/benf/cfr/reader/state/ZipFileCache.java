@@ -0,0 +1,56 @@
+package org.benf.cfr.reader.state;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipFile;
+
+/*
+ * Keeps the most recently used jars open, so we don't reopen (and re-read the central directory of) a jar for
+ * every class file we load from it.
+ *
+ * Callers must hold the lock on the cache while using a ZipFile they've been given, as it may be closed as soon
+ * as another jar is opened.
+ */
+class ZipFileCache {
+    private final Map<String, ZipFile> openFiles;
+
+    ZipFileCache(final int maxOpen) {
+        this.openFiles = new LinkedHashMap<String, ZipFile>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ZipFile> eldest) {
+                if (size() <= maxOpen) return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    synchronized ZipFile get(File file) throws IOException {
+        String key = file.getAbsolutePath();
+        ZipFile zipFile = openFiles.get(key);
+        if (zipFile == null) {
+            zipFile = new ZipFile(file, ZipFile.OPEN_READ);
+            openFiles.put(key, zipFile);
+        }
+        return zipFile;
+    }
+
+    /*
+     * Closes everything - the cache may still be used afterwards, and will reopen files as required.
+     */
+    synchronized void close() {
+        for (ZipFile zipFile : openFiles.values()) {
+            closeQuietly(zipFile);
+        }
+        openFiles.clear();
+    }
+
+    private static void closeQuietly(ZipFile zipFile) {
+        try {
+            zipFile.close();
+        } catch (IOException ignore) {
+        }
+    }
+}
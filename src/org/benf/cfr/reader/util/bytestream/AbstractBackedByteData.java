@@ -2,83 +2,88 @@ package org.benf.cfr.reader.util.bytestream;
 
 import org.benf.cfr.reader.util.ConfusedCFRException;
 
-import java.io.DataInputStream;
-
+/*
+ * Reads big endian values straight out of the backing array.
+ */
 public abstract class AbstractBackedByteData implements ByteData {
+    final byte[] data;
+
+    AbstractBackedByteData(byte[] data) {
+        this.data = data;
+    }
 
-    abstract DataInputStream rawDataAsStream(int offset, int length);
+    /*
+     * Index into data of the given (relative) offset.
+     */
+    abstract int getRealOffset(long o);
+
+    private static ConfusedCFRException truncated(long o, int length) {
+        return new ConfusedCFRException("Unexpected end of data reading " + length + " bytes at " + o);
+    }
 
     @Override
     public int getS4At(long o) throws ConfusedCFRException {
-        // Let's find an EFFICIENT way to do this later!
-        DataInputStream dis = rawDataAsStream((int) o, 4);
-        try {
-            return dis.readInt();
-        } catch (Exception e) {
-            throw new ConfusedCFRException(e);
-        }
+        int i = getRealOffset(o);
+        if (i < 0 || i + 4 > data.length) throw truncated(o, 4);
+        return ((data[i] & 0xff) << 24) |
+                ((data[i + 1] & 0xff) << 16) |
+                ((data[i + 2] & 0xff) << 8) |
+                (data[i + 3] & 0xff);
     }
 
     @Override
     public double getDoubleAt(long o) throws ConfusedCFRException {
-        DataInputStream dis = rawDataAsStream((int) o, 8);
-        try {
-            return dis.readDouble();
-        } catch (Exception e) {
-            throw new ConfusedCFRException(e);
-        }
+        return Double.longBitsToDouble(getLongAt(o));
     }
 
     @Override
     public float getFloatAt(long o) throws ConfusedCFRException {
-        DataInputStream dis = rawDataAsStream((int) o, 8);
-        try {
-            return dis.readFloat();
-        } catch (Exception e) {
-            throw new ConfusedCFRException(e);
-        }
+        return Float.intBitsToFloat(getS4At(o));
     }
 
     @Override
     public long getLongAt(long o) throws ConfusedCFRException {
-        DataInputStream dis = rawDataAsStream((int) o, 8);
-        try {
-            return dis.readLong();
-        } catch (Exception e) {
-            throw new ConfusedCFRException(e);
-        }
+        int i = getRealOffset(o);
+        if (i < 0 || i + 8 > data.length) throw truncated(o, 8);
+        long hi = ((data[i] & 0xff) << 24) |
+                ((data[i + 1] & 0xff) << 16) |
+                ((data[i + 2] & 0xff) << 8) |
+                (data[i + 3] & 0xff);
+        long lo = ((data[i + 4] & 0xff) << 24) |
+                ((data[i + 5] & 0xff) << 16) |
+                ((data[i + 6] & 0xff) << 8) |
+                (data[i + 7] & 0xff);
+        return (hi << 32) | (lo & 0xffffffffL);
     }
 
     @Override
     public short getS2At(long o) throws ConfusedCFRException {
-        // Let's find an EFFICIENT way to do this later!
-        DataInputStream dis = rawDataAsStream((int) o, 2);
-        try {
-            return dis.readShort();
-        } catch (Exception e) {
-            throw new ConfusedCFRException(e);
-        }
+        return (short) getU2At(o);
     }
 
     @Override
     public int getU2At(long o) throws ConfusedCFRException {
-        // Let's find an EFFICIENT way to do this later!
-        DataInputStream dis = rawDataAsStream((int) o, 2);
-        try {
-            return dis.readUnsignedShort();
-        } catch (Exception e) {
-            throw new ConfusedCFRException(e);
-        }
+        int i = getRealOffset(o);
+        if (i < 0 || i + 2 > data.length) throw truncated(o, 2);
+        return ((data[i] & 0xff) << 8) | (data[i + 1] & 0xff);
     }
 
     @Override
     public short getU1At(long o) throws ConfusedCFRException {
-        // Let's find an EFFICIENT way to do this later!
-        DataInputStream dis = rawDataAsStream((int) o, 1);
-        try {
-            return (short) dis.readUnsignedByte();
-        } catch (Exception e) {
-            throw new ConfusedCFRException(e);
-        }
+        int i = getRealOffset(o);
+        if (i < 0 || i >= data.length) throw truncated(o, 1);
+        return (short) (data[i] & 0xff);
+    }
+
+    @Override
+    public byte getS1At(long o) {
+        return data[getRealOffset(o)];
+    }
+
+    @Override
+    public byte[] getBytesAt(int count, long offset) {
+        byte[] res = new byte[count];
+        System.arraycopy(data, getRealOffset(offset), res, 0, count);
+        return res;
     }
 }
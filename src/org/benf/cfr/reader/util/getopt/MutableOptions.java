@@ -3,6 +3,7 @@ package org.benf.cfr.reader.util.getopt;
 import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.Troolean;
 
+import java.util.Collections;
 import java.util.Map;
 
 public class MutableOptions implements Options {
@@ -41,6 +42,13 @@ public class MutableOptions implements Options {
         return false;
     }
 
+    /*
+     * Only options which actually differ from the delegate are present.
+     */
+    public Map<String, String> getOverrides() {
+        return Collections.unmodifiableMap(overrides);
+    }
+
     @Override
     public boolean optionIsSet(PermittedOptionProvider.ArgumentParam<?, ?> option) {
         if (overrides.containsKey(option.getName())) return true;
@@ -437,6 +437,9 @@ public class OptionsImpl implements Options {
     public static final PermittedOptionProvider.Argument<Troolean> USE_RECOVERED_ITERATOR_TYPE_HINTS = register(new PermittedOptionProvider.Argument<Troolean>(
             "recovertypehints", defaultNeitherTrooleanDecoder,
             "Recover type hints for iterators from first pass"));
+    public static final PermittedOptionProvider.Argument<Boolean> USE_STACK_MAPS = register(new PermittedOptionProvider.Argument<Boolean>(
+            "usestackmaps", defaultFalseBooleanDecoder,
+            "Use StackMapTable frames (class files from Java 7 on) to split reused local slots in the first pass, rather than in a recovery pass"));
     public static final PermittedOptionProvider.Argument<String> OUTPUT_DIR = register(new PermittedOptionProvider.Argument<String>(
             "outputdir", defaultNullStringDecoder,
             "Decompile to files in [directory] (= options 'outputpath' + 'clobber') (historic compatibility)"));
@@ -515,6 +518,15 @@ public class OptionsImpl implements Options {
     public static final PermittedOptionProvider.Argument<Integer> AGGRESSIVE_SIZE_REDUCTION_THRESHOLD = register(new PermittedOptionProvider.Argument<Integer>(
             "aggressivesizethreshold", new DefaultingIntDecoder(15000),
             "Opcode count at which to trigger aggressive reductions"));
+    public static final PermittedOptionProvider.Argument<Integer> METHOD_TIME_BUDGET = register(new PermittedOptionProvider.Argument<Integer>(
+            "methodtimebudget", new DefaultingIntDecoder(0),
+            "Milliseconds after which to give up analysing a method (over all recovery passes), and emit it as failed.  0 for no limit."));
+    public static final PermittedOptionProvider.Argument<Integer> PASS_TIME_BUDGET = register(new PermittedOptionProvider.Argument<Integer>(
+            "passtimebudget", new DefaultingIntDecoder(0),
+            "Milliseconds after which to give up a single analysis (or recovery) pass of a method, and move on to the next.  0 for no limit."));
+    public static final PermittedOptionProvider.Argument<Integer> PASS_NODE_BUDGET = register(new PermittedOptionProvider.Argument<Integer>(
+            "passnodebudget", new DefaultingIntDecoder(0),
+            "Statement count above which to give up a single analysis (or recovery) pass of a method, and move on to the next.  0 for no limit."));
     public static final PermittedOptionProvider.Argument<Boolean> STATIC_INIT_RETURN = register(new PermittedOptionProvider.Argument<Boolean>(
             "staticinitreturn", defaultTrueBooleanDecoder,
             "Try to remove return from static init"));
@@ -542,6 +554,24 @@ public class OptionsImpl implements Options {
     public static final PermittedOptionProvider.Argument<Boolean> LOMEM = register(new PermittedOptionProvider.Argument<Boolean>(
             "lomem", defaultFalseBooleanDecoder,
             "Be more agressive about uncaching in order to reduce memory footprint"));
+    public static final PermittedOptionProvider.Argument<Boolean> ANALYSIS_TIMINGS = register(new PermittedOptionProvider.Argument<Boolean>(
+            "analysistimings", defaultFalseBooleanDecoder,
+            "Report wall time, allocation and statement counts for each analysis pass, per class and per jar.  (To stderr, or the TIMING sink if using the API)."));
+    public static final PermittedOptionProvider.Argument<Boolean> CHECK_GRAPH = register(new PermittedOptionProvider.Argument<Boolean>(
+            "checkgraph", defaultFalseBooleanDecoder,
+            "Check the statement graph is consistent each time unreachable code is removed.  (Slow - for debugging CFR itself)."));
+    public static final PermittedOptionProvider.Argument<Integer> THREADS = register(new PermittedOptionProvider.Argument<Integer>(
+            "threads", new DefaultingIntDecoder(1),
+            "Number of threads to use when decompiling a jar.  Output is identical to (and in the same order as) a single threaded run.  Each thread has to analyse (again) any earlier classes that the classes it is given refer to, so total CPU time grows with the number of threads."));
+    public static final PermittedOptionProvider.Argument<Integer> METHOD_THREADS = register(new PermittedOptionProvider.Argument<Integer>(
+            "methodthreads", new DefaultingIntDecoder(1),
+            "Number of threads to use when analysing the methods of a single class (helps with very large generated classes).  Not used with 'renameillegalidents' or 'hidelongstrings'."));
+    public static final PermittedOptionProvider.Argument<String> CACHE_DIR = register(new PermittedOptionProvider.Argument<String>(
+            "cachedir", defaultNullStringDecoder,
+            "Directory in which to keep decompiled classes from jars, to be reused when the same class (and its supertypes) are seen again with the same options.  Not used with 'renameillegalidents', 'hidelongstrings' or 'obfuscationpath'."));
+    public static final PermittedOptionProvider.Argument<Integer> CACHE_SIZE = register(new PermittedOptionProvider.Argument<Integer>(
+            "cachesize", new DefaultingIntDecoder(256),
+            "Size (in MB) to limit 'cachedir' to - least recently used entries are removed."));
     public static final PermittedOptionProvider.Argument<String> IMPORT_FILTER = register(new PermittedOptionProvider.Argument<String>(
             "importfilter", defaultNullStringDecoder,
             "Substring regex - import classes only when fqn matches this pattern. (VNegate with !, eg !lang)"));
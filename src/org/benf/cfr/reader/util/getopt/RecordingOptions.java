@@ -0,0 +1,41 @@
+package org.benf.cfr.reader.util.getopt;
+
+import org.benf.cfr.reader.util.collections.SetFactory;
+
+import java.util.Set;
+
+/*
+ * Remembers the names of the options which have been looked at - as analysis is deterministic given
+ * its options (and what's been noted in its BytecodeMeta), an attempt which looked at none of the options
+ * another attempt changes, starting from the same BytecodeMeta, would go exactly the same way again.
+ */
+public class RecordingOptions implements Options {
+    private final Options delegate;
+    private final Set<String> consulted = SetFactory.newSet();
+
+    public RecordingOptions(Options delegate) {
+        this.delegate = delegate;
+    }
+
+    public Set<String> getConsulted() {
+        return consulted;
+    }
+
+    @Override
+    public boolean optionIsSet(PermittedOptionProvider.ArgumentParam<?, ?> option) {
+        consulted.add(option.getName());
+        return delegate.optionIsSet(option);
+    }
+
+    @Override
+    public <T> T getOption(PermittedOptionProvider.ArgumentParam<T, Void> option) {
+        consulted.add(option.getName());
+        return delegate.getOption(option);
+    }
+
+    @Override
+    public <T, A> T getOption(PermittedOptionProvider.ArgumentParam<T, A> option, A arg) {
+        consulted.add(option.getName());
+        return delegate.getOption(option, arg);
+    }
+}
@@ -0,0 +1,121 @@
+package org.benf.cfr.reader.util.graph;
+
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * The iterative, index based equivalent of GraphVisitor - rather than a callback per node, and a visited set and
+ * linked lists per walk, there's a loop:
+ *
+ *   walker.start(first);
+ *   for (T node = walker.next(); node != null; node = walker.next()) {
+ *       walker.enqueue(node.getTargets());
+ *   }
+ *
+ * Nodes are tracked by their position in the list the walker was built over - a bit in a visited mask, and an int
+ * in a stack or queue, all of which are reused by each start().  (Nodes which aren't in that list, or whose index
+ * has since been taken over by a walker over some other list, are found by identity instead).
+ */
+public abstract class AbstractGraphWalker<T extends IndexedNode> {
+    private final List<T> nodes;
+    private Map<T, Integer> byIdentity;
+    private long[] visited;
+
+    AbstractGraphWalker(Collection<? extends T> nodes) {
+        this.nodes = ListFactory.newList();
+        this.nodes.addAll(nodes);
+        for (int x = 0, len = this.nodes.size(); x < len; ++x) {
+            this.nodes.get(x).setGraphIndex(x);
+        }
+        this.visited = new long[(this.nodes.size() >> 6) + 1];
+    }
+
+    public void start(T first) {
+        reset();
+        enqueue(first);
+    }
+
+    public void start(Collection<? extends T> first) {
+        reset();
+        enqueue(first);
+    }
+
+    private void reset() {
+        for (int x = 0; x < visited.length; ++x) {
+            visited[x] = 0;
+        }
+        clearPending();
+    }
+
+    /*
+     * The next node to visit, or null if there's nothing left.
+     */
+    public abstract T next();
+
+    public abstract void enqueue(T next);
+
+    public void enqueue(Collection<? extends T> next) {
+        for (T t : next) enqueue(t);
+    }
+
+    /*
+     * Don't visit anything else (until the next start).
+     */
+    public void abort() {
+        clearPending();
+    }
+
+    abstract void clearPending();
+
+    public boolean isVisited(T node) {
+        int idx = find(node);
+        return idx >= 0 && isVisited(idx);
+    }
+
+    final boolean isVisited(int idx) {
+        return (visited[idx >> 6] & (1L << idx)) != 0;
+    }
+
+    final void markVisited(int idx) {
+        visited[idx >> 6] |= 1L << idx;
+    }
+
+    final T get(int idx) {
+        return nodes.get(idx);
+    }
+
+    /*
+     * -1 if this walker hasn't seen node.
+     */
+    private int find(T node) {
+        int idx = node.getGraphIndex();
+        if (idx >= 0 && idx < nodes.size() && nodes.get(idx) == node) return idx;
+        if (byIdentity == null) {
+            byIdentity = MapFactory.newIdentityMap();
+            for (int x = 0, len = nodes.size(); x < len; ++x) {
+                byIdentity.put(nodes.get(x), x);
+            }
+        }
+        Integer known = byIdentity.get(node);
+        return known == null ? -1 : known;
+    }
+
+    final int indexOf(T node) {
+        int idx = find(node);
+        if (idx >= 0) return idx;
+        idx = nodes.size();
+        nodes.add(node);
+        byIdentity.put(node, idx);
+        node.setGraphIndex(idx);
+        if ((idx >> 6) >= visited.length) {
+            long[] newVisited = new long[visited.length * 2];
+            System.arraycopy(visited, 0, newVisited, 0, visited.length);
+            visited = newVisited;
+        }
+        return idx;
+    }
+}
@@ -0,0 +1,57 @@
+package org.benf.cfr.reader.util.graph;
+
+import java.util.Collection;
+
+/*
+ * Visits nodes in the same order as GraphVisitorDFS - the nodes enqueued while visiting a node are visited next, in
+ * the order they were enqueued.
+ */
+public class GraphWalkerDFS<T extends IndexedNode> extends AbstractGraphWalker<T> {
+    private int[] pending = new int[16];
+    private int pendingSize;
+    // Enqueued since the last call to next, in order.
+    private int[] enqueued = new int[16];
+    private int enqueuedSize;
+
+    public GraphWalkerDFS(Collection<? extends T> nodes) {
+        super(nodes);
+    }
+
+    @Override
+    public T next() {
+        while (enqueuedSize > 0) {
+            if (pendingSize == pending.length) pending = grow(pending);
+            pending[pendingSize++] = enqueued[--enqueuedSize];
+        }
+        while (pendingSize > 0) {
+            int idx = pending[--pendingSize];
+            if (!isVisited(idx)) {
+                markVisited(idx);
+                return get(idx);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void enqueue(T next) {
+        if (next == null) return;
+        int idx = indexOf(next);
+        // It would be skipped when it got to the top anyway.
+        if (isVisited(idx)) return;
+        if (enqueuedSize == enqueued.length) enqueued = grow(enqueued);
+        enqueued[enqueuedSize++] = idx;
+    }
+
+    @Override
+    void clearPending() {
+        pendingSize = 0;
+        enqueuedSize = 0;
+    }
+
+    private static int[] grow(int[] in) {
+        int[] res = new int[in.length * 2];
+        System.arraycopy(in, 0, res, 0, in.length);
+        return res;
+    }
+}
@@ -0,0 +1,43 @@
+package org.benf.cfr.reader.util.graph;
+
+import java.util.Collection;
+
+/*
+ * Visits nodes in the same order as GraphVisitorFIFO - ie the order they were first enqueued.
+ */
+public class GraphWalkerFIFO<T extends IndexedNode> extends AbstractGraphWalker<T> {
+    // Nothing is queued twice in a walk, so this never needs to wrap.
+    private int[] queue = new int[16];
+    private int head;
+    private int tail;
+
+    public GraphWalkerFIFO(Collection<? extends T> nodes) {
+        super(nodes);
+    }
+
+    @Override
+    public T next() {
+        if (head == tail) return null;
+        return get(queue[head++]);
+    }
+
+    @Override
+    public void enqueue(T next) {
+        if (next == null) return;
+        int idx = indexOf(next);
+        if (isVisited(idx)) return;
+        markVisited(idx);
+        if (tail == queue.length) {
+            int[] newQueue = new int[queue.length * 2];
+            System.arraycopy(queue, 0, newQueue, 0, queue.length);
+            queue = newQueue;
+        }
+        queue[tail++] = idx;
+    }
+
+    @Override
+    void clearPending() {
+        head = 0;
+        tail = 0;
+    }
+}
@@ -0,0 +1,13 @@
+package org.benf.cfr.reader.util.graph;
+
+/*
+ * A node which can hold its position in a list of nodes, so that a GraphWalker over that list can track it with a
+ * bit, rather than hashing it into a set.
+ *
+ * The index is only a hint - it's whatever the last walker built over a list containing the node set it to.
+ */
+public interface IndexedNode {
+    int getGraphIndex();
+
+    void setGraphIndex(int graphIndex);
+}
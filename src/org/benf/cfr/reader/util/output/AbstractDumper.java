@@ -5,6 +5,17 @@ import org.benf.cfr.reader.bytecode.analysis.types.JavaTypeInstance;
 
 abstract class AbstractDumper implements Dumper {
     protected static final String STANDARD_INDENT = "    ";
+    /*
+     * Single characters (spaces, brackets, commas...) are printed all the time - don't build a new string for each.
+     */
+    private static final String[] ASCII_STRINGS = new String[128];
+
+    static {
+        for (char c = 0; c < ASCII_STRINGS.length; ++c) {
+            ASCII_STRINGS[c] = String.valueOf(c).intern();
+        }
+    }
+
     final MovableDumperContext context;
 
     AbstractDumper(MovableDumperContext context) {
@@ -43,6 +54,10 @@ abstract class AbstractDumper implements Dumper {
         return this;
     }
 
+    static String charString(char c) {
+        return c < ASCII_STRINGS.length ? ASCII_STRINGS[c] : String.valueOf(c);
+    }
+
     @Override
     public Dumper comment(String s) {
         if (context.inBlockComment == BlockCommentState.Not) {
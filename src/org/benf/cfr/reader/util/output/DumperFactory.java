@@ -16,5 +16,10 @@ public interface DumperFactory {
 
     ExceptionDumper getExceptionDumper();
 
+    TimingDumper getTimingDumper();
+
     DumperFactory getFactoryWithPrefix(String prefix, int version);
+
+    // Is everything our dumpers produce in the text they're printed?  (If so, that text can stand in for a dump.)
+    boolean isPlainText();
 }
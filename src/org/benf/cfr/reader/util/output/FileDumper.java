@@ -9,6 +9,7 @@ import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
 
 import java.io.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FileDumper extends StreamDumper {
     private String dir;
@@ -17,10 +18,10 @@ public class FileDumper extends StreamDumper {
     private final SummaryDumper summaryDumper;
     private final String path;
     private final BufferedWriter writer;
+    private final AtomicInteger truncCount;
 
     private static final int MAX_FILE_LEN_MINUS_EXT = 249;
     private static final int TRUNC_PREFIX_LEN = 150;
-    private static int truncCount = 0;
 
     private String mkFilename(String dir, Pair<String, String> names, SummaryDumper summaryDumper) {
         String packageName = names.getFirst();
@@ -29,7 +30,7 @@ public class FileDumper extends StreamDumper {
             /*
              * Have to try to find a replacement name.
              */
-            className = className.substring(0, TRUNC_PREFIX_LEN) + "_cfr_" + (truncCount++);
+            className = className.substring(0, TRUNC_PREFIX_LEN) + "_cfr_" + truncCount.getAndIncrement();
             summaryDumper.notify("Class name " + names.getSecond() + " was shortened to " + className + " due to filesystem limitations.");
         }
 
@@ -38,12 +39,13 @@ public class FileDumper extends StreamDumper {
                 className + ".java";
     }
 
-    FileDumper(String dir, boolean clobber, JavaTypeInstance type, SummaryDumper summaryDumper, TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump) {
+    FileDumper(String dir, boolean clobber, JavaTypeInstance type, SummaryDumper summaryDumper, TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump, AtomicInteger truncCount) {
         super(typeUsageInformation, options, illegalIdentifierDump, new MovableDumperContext());
         this.dir = dir;
         this.clobber = clobber;
         this.type = type;
         this.summaryDumper = summaryDumper;
+        this.truncCount = truncCount;
         String fileName = mkFilename(dir, ClassNameUtils.getPackageAndClassNames(type), summaryDumper);
         try {
             File file = new File(fileName);
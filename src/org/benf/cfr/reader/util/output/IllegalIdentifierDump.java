@@ -27,17 +27,13 @@ public interface IllegalIdentifierDump {
     }
 
     class Factory {
-        public static IllegalIdentifierDump get(Options options) {
+        /*
+         * A new set of renames, or null if we're not renaming.  Callers should get this from DCCommonState,
+         * so that everything in one decompilation agrees.
+         */
+        public static IllegalIdentifierDump create(Options options) {
             if (options.getOption(OptionsImpl.RENAME_ILLEGAL_IDENTS)) {
-                return IllegalIdentifierReplacement.getInstance();
-            } else {
-                return Nop.getInstance();
-            }
-        }
-
-        public static IllegalIdentifierDump getOrNull(Options options) {
-            if (options.getOption(OptionsImpl.RENAME_ILLEGAL_IDENTS)) {
-                return IllegalIdentifierReplacement.getInstance();
+                return new IllegalIdentifierReplacement();
             } else {
                 return null;
             }
@@ -4,22 +4,27 @@ import org.benf.cfr.reader.bytecode.analysis.variables.Keywords;
 import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.MiscConstants;
 
+import java.util.Collections;
 import java.util.Map;
 
 public class IllegalIdentifierReplacement implements IllegalIdentifierDump {
     private final Map<String, Integer> identifiers = MapFactory.newMap();
     private final Map<String, String> classes = MapFactory.newMap();
-    private static final Map<String, Boolean> known = MapFactory.newIdentityMap();
+    /*
+     * By identity - these are the names we generate, not names which happen to be spelt the same in the class file.
+     * Never modified after this is built, so it's safe to share between decompilations.
+     */
+    private static final Map<String, Boolean> known = mkKnown();
     private int next = 0;
 
-    private static final IllegalIdentifierReplacement instance = new IllegalIdentifierReplacement();
-
-    static {
-        known.put(MiscConstants.THIS, true);
-        known.put(MiscConstants.NEW, true);
+    IllegalIdentifierReplacement() {
     }
 
-    private IllegalIdentifierReplacement() {
+    private static Map<String, Boolean> mkKnown() {
+        Map<String, Boolean> res = MapFactory.newIdentityMap();
+        res.put(MiscConstants.THIS, true);
+        res.put(MiscConstants.NEW, true);
+        return Collections.unmodifiableMap(res);
     }
 
     private String renamedIdent(Integer key) {
@@ -66,7 +71,7 @@ public class IllegalIdentifierReplacement implements IllegalIdentifierDump {
     }
 
     @Override
-    public String getLegalIdentifierFor(String identifier) {
+    public synchronized String getLegalIdentifierFor(String identifier) {
         Integer idx = identifiers.get(identifier);
         if (idx != null) {
             if (idx == -1) return identifier;
@@ -83,7 +88,7 @@ public class IllegalIdentifierReplacement implements IllegalIdentifierDump {
     }
 
     @Override
-    public String getLegalShortName(String shortName) {
+    public synchronized String getLegalShortName(String shortName) {
         String key = classes.get(shortName);
         if (key != null) {
             if (key.isEmpty()) return shortName;
@@ -100,6 +105,4 @@ public class IllegalIdentifierReplacement implements IllegalIdentifierDump {
         }
     }
 
-    public static IllegalIdentifierReplacement getInstance() { return instance; }
-
 }
@@ -18,6 +18,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class InternalDumperFactoryImpl implements DumperFactory {
     private final boolean checkDupes;
@@ -26,9 +27,23 @@ public class InternalDumperFactoryImpl implements DumperFactory {
     private final Options options;
     private final ProgressDumper progressDumper;
     private final String prefix;
+    // Shared with factories derived from this one, and later inputs' factories, so shortened file names can't clash.
+    private final AtomicInteger truncCount;
 
 
     public InternalDumperFactoryImpl(Options options) {
+        this(options, new AtomicInteger());
+    }
+
+    /*
+     * For the next input of the same run - shortened file names carry on numbering from previousInput, as they may
+     * end up in the same directory.
+     */
+    public InternalDumperFactoryImpl(InternalDumperFactoryImpl previousInput) {
+        this(previousInput.options, previousInput.truncCount);
+    }
+
+    private InternalDumperFactoryImpl(Options options, AtomicInteger truncCount) {
         this.checkDupes = OsInfo.OS().isCaseInsensitive() && !options.getOption(OptionsImpl.CASE_INSENSITIVE_FS_RENAME);
         this.options = options;
         if (!options.getOption(OptionsImpl.SILENT) && (options.optionIsSet(OptionsImpl.OUTPUT_DIR) || options.optionIsSet(OptionsImpl.OUTPUT_PATH))) {
@@ -37,6 +52,7 @@ public class InternalDumperFactoryImpl implements DumperFactory {
             progressDumper = ProgressDumperNop.INSTANCE;
         }
         this.prefix = "";
+        this.truncCount = truncCount;
     }
 
     private InternalDumperFactoryImpl(InternalDumperFactoryImpl other, String prefix) {
@@ -45,6 +61,7 @@ public class InternalDumperFactoryImpl implements DumperFactory {
         this.options = other.options;
         this.progressDumper = other.progressDumper;
         this.prefix = prefix;
+        this.truncCount = other.truncCount;
     }
 
     @Override
@@ -69,7 +86,7 @@ public class InternalDumperFactoryImpl implements DumperFactory {
 
         if (targetInfo == null) return new StdIODumper(typeUsageInformation, options, illegalIdentifierDump, new MovableDumperContext());
 
-        FileDumper res = new FileDumper(targetInfo.getFirst() + prefix, targetInfo.getSecond(), classType, summaryDumper, typeUsageInformation, options, illegalIdentifierDump);
+        FileDumper res = new FileDumper(targetInfo.getFirst() + prefix, targetInfo.getSecond(), classType, summaryDumper, typeUsageInformation, options, illegalIdentifierDump, truncCount);
         if (checkDupes) {
             if (!seen.add(res.getFileName().toLowerCase())) {
                 seenCaseDupe = true;
@@ -110,6 +127,11 @@ public class InternalDumperFactoryImpl implements DumperFactory {
         }
     }
 
+    @Override
+    public boolean isPlainText() {
+        return !options.getOption(OptionsImpl.TRACK_BYTECODE_LOC);
+    }
+
     @Override
     public Dumper wrapLineNoDumper(Dumper dumper) {
         // There's really not a reason to do this, but it's useful for testing.
@@ -151,4 +173,9 @@ public class InternalDumperFactoryImpl implements DumperFactory {
     public ProgressDumper getProgressDumper() {
         return progressDumper;
     }
+
+    @Override
+    public TimingDumper getTimingDumper() {
+        return new TimingDumperStdErr();
+    }
 }
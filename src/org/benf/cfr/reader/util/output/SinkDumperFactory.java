@@ -40,14 +40,41 @@ public class SinkDumperFactory implements DumperFactory {
         return new SinkDumperFactory(this, version);
     }
 
-    @Override
-    public Dumper getNewTopLevelDumper(JavaTypeInstance classType, SummaryDumper summaryDumper, TypeUsageInformation typeUsageInformation, IllegalIdentifierDump illegalIdentifierDump) {
+    private List<OutputSinkFactory.SinkClass> getSupportedJavaSinks() {
         List<OutputSinkFactory.SinkClass> supported = sinkFactory.getSupportedSinks(OutputSinkFactory.SinkType.JAVA, Arrays.asList(OutputSinkFactory.SinkClass.DECOMPILED_MULTIVER, OutputSinkFactory.SinkClass.DECOMPILED, OutputSinkFactory.SinkClass.TOKEN_STREAM, OutputSinkFactory.SinkClass.STRING));
         if (supported == null) supported = justString;
+        return supported;
+    }
+
+    @Override
+    public Dumper getNewTopLevelDumper(JavaTypeInstance classType, SummaryDumper summaryDumper, TypeUsageInformation typeUsageInformation, IllegalIdentifierDump illegalIdentifierDump) {
+        List<OutputSinkFactory.SinkClass> supported = getSupportedJavaSinks();
         MethodErrorCollector methodErrorCollector = new SummaryDumperMethodErrorCollector(classType, summaryDumper);
         return getTopLevelDumper2(classType, typeUsageInformation, illegalIdentifierDump, supported, methodErrorCollector);
     }
 
+    /*
+     * A token stream carries what each token is and refers to, and line number mappings where code came from -
+     * neither survives being flattened to text.
+     */
+    @Override
+    public boolean isPlainText() {
+        List<OutputSinkFactory.SinkClass> linesSupported = sinkFactory.getSupportedSinks(OutputSinkFactory.SinkType.LINENUMBER, Collections.singletonList(OutputSinkFactory.SinkClass.LINE_NUMBER_MAPPING));
+        if (linesSupported != null && linesSupported.contains(OutputSinkFactory.SinkClass.LINE_NUMBER_MAPPING)) return false;
+        for (OutputSinkFactory.SinkClass sinkClass : getSupportedJavaSinks()) {
+            switch (sinkClass) {
+                case DECOMPILED_MULTIVER:
+                case DECOMPILED:
+                case STRING:
+                    return true;
+                case TOKEN_STREAM:
+                    return false;
+                default:
+            }
+        }
+        return true;
+    }
+
     @Override
     public Dumper wrapLineNoDumper(Dumper dumper) {
         List<OutputSinkFactory.SinkClass> linesSupported = sinkFactory.getSupportedSinks(OutputSinkFactory.SinkType.LINENUMBER, Collections.singletonList(OutputSinkFactory.SinkClass.LINE_NUMBER_MAPPING));
@@ -262,6 +289,24 @@ public class SinkDumperFactory implements DumperFactory {
         return new SinkStringExceptionDumper(stringSink);
     }
 
+    @Override
+    public TimingDumper getTimingDumper() {
+        List<OutputSinkFactory.SinkClass> supported = sinkFactory.getSupportedSinks(OutputSinkFactory.SinkType.TIMING, justString);
+        if (supported == null || !supported.contains(OutputSinkFactory.SinkClass.STRING)) {
+            return TimingDumperNop.INSTANCE;
+        }
+        final OutputSinkFactory.Sink<String> sink = sinkFactory.getSink(OutputSinkFactory.SinkType.TIMING, OutputSinkFactory.SinkClass.STRING);
+        if (sink == null) {
+            return TimingDumperNop.INSTANCE;
+        }
+        return new TimingDumper() {
+            @Override
+            public void timings(String report) {
+                sink.write(report);
+            }
+        };
+    }
+
     private static class NopStringSink implements OutputSinkFactory.Sink<String> {
         @Override
         public void write(String sinkable) {
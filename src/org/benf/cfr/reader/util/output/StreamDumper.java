@@ -56,9 +56,11 @@ public abstract class StreamDumper extends AbstractDumper {
         processPendingCR();
         if (inline) {
             doIndent();
-            write(s + ": ");
+            write(s);
+            write(": ");
         } else {
-            write(s + ":");
+            write(s);
+            write(":");
             newln();
         }
         return this;
@@ -104,7 +106,7 @@ public abstract class StreamDumper extends AbstractDumper {
 
     @Override
     public Dumper print(char c) {
-        return print("" + c);
+        return print(charString(c));
     }
 
     @Override
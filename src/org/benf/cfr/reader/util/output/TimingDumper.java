@@ -0,0 +1,5 @@
+package org.benf.cfr.reader.util.output;
+
+public interface TimingDumper {
+    void timings(String report);
+}
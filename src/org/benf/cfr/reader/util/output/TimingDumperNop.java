@@ -0,0 +1,11 @@
+package org.benf.cfr.reader.util.output;
+
+public class TimingDumperNop implements TimingDumper {
+    public static final TimingDumper INSTANCE = new TimingDumperNop();
+
+    private TimingDumperNop() {}
+
+    @Override
+    public void timings(String report) {
+    }
+}
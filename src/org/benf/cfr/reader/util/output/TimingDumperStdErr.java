@@ -0,0 +1,9 @@
+package org.benf.cfr.reader.util.output;
+
+public class TimingDumperStdErr implements TimingDumper {
+
+    @Override
+    public void timings(String report) {
+        System.err.print(report);
+    }
+}
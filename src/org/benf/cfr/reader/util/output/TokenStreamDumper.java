@@ -24,8 +24,11 @@ import java.util.Set;
 import static org.benf.cfr.reader.api.SinkReturns.TokenType.*;
 
 public class TokenStreamDumper extends AbstractDumper {
+    private static final Set<SinkReturns.TokenTypeFlags> NO_FLAGS = Collections.emptySet();
+    private static final Set<SinkReturns.TokenTypeFlags> DEFINES = Collections.singleton(SinkReturns.TokenTypeFlags.DEFINES);
+
     private final RecycleToken tok = new RecycleToken();
-    private final Token cr = new Token(NEWLINE, "\n", (Object) null);
+    private final Token cr = new Token(NEWLINE, "\n", null, NO_FLAGS);
     private final OutputSinkFactory.Sink<SinkReturns.Token> sink;
     private final int version;
     private final JavaTypeInstance classType;
@@ -35,12 +38,8 @@ public class TokenStreamDumper extends AbstractDumper {
     private final IllegalIdentifierDump illegalIdentifierDump;
 
     // We don't want to expose internals - we are simply making a offering to allow consumers to associate tokens.
-    private final Map<Object, Object> refMap = MapFactory.newLazyMap(new IdentityHashMap<Object, Object>(), new UnaryFunction<Object, Object>() {
-        @Override
-        public Object invoke(Object arg) {
-            return new Object();
-        }
-    });
+    // Shared with inner class dumpers, so the same object gets the same reference throughout a top level class.
+    private final Map<Object, Object> refMap;
 
     private final Set<JavaTypeInstance> emitted = SetFactory.newSet();
 
@@ -53,10 +52,31 @@ public class TokenStreamDumper extends AbstractDumper {
         this.typeUsageInformation = typeUsageInformation;
         this.options = options;
         this.illegalIdentifierDump = illegalIdentifierDump;
+        this.refMap = MapFactory.newLazyMap(new IdentityHashMap<Object, Object>(), new UnaryFunction<Object, Object>() {
+            @Override
+            public Object invoke(Object arg) {
+                return new Object();
+            }
+        });
+    }
+
+    private TokenStreamDumper(TokenStreamDumper other, TypeUsageInformation typeUsageInformation) {
+        super(other.context);
+        this.sink = other.sink;
+        this.version = other.version;
+        this.classType = other.classType;
+        this.methodErrorCollector = other.methodErrorCollector;
+        this.typeUsageInformation = typeUsageInformation;
+        this.options = other.options;
+        this.illegalIdentifierDump = other.illegalIdentifierDump;
+        this.refMap = other.refMap;
     }
 
     /*
      * Re-used basic token to avoid allocation.
+     *
+     * Only for tokens which are nothing but their type and text - anything with a reference or flags is a new Token,
+     * as consumers may hold onto those.
      */
     private static class RecycleToken implements SinkReturns.Token {
         private SinkReturns.TokenType type;
@@ -79,7 +99,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
         @Override
         public Set<SinkReturns.TokenTypeFlags> getFlags() {
-            return Collections.emptySet();
+            return NO_FLAGS;
         }
 
         SinkReturns.Token set(SinkReturns.TokenType type, String text) {
@@ -96,23 +116,8 @@ public class TokenStreamDumper extends AbstractDumper {
         private final Object raw;
         private final Set<SinkReturns.TokenTypeFlags> flags;
 
-        Token(SinkReturns.TokenType type, String value, Object raw) {
-            this(type, value, raw, Collections.<SinkReturns.TokenTypeFlags>emptySet());
-        }
-
-        Token(SinkReturns.TokenType type, String value, Object raw, SinkReturns.TokenTypeFlags flag) {
-            this(type, value, raw, Collections.singleton(flag));
-        }
-
-        Token(SinkReturns.TokenType type, String value, SinkReturns.TokenTypeFlags flag) {
-            this(type, value, null, Collections.singleton(flag));
-        }
-
-        Token(SinkReturns.TokenType type, String value, SinkReturns.TokenTypeFlags... flags) {
-            this(type, value, null, SetFactory.newSet(flags));
-        }
-
-        private Token(SinkReturns.TokenType type, String value, Object raw, Set<SinkReturns.TokenTypeFlags> flags) {
+        // flags are shared between tokens, so must be immutable.
+        Token(SinkReturns.TokenType type, String value, Object raw, Set<SinkReturns.TokenTypeFlags> flags) {
             this.type = type;
             this.value = value;
             this.raw = raw;
@@ -175,7 +180,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper label(String s, boolean inline) {
-        sink(new Token(LABEL, s, SinkReturns.TokenTypeFlags.DEFINES));
+        sink(new Token(LABEL, s, null, DEFINES));
         return this;
     }
 
@@ -245,7 +250,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper literal(String s, Object o) {
-        sink(new Token(LITERAL, s, o));
+        sink(new Token(LITERAL, s, o, NO_FLAGS));
         return this;
     }
 
@@ -257,11 +262,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper methodName(String s, MethodPrototype p, boolean special, boolean defines) {
-        if (defines) {
-            sink(new Token(METHOD, s, refMap.get(p), SinkReturns.TokenTypeFlags.DEFINES));
-        } else {
-            sink(new Token(METHOD, s, refMap.get(p)));
-        }
+        sink(new Token(METHOD, s, refMap.get(p), defines ? DEFINES : NO_FLAGS));
         return this;
     }
 
@@ -276,17 +277,13 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper identifier(String s, Object ref, boolean defines) {
-        if (defines) {
-            sink(new Token(IDENTIFIER, s, refMap.get(ref), SinkReturns.TokenTypeFlags.DEFINES));
-        } else {
-            sink(new Token(IDENTIFIER, s, refMap.get(ref)));
-        }
+        sink(new Token(IDENTIFIER, s, refMap.get(ref), defines ? DEFINES : NO_FLAGS));
         return this;
     }
 
     @Override
     public Dumper print(char c) {
-        print("" + c);
+        print(charString(c));
         return this;
     }
 
@@ -353,7 +350,7 @@ public class TokenStreamDumper extends AbstractDumper {
     @Override
     public Dumper fieldName(String name, JavaTypeInstance owner, boolean hiddenDeclaration, boolean isStatic, boolean defines) {
         if (defines) {
-            sink(new Token(FIELD, name, SinkReturns.TokenTypeFlags.DEFINES));
+            sink(new Token(FIELD, name, null, DEFINES));
         } else {
             sink(FIELD, name);
         }
@@ -362,7 +359,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper withTypeUsageInformation(TypeUsageInformation innerclassTypeUsageInformation) {
-        return new TokenStreamDumper(sink, version, classType, methodErrorCollector, innerclassTypeUsageInformation, options, illegalIdentifierDump, context);
+        return new TokenStreamDumper(this, innerclassTypeUsageInformation);
     }
 
     @Override